@@ -0,0 +1,271 @@
+/*
+ * Copyright 2012 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Batching run loop shared by {@link BatchEventProcessor} and the processors that consume primitive
+ * ring buffers, so they all have the same batching, lifecycle and exception semantics. Subclasses
+ * only supply the dispatch of a single sequence, or of a whole range, to their handler.
+ *
+ * @param <T> event implementation, or the boxed type of a primitive value, reported to the {@link
+ *     ExceptionHandler}.
+ */
+abstract class AbstractBatchEventProcessor<T> implements EventProcessor {
+  private static final int IDLE = 0;
+  private static final int HALTED = IDLE + 1;
+  private static final int RUNNING = HALTED + 1;
+  private final BatchStartAware batchStartAware;
+  private final TimeoutHandler timeoutHandler;
+  private final LifecycleAware lifecycleAware;
+  private final boolean dispatchesBatches;
+  private final AtomicInteger running = new AtomicInteger(IDLE);
+  private final Sequence sequence;
+  private final SequenceBarrier sequenceBarrier;
+  private ExceptionHandler<? super T> exceptionHandler = new FatalExceptionHandler();
+  private int maxBatchSize = Integer.MAX_VALUE;
+  private int progressInterval = Integer.MAX_VALUE;
+
+  AbstractBatchEventProcessor(final SequenceBarrier sequenceBarrier, final Object eventHandler) {
+    this(sequenceBarrier, eventHandler, new Sequence(Sequencer.INITIAL_CURSOR_VALUE), false);
+  }
+
+  /**
+   * @param sequenceBarrier on which it is waiting.
+   * @param eventHandler checked for the optional callback interfaces.
+   * @param sequence updated as events are processed.
+   * @param dispatchesBatches whether each range is passed to {@link #onBatch(long, long)} rather
+   *     than each sequence to {@link #onEvent(long, boolean)}.
+   */
+  AbstractBatchEventProcessor(
+      final SequenceBarrier sequenceBarrier,
+      final Object eventHandler,
+      final Sequence sequence,
+      final boolean dispatchesBatches) {
+    this.sequenceBarrier = sequenceBarrier;
+    this.sequence = sequence;
+    this.dispatchesBatches = dispatchesBatches;
+
+    batchStartAware =
+        (eventHandler instanceof BatchStartAware) ? (BatchStartAware) eventHandler : null;
+    timeoutHandler =
+        (eventHandler instanceof TimeoutHandler) ? (TimeoutHandler) eventHandler : null;
+    lifecycleAware =
+        (eventHandler instanceof LifecycleAware) ? (LifecycleAware) eventHandler : null;
+  }
+
+  /**
+   * Dispatch the value at the given sequence to the handler.
+   *
+   * @param sequence of the value.
+   * @param endOfBatch whether this is the last value of the current batch.
+   * @throws Exception propagated from the handler.
+   */
+  abstract void onEvent(long sequence, boolean endOfBatch) throws Exception;
+
+  /**
+   * Dispatch a whole range to the handler, only called when the processor dispatches batches. If
+   * it throws, the whole range is skipped.
+   *
+   * @param startSequence of the range.
+   * @param endSequence of the range, inclusive.
+   * @throws Exception propagated from the handler.
+   */
+  void onBatch(long startSequence, long endSequence) throws Exception {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * The event, or boxed value, to report with a failure at the given sequence, called only on the
+   * exception path. Must not fetch the event from the data provider again, as getting it may have
+   * side effects.
+   *
+   * @param sequence that failed.
+   * @return the event or boxed value last passed to the handler, or <code>null</code>.
+   */
+  abstract T failedValue(long sequence);
+
+  @Override
+  public Sequence getSequence() {
+    return sequence;
+  }
+
+  @Override
+  public void halt() {
+    running.set(HALTED);
+    sequenceBarrier.alert();
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running.get() != IDLE;
+  }
+
+  /**
+   * It is ok to have another thread rerun this method after a halt().
+   *
+   * @throws IllegalStateException if this object instance is already running in a thread
+   */
+  @Override
+  public void run() {
+    if (!running.compareAndSet(IDLE, RUNNING)) {
+      if (running.get() == RUNNING) {
+        throw new IllegalStateException("Thread is already running");
+      }
+    }
+    sequenceBarrier.clearAlert();
+
+    notifyStart();
+
+    try {
+      if (running.get() == HALTED) {
+        return;
+      }
+
+      long nextSequence = sequence.get() + 1L;
+      long batchEndSequence = Sequencer.INITIAL_CURSOR_VALUE;
+
+      while (true) {
+        try {
+          final long availableSequence = sequenceBarrier.waitFor(nextSequence);
+          final long endOfBatchSequence =
+              Math.min(availableSequence, nextSequence + maxBatchSize - 1);
+          if (batchStartAware != null) {
+            batchStartAware.onBatchStart(endOfBatchSequence - nextSequence + 1);
+          }
+
+          if (dispatchesBatches) {
+            if (nextSequence <= endOfBatchSequence) {
+              batchEndSequence = endOfBatchSequence;
+              onBatch(nextSequence, endOfBatchSequence);
+              nextSequence = endOfBatchSequence + 1;
+            }
+          } else {
+            long progressSequence = nextSequence + progressInterval - 1;
+            while (nextSequence <= endOfBatchSequence) {
+              onEvent(nextSequence, nextSequence == endOfBatchSequence);
+              if (nextSequence == progressSequence) {
+                sequence.set(nextSequence);
+                sequenceBarrier.signalProducers();
+                progressSequence += progressInterval;
+              }
+              nextSequence++;
+            }
+          }
+
+          sequence.set(endOfBatchSequence);
+          sequenceBarrier.signalProducers();
+        } catch (final TimeoutException e) {
+          notifyTimeout(sequence.get());
+        } catch (final AlertException ex) {
+          if (running.get() != RUNNING) {
+            break;
+          }
+        } catch (final Throwable ex) {
+          exceptionHandler.handleEventException(ex, nextSequence, failedValue(nextSequence));
+          // a failed batch is skipped as a whole, as a single failed event is
+          nextSequence = Math.max(nextSequence, batchEndSequence);
+          sequence.set(nextSequence);
+          sequenceBarrier.signalProducers();
+          nextSequence++;
+        }
+      }
+    } finally {
+      notifyShutdown();
+      running.set(IDLE);
+    }
+  }
+
+  /** Notifies the handler when this processor is starting up */
+  private void notifyStart() {
+    if (lifecycleAware != null) {
+      try {
+        lifecycleAware.onStart();
+      } catch (final Throwable ex) {
+        exceptionHandler.handleOnStartException(ex);
+      }
+    }
+  }
+
+  private void notifyTimeout(final long availableSequence) {
+    try {
+      if (timeoutHandler != null) {
+        timeoutHandler.onTimeout(availableSequence);
+      }
+    } catch (Throwable e) {
+      exceptionHandler.handleEventException(e, availableSequence, null);
+    }
+  }
+
+  /** Notifies the handler immediately prior to this processor shutting down */
+  private void notifyShutdown() {
+    if (lifecycleAware != null) {
+      try {
+        lifecycleAware.onShutdown();
+      } catch (final Throwable ex) {
+        exceptionHandler.handleOnShutdownException(ex);
+      }
+    }
+  }
+
+  /**
+   * Limit the number of events handled before the sequence is updated, so that producers gated on
+   * this processor are not held back until a long backlog has been worked through. The last event
+   * of each limited batch is passed to the handler with <code>endOfBatch</code> set. Must be called
+   * before the processor is started.
+   *
+   * @param maxBatchSize the maximum number of events handled per batch.
+   * @throws IllegalArgumentException if maxBatchSize is less than 1.
+   */
+  public void setMaxBatchSize(final int maxBatchSize) {
+    if (maxBatchSize < 1) {
+      throw new IllegalArgumentException("maxBatchSize must be > 0");
+    }
+
+    this.maxBatchSize = maxBatchSize;
+  }
+
+  /**
+   * Update the sequence every <code>progressInterval</code> events within a batch, releasing the
+   * slots handled so far without ending the batch for the handler. Has no effect on a {@link
+   * BatchEventHandler}, which handles a batch in one call. Must be called before the processor is
+   * started.
+   *
+   * @param progressInterval the number of events handled between updates of the sequence.
+   * @throws IllegalArgumentException if progressInterval is less than 1.
+   */
+  public void setProgressInterval(final int progressInterval) {
+    if (progressInterval < 1) {
+      throw new IllegalArgumentException("progressInterval must be > 0");
+    }
+
+    this.progressInterval = progressInterval;
+  }
+
+  /**
+   * Set a new {@link ExceptionHandler} for handling exceptions propagated out of the processor.
+   *
+   * @param exceptionHandler to replace the existing exceptionHandler.
+   */
+  public void setExceptionHandler(final ExceptionHandler<? super T> exceptionHandler) {
+    if (null == exceptionHandler) {
+      throw new NullPointerException();
+    }
+
+    this.exceptionHandler = exceptionHandler;
+  }
+}
@@ -32,6 +32,7 @@ public abstract class AbstractSequencer implements Sequencer {
   protected final int bufferSize;
   protected final Sequence cursor = new Sequence(Sequencer.INITIAL_CURSOR_VALUE);
   protected final WaitStrategy waitStrategy;
+  protected final ProducerWaitStrategy producerWaitStrategy;
   protected volatile Sequence[] gatingSequences = new Sequence[0];
 
   /**
@@ -41,6 +42,18 @@ public abstract class AbstractSequencer implements Sequencer {
    * @param waitStrategy The wait strategy used by this sequencer
    */
   public AbstractSequencer(int bufferSize, WaitStrategy waitStrategy) {
+    this(bufferSize, waitStrategy, new SleepingProducerWaitStrategy());
+  }
+
+  /**
+   * Create with the specified buffer size, wait strategy and producer wait strategy.
+   *
+   * @param bufferSize The total number of entries, must be a positive power of 2.
+   * @param waitStrategy The wait strategy used by this sequencer
+   * @param producerWaitStrategy The strategy used by publishers waiting on a full buffer
+   */
+  public AbstractSequencer(
+      int bufferSize, WaitStrategy waitStrategy, ProducerWaitStrategy producerWaitStrategy) {
     if (bufferSize < 1) {
       throw new IllegalArgumentException("bufferSize must not be less than 1");
     }
@@ -50,6 +63,7 @@ public abstract class AbstractSequencer implements Sequencer {
 
     this.bufferSize = bufferSize;
     this.waitStrategy = waitStrategy;
+    this.producerWaitStrategy = producerWaitStrategy;
   }
 
   /**
@@ -60,6 +74,15 @@ public abstract class AbstractSequencer implements Sequencer {
     SequenceGroups.addSequences(this, SEQUENCE_UPDATER, this, gatingSequences);
   }
 
+  /**
+   * @see Sequencer#addGatingSequence(Sequence, long)
+   */
+  @Override
+  public final boolean addGatingSequence(Sequence gatingSequence, long initialValue) {
+    return SequenceGroups.addSequence(
+        this, SEQUENCE_UPDATER, this, gatingSequence, initialValue);
+  }
+
   /**
    * @see Sequencer#getMinimumSequence()
    */
@@ -73,7 +96,8 @@ public abstract class AbstractSequencer implements Sequencer {
    */
   @Override
   public SequenceBarrier newBarrier(Sequence... sequencesToTrack) {
-    return new ProcessingSequenceBarrier(this, waitStrategy, cursor, sequencesToTrack);
+    return new ProcessingSequenceBarrier(
+        this, waitStrategy, producerWaitStrategy, cursor, sequencesToTrack);
   }
 
   /**
@@ -118,6 +142,8 @@ public abstract class AbstractSequencer implements Sequencer {
     return "AbstractSequencer{"
         + "waitStrategy="
         + waitStrategy
+        + ", producerWaitStrategy="
+        + producerWaitStrategy
         + ", cursor="
         + cursor
         + ", gatingSequences="
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Callback interface for handlers that complete their work asynchronously, run by an {@link
+ * AsyncEventProcessor}.
+ *
+ * <p>The event may be read until the returned stage completes, as its slot in the {@link
+ * RingBuffer} is not released before then.
+ *
+ * @param <T> event implementation storing the data for sharing during exchange or parallel
+ *     coordination of an event.
+ * @see AsyncEventProcessor#setExceptionHandler(ExceptionHandler) if you want to handle exceptions
+ *     thrown by, or completing the stages of, the handler.
+ */
+public interface AsyncEventHandler<T> {
+  /**
+   * Called when a publisher has published an event to the {@link RingBuffer}
+   *
+   * @param event published to the {@link RingBuffer}
+   * @param sequence of the event being processed
+   * @return stage completing when the event has been handled, or null if it already has been.
+   * @throws Exception if the AsyncEventHandler would like the exception handled further up the
+   *     chain.
+   */
+  CompletionStage<?> onEvent(T event, long sequence) throws Exception;
+}
@@ -0,0 +1,294 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+
+import com.lmax.disruptor.util.Util;
+
+/**
+ * {@link EventProcessor} for an {@link AsyncEventHandler}, keeping up to <code>maxInFlight</code>
+ * events being handled at once from a single thread.
+ *
+ * <p>Stages may complete in any order, but the sequence only advances over the contiguous run of
+ * completed events following it, so processors and producers gated on it never pass an event that
+ * is still in flight. Exceptions are passed to the {@link ExceptionHandler} on the processor
+ * thread, in sequence order.
+ *
+ * <p>While events are in flight the processor parks between checks for new events rather than
+ * blocking in the {@link WaitStrategy}, and is woken as each stage completes. When halted it stops
+ * taking new events and returns once those in flight have completed.
+ *
+ * <p>If the handler also implements {@link LifecycleAware} it will be notified just after the
+ * thread is started and just before the thread is shutdown.
+ *
+ * @param <T> event implementation storing the data for sharing during exchange or parallel
+ *     coordination of an event.
+ */
+public final class AsyncEventProcessor<T> implements EventProcessor {
+  private static final int IDLE = 0;
+  private static final int HALTED = IDLE + 1;
+  private static final int RUNNING = HALTED + 1;
+  private static final long POLL_NANOS = 10_000L;
+  private final DataProvider<T> dataProvider;
+  private final AsyncEventHandler<? super T> eventHandler;
+  private final LifecycleAware lifecycleAware;
+  private final TimeoutHandler timeoutHandler;
+  private final AtomicInteger running = new AtomicInteger(IDLE);
+  private final Sequence sequence = new Sequence(Sequencer.INITIAL_CURSOR_VALUE);
+  private final SequenceBarrier sequenceBarrier;
+  private final int maxInFlight;
+  private final int indexMask;
+  private final Completion[] completions;
+  private ExceptionHandler<? super T> exceptionHandler = new FatalExceptionHandler();
+  private volatile Thread thread;
+
+  /**
+   * Construct a {@link EventProcessor} that will track the progress by updating its sequence as
+   * the stages returned by {@link AsyncEventHandler#onEvent(Object, long)} complete.
+   *
+   * @param dataProvider to which events are published.
+   * @param sequenceBarrier on which it is waiting.
+   * @param eventHandler is the delegate to which events are dispatched.
+   * @param maxInFlight the maximum number of events dispatched but not yet completed.
+   * @throws IllegalArgumentException if maxInFlight is less than 1.
+   */
+  public AsyncEventProcessor(
+      final DataProvider<T> dataProvider,
+      final SequenceBarrier sequenceBarrier,
+      final AsyncEventHandler<? super T> eventHandler,
+      final int maxInFlight) {
+    if (maxInFlight < 1) {
+      throw new IllegalArgumentException("maxInFlight must be > 0");
+    }
+
+    this.dataProvider = dataProvider;
+    this.sequenceBarrier = sequenceBarrier;
+    this.eventHandler = eventHandler;
+    this.maxInFlight = maxInFlight;
+
+    final int size = Util.ceilingNextPowerOfTwo(maxInFlight);
+    indexMask = size - 1;
+    completions = new Completion[size];
+    for (int i = 0; i < size; i++) {
+      completions[i] = new Completion(this);
+    }
+
+    lifecycleAware =
+        (eventHandler instanceof LifecycleAware) ? (LifecycleAware) eventHandler : null;
+    timeoutHandler =
+        (eventHandler instanceof TimeoutHandler) ? (TimeoutHandler) eventHandler : null;
+  }
+
+  @Override
+  public Sequence getSequence() {
+    return sequence;
+  }
+
+  @Override
+  public void halt() {
+    running.set(HALTED);
+    sequenceBarrier.alert();
+    LockSupport.unpark(thread);
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running.get() != IDLE;
+  }
+
+  /**
+   * It is ok to have another thread rerun this method after a halt().
+   *
+   * @throws IllegalStateException if this object instance is already running in a thread
+   */
+  @Override
+  public void run() {
+    if (!running.compareAndSet(IDLE, RUNNING)) {
+      if (running.get() == RUNNING) {
+        throw new IllegalStateException("Thread is already running");
+      }
+    }
+    sequenceBarrier.clearAlert();
+    thread = Thread.currentThread();
+
+    notifyStart();
+
+    try {
+      if (running.get() == HALTED) {
+        return;
+      }
+
+      long completedSequence = sequence.get();
+      long nextSequence = completedSequence + 1L;
+
+      while (true) {
+        try {
+          completedSequence = releaseCompleted(completedSequence);
+          final long inFlight = nextSequence - 1L - completedSequence;
+
+          if (inFlight == 0L
+              || (inFlight < maxInFlight && sequenceBarrier.getCursor() >= nextSequence)) {
+            final long availableSequence = sequenceBarrier.waitFor(nextSequence);
+            final long endSequence = Math.min(availableSequence, completedSequence + maxInFlight);
+            while (nextSequence <= endSequence) {
+              dispatch(nextSequence);
+              nextSequence++;
+            }
+          } else {
+            sequenceBarrier.checkAlert();
+            LockSupport.parkNanos(this, POLL_NANOS);
+          }
+        } catch (final TimeoutException e) {
+          notifyTimeout(sequence.get());
+        } catch (final AlertException ex) {
+          if (running.get() != RUNNING) {
+            break;
+          }
+        } catch (final InterruptedException ex) {
+          exceptionHandler.handleEventException(ex, nextSequence, null);
+        }
+      }
+
+      while ((completedSequence = releaseCompleted(completedSequence)) < nextSequence - 1L) {
+        LockSupport.parkNanos(this, POLL_NANOS);
+      }
+    } finally {
+      notifyShutdown();
+      thread = null;
+      running.set(IDLE);
+    }
+  }
+
+  private void dispatch(final long sequence) {
+    final Completion completion = completions[(int) sequence & indexMask];
+    completion.sequence = sequence;
+
+    final CompletionStage<?> stage;
+    try {
+      stage = eventHandler.onEvent(dataProvider.get(sequence), sequence);
+    } catch (final Throwable ex) {
+      completion.accept(null, ex);
+      return;
+    }
+
+    if (stage == null) {
+      completion.accept(null, null);
+    } else {
+      stage.whenComplete(completion);
+    }
+  }
+
+  /**
+   * Advance the sequence over the completed events following it, handling any exceptions they
+   * completed with.
+   */
+  private long releaseCompleted(final long completedSequence) {
+    long releasedSequence = completedSequence;
+    while (true) {
+      final long candidate = releasedSequence + 1L;
+      final Completion completion = completions[(int) candidate & indexMask];
+      if (completion.completedSequence != candidate) {
+        break;
+      }
+
+      final Throwable failure = completion.failure;
+      if (failure != null) {
+        completion.failure = null;
+        exceptionHandler.handleEventException(failure, candidate, dataProvider.get(candidate));
+      }
+      releasedSequence = candidate;
+    }
+
+    if (releasedSequence != completedSequence) {
+      sequence.set(releasedSequence);
+      sequenceBarrier.signalProducers();
+    }
+
+    return releasedSequence;
+  }
+
+  /** Notifies the AsyncEventHandler when this processor is starting up */
+  private void notifyStart() {
+    if (lifecycleAware != null) {
+      try {
+        lifecycleAware.onStart();
+      } catch (final Throwable ex) {
+        exceptionHandler.handleOnStartException(ex);
+      }
+    }
+  }
+
+  private void notifyTimeout(final long availableSequence) {
+    try {
+      if (timeoutHandler != null) {
+        timeoutHandler.onTimeout(availableSequence);
+      }
+    } catch (Throwable e) {
+      exceptionHandler.handleEventException(e, availableSequence, null);
+    }
+  }
+
+  /** Notifies the AsyncEventHandler immediately prior to this processor shutting down */
+  private void notifyShutdown() {
+    if (lifecycleAware != null) {
+      try {
+        lifecycleAware.onShutdown();
+      } catch (final Throwable ex) {
+        exceptionHandler.handleOnShutdownException(ex);
+      }
+    }
+  }
+
+  /**
+   * Set a new {@link ExceptionHandler} for handling exceptions thrown by the handler or completing
+   * its stages.
+   *
+   * @param exceptionHandler to replace the existing exceptionHandler.
+   */
+  public void setExceptionHandler(final ExceptionHandler<? super T> exceptionHandler) {
+    if (null == exceptionHandler) {
+      throw new NullPointerException();
+    }
+
+    this.exceptionHandler = exceptionHandler;
+  }
+
+  /**
+   * Completion callback for the events sharing one slot of the in-flight window, reused as the
+   * window moves on. The failure is published by the volatile write of the completed sequence.
+   */
+  private static final class Completion implements BiConsumer<Object, Throwable> {
+    private final AsyncEventProcessor<?> processor;
+    private long sequence;
+    private Throwable failure;
+    private volatile long completedSequence = Sequencer.INITIAL_CURSOR_VALUE;
+
+    Completion(final AsyncEventProcessor<?> processor) {
+      this.processor = processor;
+    }
+
+    @Override
+    public void accept(final Object result, final Throwable failure) {
+      this.failure = failure;
+      completedSequence = sequence;
+      LockSupport.unpark(processor.thread);
+    }
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+/**
+ * The operations of a {@link Sequence}, for sequences whose value is held elsewhere, such as the
+ * slots of a {@link SequenceArray}, and which so do not pay for the padding of a {@link Sequence}.
+ */
+public interface AtomicSequence {
+  /**
+   * Perform a volatile read of the sequence's value.
+   *
+   * @return The current value of the sequence.
+   */
+  long get();
+
+  /**
+   * Perform an ordered write of the sequence.
+   *
+   * @param value The new value for the sequence.
+   */
+  void set(long value);
+
+  /**
+   * Perform a volatile write of the sequence.
+   *
+   * @param value The new value for the sequence.
+   */
+  void setVolatile(long value);
+
+  /**
+   * Perform a compare and set operation on the sequence.
+   *
+   * @param expectedValue The expected current value.
+   * @param newValue The value to update to.
+   * @return true if the operation succeeds, false otherwise.
+   */
+  boolean compareAndSet(long expectedValue, long newValue);
+
+  /**
+   * Atomically increment the sequence by one.
+   *
+   * @return The value after the increment
+   */
+  long incrementAndGet();
+
+  /**
+   * Atomically add the supplied value.
+   *
+   * @param increment The value to add to the sequence.
+   * @return The value after the increment.
+   */
+  long addAndGet(long increment);
+
+  /**
+   * Atomically add the supplied value.
+   *
+   * @param increment The value to add to the sequence.
+   * @return The value before the increment.
+   */
+  long getAndAdd(long increment);
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+/**
+ * Callback interface to be implemented for processing each available range of events in the {@link
+ * RingBuffer} with a single call, for handlers that batch their own work such as one write per
+ * range.
+ *
+ * @param <T> event implementation storing the data for sharing during exchange or parallel
+ *     coordination of an event.
+ * @see BatchEventProcessor#setExceptionHandler(ExceptionHandler) if you want to handle exceptions
+ *     propagated out of the handler.
+ */
+public interface BatchEventHandler<T> {
+  /**
+   * Called when a publisher has published one or more events to the {@link RingBuffer}. The batch
+   * is reused for the next call, so it must not be retained once this method returns.
+   *
+   * @param batch view over the events now available, in sequence order.
+   * @throws Exception if the BatchEventHandler would like the exception handled further up the
+   *     chain.
+   */
+  void onBatch(EventBatch<T> batch) throws Exception;
+}
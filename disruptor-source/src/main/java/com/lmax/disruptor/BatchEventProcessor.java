@@ -15,30 +15,23 @@
  */
 package com.lmax.disruptor;
 
-import java.util.concurrent.atomic.AtomicInteger;
-
 /**
  * Convenience class for handling the batching semantics of consuming entries from a {@link
- * RingBuffer} and delegating the available events to an {@link EventHandler}.
+ * RingBuffer} and delegating the available events to an {@link EventHandler}, or each available
+ * range of them to a {@link BatchEventHandler}.
  *
- * <p>If the {@link EventHandler} also implements {@link LifecycleAware} it will be notified just
- * after the thread is started and just before the thread is shutdown.
+ * <p>If the handler also implements {@link LifecycleAware} it will be notified just after the
+ * thread is started and just before the thread is shutdown.
  *
  * @param <T> event implementation storing the data for sharing during exchange or parallel
  *     coordination of an event.
  */
-public final class BatchEventProcessor<T> implements EventProcessor {
-  private static final int IDLE = 0;
-  private static final int HALTED = IDLE + 1;
-  private static final int RUNNING = HALTED + 1;
-  private final BatchStartAware batchStartAware;
+public final class BatchEventProcessor<T> extends AbstractBatchEventProcessor<T> {
   private final DataProvider<T> dataProvider;
   private final EventHandler<? super T> eventHandler;
-  private final AtomicInteger running = new AtomicInteger(IDLE);
-  private final Sequence sequence = new Sequence(Sequencer.INITIAL_CURSOR_VALUE);
-  private final SequenceBarrier sequenceBarrier;
-  private final TimeoutHandler timeoutHandler;
-  private ExceptionHandler<? super T> exceptionHandler = new FatalExceptionHandler();
+  private final BatchEventHandler<T> batchEventHandler;
+  private final EventBatch<T> eventBatch;
+  private T event;
 
   /**
    * Construct a {@link EventProcessor} that will automatically track the progress by updating its
@@ -52,135 +45,82 @@ public final class BatchEventProcessor<T> implements EventProcessor {
       final DataProvider<T> dataProvider,
       final SequenceBarrier sequenceBarrier,
       final EventHandler<? super T> eventHandler) {
-    this.dataProvider = dataProvider;
-    this.sequenceBarrier = sequenceBarrier;
-    this.eventHandler = eventHandler;
+    this(dataProvider, sequenceBarrier, eventHandler, new Sequence(Sequencer.INITIAL_CURSOR_VALUE));
+  }
+
+  /**
+   * Construct a {@link EventProcessor} that tracks its progress in a sequence supplied by the
+   * caller, such as a leaf of a {@link SequenceTree}.
+   *
+   * @param dataProvider to which events are published.
+   * @param sequenceBarrier on which it is waiting.
+   * @param eventHandler is the delegate to which events are dispatched.
+   * @param sequence updated as events are processed, not to be shared with another processor.
+   */
+  public BatchEventProcessor(
+      final DataProvider<T> dataProvider,
+      final SequenceBarrier sequenceBarrier,
+      final EventHandler<? super T> eventHandler,
+      final Sequence sequence) {
+    this(dataProvider, sequenceBarrier, eventHandler, null, eventHandler, sequence);
 
     if (eventHandler instanceof SequenceReportingEventHandler) {
       ((SequenceReportingEventHandler<?>) eventHandler).setSequenceCallback(sequence);
     }
-
-    batchStartAware =
-        (eventHandler instanceof BatchStartAware) ? (BatchStartAware) eventHandler : null;
-    timeoutHandler =
-        (eventHandler instanceof TimeoutHandler) ? (TimeoutHandler) eventHandler : null;
-  }
-
-  @Override
-  public Sequence getSequence() {
-    return sequence;
-  }
-
-  @Override
-  public void halt() {
-    running.set(HALTED);
-    sequenceBarrier.alert();
-  }
-
-  @Override
-  public boolean isRunning() {
-    return running.get() != IDLE;
   }
 
   /**
-   * It is ok to have another thread rerun this method after a halt().
+   * Construct a {@link EventProcessor} that passes each available range of events to a {@link
+   * BatchEventHandler} in one call, and updates its sequence when {@link
+   * BatchEventHandler#onBatch(EventBatch)} returns.
    *
-   * @throws IllegalStateException if this object instance is already running in a thread
+   * @param dataProvider to which events are published.
+   * @param sequenceBarrier on which it is waiting.
+   * @param batchEventHandler is the delegate to which batches of events are dispatched.
    */
-  @Override
-  public void run() {
-    if (!running.compareAndSet(IDLE, RUNNING)) {
-      if (running.get() == RUNNING) {
-        throw new IllegalStateException("Thread is already running");
-      }
-    }
-    sequenceBarrier.clearAlert();
-
-    notifyStart();
-
-    try {
-      if (running.get() == HALTED) {
-        return;
-      }
-
-      T event = null;
-      long nextSequence = sequence.get() + 1L;
-
-      while (true) {
-        try {
-          final long availableSequence = sequenceBarrier.waitFor(nextSequence);
-          if (batchStartAware != null) {
-            batchStartAware.onBatchStart(availableSequence - nextSequence + 1);
-          }
-
-          while (nextSequence <= availableSequence) {
-            event = dataProvider.get(nextSequence);
-            eventHandler.onEvent(event, nextSequence, nextSequence == availableSequence);
-            nextSequence++;
-          }
-
-          sequence.set(availableSequence);
-        } catch (final TimeoutException e) {
-          notifyTimeout(sequence.get());
-        } catch (final AlertException ex) {
-          if (running.get() != RUNNING) {
-            break;
-          }
-        } catch (final Throwable ex) {
-          exceptionHandler.handleEventException(ex, nextSequence, event);
-          sequence.set(nextSequence);
-          nextSequence++;
-        }
-      }
-    } finally {
-      notifyShutdown();
-      running.set(IDLE);
-    }
+  public BatchEventProcessor(
+      final DataProvider<T> dataProvider,
+      final SequenceBarrier sequenceBarrier,
+      final BatchEventHandler<T> batchEventHandler) {
+    this(
+        dataProvider,
+        sequenceBarrier,
+        null,
+        batchEventHandler,
+        batchEventHandler,
+        new Sequence(Sequencer.INITIAL_CURSOR_VALUE));
   }
 
-  /** Notifies the EventHandler when this processor is starting up */
-  private void notifyStart() {
-    if (eventHandler instanceof LifecycleAware) {
-      try {
-        ((LifecycleAware) eventHandler).onStart();
-      } catch (final Throwable ex) {
-        exceptionHandler.handleOnStartException(ex);
-      }
-    }
+  private BatchEventProcessor(
+      final DataProvider<T> dataProvider,
+      final SequenceBarrier sequenceBarrier,
+      final EventHandler<? super T> eventHandler,
+      final BatchEventHandler<T> batchEventHandler,
+      final Object handler,
+      final Sequence sequence) {
+    super(sequenceBarrier, handler, sequence, batchEventHandler != null);
+    this.dataProvider = dataProvider;
+    this.eventHandler = eventHandler;
+    this.batchEventHandler = batchEventHandler;
+    this.eventBatch = new EventBatch<T>(dataProvider);
   }
 
-  private void notifyTimeout(final long availableSequence) {
-    try {
-      if (timeoutHandler != null) {
-        timeoutHandler.onTimeout(availableSequence);
-      }
-    } catch (Throwable e) {
-      exceptionHandler.handleEventException(e, availableSequence, null);
-    }
+  @Override
+  void onEvent(final long sequence, final boolean endOfBatch) throws Exception {
+    event = dataProvider.get(sequence);
+    eventHandler.onEvent(event, sequence, endOfBatch);
   }
 
-  /** Notifies the EventHandler immediately prior to this processor shutting down */
-  private void notifyShutdown() {
-    if (eventHandler instanceof LifecycleAware) {
-      try {
-        ((LifecycleAware) eventHandler).onShutdown();
-      } catch (final Throwable ex) {
-        exceptionHandler.handleOnShutdownException(ex);
-      }
-    }
+  @Override
+  void onBatch(final long startSequence, final long endSequence) throws Exception {
+    // the batch handler fetches its own events, so none can be reported if it fails
+    event = null;
+    eventBatch.reset(startSequence, (int) (endSequence - startSequence + 1));
+    batchEventHandler.onBatch(eventBatch);
   }
 
-  /**
-   * Set a new {@link ExceptionHandler} for handling exceptions propagated out of the {@link
-   * BatchEventProcessor}
-   *
-   * @param exceptionHandler to replace the existing exceptionHandler.
-   */
-  public void setExceptionHandler(final ExceptionHandler<? super T> exceptionHandler) {
-    if (null == exceptionHandler) {
-      throw new NullPointerException();
-    }
-
-    this.exceptionHandler = exceptionHandler;
+  @Override
+  T failedValue(final long sequence) {
+    return event;
   }
 }
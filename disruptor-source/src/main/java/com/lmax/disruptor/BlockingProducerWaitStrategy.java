@@ -0,0 +1,145 @@
+/*
+ * Copyright 2012 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Blocking strategy that uses a lock and condition variable for publishers waiting on a full ring
+ * buffer, woken by the consumers as they advance their sequences.
+ *
+ * <p>Consumers only take the lock when a publisher has flagged that it is waiting, so the cost on
+ * the consuming side is a volatile read per batch. Consumer sequences are updated with ordered
+ * writes, so a wake up can be missed; waits are therefore bounded and the gating sequences
+ * rechecked after the given period.
+ */
+public final class BlockingProducerWaitStrategy implements ProducerWaitStrategy {
+  private static final long DEFAULT_MAX_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(1L);
+
+  private final Lock lock = new ReentrantLock();
+  private final Condition capacityCondition = lock.newCondition();
+  private final AtomicBoolean signalNeeded = new AtomicBoolean(false);
+  private final long maxWaitNanos;
+
+  public BlockingProducerWaitStrategy() {
+    this.maxWaitNanos = DEFAULT_MAX_WAIT_NANOS;
+  }
+
+  /**
+   * @param maxWait the longest period to block for before rechecking the gating sequences.
+   * @param units Time units used for the period.
+   */
+  public BlockingProducerWaitStrategy(long maxWait, TimeUnit units) {
+    this.maxWaitNanos = units.toNanos(maxWait);
+  }
+
+  @Override
+  public long waitFor(final long wrapPoint, final Sequence gatingSequence) {
+    long minSequence;
+    if ((minSequence = gatingSequence.get()) >= wrapPoint) {
+      return minSequence;
+    }
+
+    boolean interrupted = false;
+    lock.lock();
+    try {
+      while (true) {
+        signalNeeded.set(true);
+        if ((minSequence = gatingSequence.get()) >= wrapPoint) {
+          break;
+        }
+
+        try {
+          capacityCondition.awaitNanos(maxWaitNanos);
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+    } finally {
+      lock.unlock();
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    return minSequence;
+  }
+
+  @Override
+  public long waitFor(final long wrapPoint, final Sequence gatingSequence, final long timeoutNanos)
+      throws TimeoutException {
+    long minSequence;
+    if ((minSequence = gatingSequence.get()) >= wrapPoint) {
+      return minSequence;
+    }
+
+    final long deadline = System.nanoTime() + timeoutNanos;
+    boolean interrupted = false;
+    lock.lock();
+    try {
+      while (true) {
+        signalNeeded.set(true);
+        if ((minSequence = gatingSequence.get()) >= wrapPoint) {
+          break;
+        }
+
+        final long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+          throw TimeoutException.INSTANCE;
+        }
+
+        try {
+          capacityCondition.awaitNanos(Math.min(maxWaitNanos, remaining));
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+    } finally {
+      lock.unlock();
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    return minSequence;
+  }
+
+  @Override
+  public void signalAllWhenBlocking() {
+    if (signalNeeded.get() && signalNeeded.getAndSet(false)) {
+      lock.lock();
+      try {
+        capacityCondition.signalAll();
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "BlockingProducerWaitStrategy{"
+        + "signalNeeded="
+        + signalNeeded.get()
+        + ", maxWaitNanos="
+        + maxWaitNanos
+        + '}';
+  }
+}
@@ -15,8 +15,11 @@
  */
 package com.lmax.disruptor;
 
+import com.lmax.disruptor.util.ThreadHints;
+
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
@@ -24,11 +27,25 @@ import java.util.concurrent.locks.ReentrantLock;
  * a barrier.
  *
  * <p>This strategy can be used when throughput and low-latency are not as important as CPU
- * resource.
+ * resource. Processors ahead on the barrier do not signal, so waiting for them spins unless a
+ * <code>dependentParkNanos</code> is given.
  */
 public final class BlockingWaitStrategy implements WaitStrategy {
   private final Lock lock = new ReentrantLock();
   private final Condition processorNotifyCondition = lock.newCondition();
+  private final long dependentParkNanos;
+
+  public BlockingWaitStrategy() {
+    this(0L);
+  }
+
+  /**
+   * @param dependentParkNanos how long to park at a time while waiting for dependent processors,
+   *     or 0 to spin.
+   */
+  public BlockingWaitStrategy(final long dependentParkNanos) {
+    this.dependentParkNanos = dependentParkNanos;
+  }
 
   @Override
   public void signalAllWhenBlocking() {
@@ -59,6 +76,11 @@ public final class BlockingWaitStrategy implements WaitStrategy {
 
     while ((availableSequence = dependentSequence.get()) < sequence) {
       barrier.checkAlert();
+      if (dependentParkNanos > 0L) {
+        LockSupport.parkNanos(dependentParkNanos);
+      } else {
+        ThreadHints.onSpinWait();
+      }
     }
 
     return availableSequence;
@@ -66,6 +88,11 @@ public final class BlockingWaitStrategy implements WaitStrategy {
 
   @Override
   public String toString() {
-    return "BlockingWaitStrategy{" + "processorNotifyCondition=" + processorNotifyCondition + '}';
+    return "BlockingWaitStrategy{"
+        + "processorNotifyCondition="
+        + processorNotifyCondition
+        + ", dependentParkNanos="
+        + dependentParkNanos
+        + '}';
   }
 }
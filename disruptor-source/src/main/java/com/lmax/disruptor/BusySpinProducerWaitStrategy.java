@@ -0,0 +1,56 @@
+/*
+ * Copyright 2012 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import com.lmax.disruptor.util.ThreadHints;
+
+/**
+ * Busy Spin strategy that uses a busy spin loop for publishers waiting on a full ring buffer.
+ *
+ * <p>This strategy will use CPU resource to avoid syscalls which can introduce latency jitter. It
+ * is best used when publishing threads can be bound to specific CPU cores.
+ */
+public final class BusySpinProducerWaitStrategy implements ProducerWaitStrategy {
+  @Override
+  public long waitFor(final long wrapPoint, final Sequence gatingSequence) {
+    long minSequence;
+
+    while ((minSequence = gatingSequence.get()) < wrapPoint) {
+      ThreadHints.onSpinWait();
+    }
+
+    return minSequence;
+  }
+
+  @Override
+  public long waitFor(final long wrapPoint, final Sequence gatingSequence, final long timeoutNanos)
+      throws TimeoutException {
+    final long deadline = System.nanoTime() + timeoutNanos;
+    long minSequence;
+
+    while ((minSequence = gatingSequence.get()) < wrapPoint) {
+      if (System.nanoTime() - deadline >= 0) {
+        throw TimeoutException.INSTANCE;
+      }
+      ThreadHints.onSpinWait();
+    }
+
+    return minSequence;
+  }
+
+  @Override
+  public void signalAllWhenBlocking() {}
+}
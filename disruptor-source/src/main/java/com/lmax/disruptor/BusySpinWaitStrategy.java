@@ -15,6 +15,8 @@
  */
 package com.lmax.disruptor;
 
+import com.lmax.disruptor.util.ThreadHints;
+
 /**
  * Busy Spin strategy that uses a busy spin loop for {@link EventProcessor}s waiting on a barrier.
  *
@@ -36,6 +38,7 @@ public final class BusySpinWaitStrategy implements WaitStrategy {
 
     while ((availableSequence = dependentSequence.get()) < sequence) {
       barrier.checkAlert();
+      ThreadHints.onSpinWait();
     }
 
     return availableSequence;
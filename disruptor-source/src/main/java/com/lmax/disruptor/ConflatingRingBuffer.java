@@ -0,0 +1,168 @@
+/*
+ * Copyright 2012 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import com.lmax.disruptor.dsl.ProducerType;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Ring buffer front-end that keeps at most one pending update per key. Publishing a value for a
+ * key that is still waiting in the ring replaces the pending value instead of taking a new slot, so
+ * during a burst the ring holds no more entries than there are distinct keys and the consumer only
+ * sees the latest value of each.
+ *
+ * <p>The ring itself only carries keys; the pending values are held in a concurrent map and moved
+ * into the {@link Update} by the single consumer created with {@link
+ * #newEventProcessor(EventHandler)} just before its handler is called. A value published after the
+ * consumer has taken the previous one for the same key takes a new slot again, so no update is
+ * ever lost, only superseded.
+ *
+ * @param <K> type of the conflation key, which must be usable as a hash map key.
+ * @param <V> type of the values published for a key.
+ */
+public final class ConflatingRingBuffer<K, V> {
+  private final RingBuffer<Update<K, V>> ringBuffer;
+  private final ConcurrentHashMap<K, V> pending = new ConcurrentHashMap<K, V>();
+  private final AtomicBoolean consumerCreated = new AtomicBoolean(false);
+
+  private final EventTranslatorOneArg<Update<K, V>, K> keyTranslator =
+      new EventTranslatorOneArg<Update<K, V>, K>() {
+        @Override
+        public void translateTo(Update<K, V> event, long sequence, K key) {
+          event.key = key;
+          event.value = null;
+        }
+      };
+
+  ConflatingRingBuffer(RingBuffer<Update<K, V>> ringBuffer) {
+    this.ringBuffer = ringBuffer;
+  }
+
+  /**
+   * Create a new ConflatingRingBuffer with the specified producer type (SINGLE or MULTI)
+   *
+   * @param <K> type of the conflation key.
+   * @param <V> type of the values published for a key.
+   * @param producerType producer type to use {@link ProducerType}.
+   * @param bufferSize number of keys that can be pending at once.
+   * @param waitStrategy used to determine how to wait for new updates to become available.
+   * @return a constructed ring buffer.
+   * @throws IllegalArgumentException if bufferSize is less than 1 or not a power of 2
+   */
+  public static <K, V> ConflatingRingBuffer<K, V> create(
+      ProducerType producerType, int bufferSize, WaitStrategy waitStrategy) {
+    EventFactory<Update<K, V>> factory =
+        new EventFactory<Update<K, V>>() {
+          @Override
+          public Update<K, V> newInstance() {
+            return new Update<K, V>();
+          }
+        };
+    return new ConflatingRingBuffer<K, V>(
+        RingBuffer.create(producerType, factory, bufferSize, waitStrategy));
+  }
+
+  /**
+   * Publish the latest value for a key. If an earlier value for the key has not been taken by the
+   * consumer yet it is replaced and no slot is claimed, otherwise the key is published to a new
+   * slot, waiting for capacity if the ring is full.
+   *
+   * @param key the conflation key.
+   * @param value the new value for the key, must not be null.
+   */
+  public void publish(K key, V value) {
+    if (pending.put(key, value) == null) {
+      ringBuffer.publishEvent(keyTranslator, key);
+    }
+  }
+
+  /**
+   * The number of keys with an update that has not been taken by the consumer yet.
+   *
+   * @return the number of pending keys.
+   */
+  public int getPendingCount() {
+    return pending.size();
+  }
+
+  /**
+   * Create the event processor for this ring buffer and add its sequence to the gating sequences.
+   * Taking the pending value of a key removes it, so there can only be one consumer.
+   *
+   * @param eventHandler the handler receiving the latest update of each key.
+   * @return the event processor, ready to be run.
+   * @throws IllegalStateException if an event processor has already been created.
+   */
+  public BatchEventProcessor<Update<K, V>> newEventProcessor(
+      EventHandler<? super Update<K, V>> eventHandler) {
+    if (!consumerCreated.compareAndSet(false, true)) {
+      throw new IllegalStateException("A ConflatingRingBuffer can only have one consumer");
+    }
+
+    final DataProvider<Update<K, V>> takingProvider =
+        new DataProvider<Update<K, V>>() {
+          @Override
+          public Update<K, V> get(long sequence) {
+            final Update<K, V> update = ringBuffer.get(sequence);
+            update.value = pending.remove(update.key);
+            return update;
+          }
+        };
+
+    final BatchEventProcessor<Update<K, V>> processor =
+        new BatchEventProcessor<Update<K, V>>(
+            takingProvider, ringBuffer.newBarrier(), eventHandler);
+    ringBuffer.addGatingSequences(processor.getSequence());
+    return processor;
+  }
+
+  /**
+   * The ring buffer carrying the pending keys, for monitoring its cursor and capacity.
+   *
+   * @return the underlying ring buffer.
+   */
+  public RingBuffer<Update<K, V>> getRingBuffer() {
+    return ringBuffer;
+  }
+
+  /**
+   * The latest value of a key, as passed to the consumer's handler. Instances are reused for later
+   * updates once the handler returns.
+   *
+   * @param <K> type of the conflation key.
+   * @param <V> type of the values published for a key.
+   */
+  public static final class Update<K, V> {
+    private K key;
+    private V value;
+
+    /**
+     * @return the key that was updated.
+     */
+    public K getKey() {
+      return key;
+    }
+
+    /**
+     * @return the latest value published for the key.
+     */
+    public V getValue() {
+      return value;
+    }
+  }
+}
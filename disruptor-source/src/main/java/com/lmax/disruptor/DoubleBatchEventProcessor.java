@@ -0,0 +1,54 @@
+/*
+ * Copyright 2012 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+/**
+ * Batch processor for a {@link DoubleRingBuffer} that hands each <code>double</code> value straight
+ * to a {@link DoubleEventHandler} without boxing. Has the same batching, lifecycle and exception
+ * semantics as {@link BatchEventProcessor}.
+ */
+public final class DoubleBatchEventProcessor extends AbstractBatchEventProcessor<Double> {
+  private final DoubleRingBuffer ringBuffer;
+  private final DoubleEventHandler eventHandler;
+
+  /**
+   * Construct a processor that will automatically track the progress by updating its sequence when
+   * the {@link DoubleEventHandler#onEvent(double, long, boolean)} method returns.
+   *
+   * @param ringBuffer to which values are published.
+   * @param sequenceBarrier on which it is waiting.
+   * @param eventHandler is the delegate to which values are dispatched.
+   */
+  public DoubleBatchEventProcessor(
+      final DoubleRingBuffer ringBuffer,
+      final SequenceBarrier sequenceBarrier,
+      final DoubleEventHandler eventHandler) {
+    super(sequenceBarrier, eventHandler);
+    this.ringBuffer = ringBuffer;
+    this.eventHandler = eventHandler;
+  }
+
+  @Override
+  void onEvent(final long sequence, final boolean endOfBatch) throws Exception {
+    eventHandler.onEvent(ringBuffer.get(sequence), sequence, endOfBatch);
+  }
+
+  @Override
+  Double failedValue(final long sequence) {
+    // getting a value from a primitive ring buffer has no side effects
+    return ringBuffer.get(sequence);
+  }
+}
@@ -0,0 +1,627 @@
+/*
+ * Copyright 2012 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import com.lmax.disruptor.util.Util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single producer ring buffer whose capacity can change while it is in use. When a claim would
+ * otherwise have to wait for the gating sequences the capacity is doubled, up to a fixed maximum,
+ * and only once the maximum is reached does the producer fall back to its {@link
+ * ProducerWaitStrategy}. Optionally the capacity is halved again, never below the initial
+ * capacity, after occupancy has stayed under a quarter of the ring for two consecutive checks.
+ *
+ * <p>A resize is performed by the producer thread: the events of every sequence that has not yet
+ * been passed by all gating sequences are moved to their index in a new array, which is then
+ * published through a volatile field before any later sequence is published. A consumer therefore
+ * always finds the event of a sequence it has been allowed to read, whichever array it looks in,
+ * and the usual {@link Sequence} and {@link SequenceBarrier} semantics are unchanged. As with
+ * {@link SingleProducerSequencer} every claimed sequence must be published before claiming again.
+ *
+ * @param <E> implementation storing the data for sharing during exchange or parallel coordination
+ *     of an event.
+ */
+public final class ElasticRingBuffer<E> implements Cursored, EventSequencer<E> {
+  private final EventFactory<E> eventFactory;
+  private final int initialCapacity;
+  private final int maxCapacity;
+  private final boolean shrinkWhenIdle;
+  private final ElasticSequencer sequencer;
+  private volatile Entries entries;
+
+  ElasticRingBuffer(
+      EventFactory<E> eventFactory,
+      int initialCapacity,
+      int maxCapacity,
+      boolean shrinkWhenIdle,
+      WaitStrategy waitStrategy,
+      ProducerWaitStrategy producerWaitStrategy) {
+    if (maxCapacity < initialCapacity || Integer.bitCount(maxCapacity) != 1) {
+      throw new IllegalArgumentException(
+          "maxCapacity must be a power of 2 not less than initialCapacity");
+    }
+
+    this.eventFactory = eventFactory;
+    this.initialCapacity = initialCapacity;
+    this.maxCapacity = maxCapacity;
+    this.shrinkWhenIdle = shrinkWhenIdle;
+    this.sequencer = new ElasticSequencer(initialCapacity, waitStrategy, producerWaitStrategy);
+
+    Entries entries = new Entries(initialCapacity);
+    for (int i = 0; i < initialCapacity; i++) {
+      entries.slots[i] = eventFactory.newInstance();
+    }
+    this.entries = entries;
+  }
+
+  /**
+   * Create a new elastic ring buffer with the specified wait strategy.
+   *
+   * @param <E> Class of the event stored in the ring buffer.
+   * @param factory used to create the events within the ring buffer.
+   * @param initialCapacity number of elements to create initially, also the smallest capacity.
+   * @param maxCapacity largest capacity the ring buffer will grow to.
+   * @param shrinkWhenIdle whether the capacity is reduced again once occupancy stays low.
+   * @param waitStrategy used to determine how to wait for new elements to become available.
+   * @return a constructed ring buffer.
+   * @throws IllegalArgumentException if either capacity is not a power of 2 or maxCapacity is less
+   *     than initialCapacity
+   */
+  public static <E> ElasticRingBuffer<E> create(
+      EventFactory<E> factory,
+      int initialCapacity,
+      int maxCapacity,
+      boolean shrinkWhenIdle,
+      WaitStrategy waitStrategy) {
+    return create(
+        factory,
+        initialCapacity,
+        maxCapacity,
+        shrinkWhenIdle,
+        waitStrategy,
+        new SleepingProducerWaitStrategy());
+  }
+
+  /**
+   * Create a new elastic ring buffer with the specified wait strategies.
+   *
+   * @param <E> Class of the event stored in the ring buffer.
+   * @param factory used to create the events within the ring buffer.
+   * @param initialCapacity number of elements to create initially, also the smallest capacity.
+   * @param maxCapacity largest capacity the ring buffer will grow to.
+   * @param shrinkWhenIdle whether the capacity is reduced again once occupancy stays low.
+   * @param waitStrategy used to determine how to wait for new elements to become available.
+   * @param producerWaitStrategy used by the publisher once the maximum capacity is full.
+   * @return a constructed ring buffer.
+   * @throws IllegalArgumentException if either capacity is not a power of 2 or maxCapacity is less
+   *     than initialCapacity
+   */
+  public static <E> ElasticRingBuffer<E> create(
+      EventFactory<E> factory,
+      int initialCapacity,
+      int maxCapacity,
+      boolean shrinkWhenIdle,
+      WaitStrategy waitStrategy,
+      ProducerWaitStrategy producerWaitStrategy) {
+    return new ElasticRingBuffer<E>(
+        factory,
+        initialCapacity,
+        maxCapacity,
+        shrinkWhenIdle,
+        waitStrategy,
+        producerWaitStrategy);
+  }
+
+  /**
+   * Get the event for a given sequence in the RingBuffer.
+   *
+   * @param sequence for the event
+   * @return the event for the given sequence
+   */
+  @Override
+  @SuppressWarnings("unchecked")
+  public E get(long sequence) {
+    final Entries entries = this.entries;
+    return (E) entries.slots[(int) sequence & entries.mask];
+  }
+
+  /**
+   * The current capacity of the ring buffer, which lies between the initial and the maximum
+   * capacity.
+   *
+   * @return number of slots currently in use.
+   */
+  @Override
+  public int getBufferSize() {
+    return entries.slots.length;
+  }
+
+  /**
+   * The largest capacity this ring buffer will grow to.
+   *
+   * @return the maximum number of slots.
+   */
+  public int getMaxBufferSize() {
+    return maxCapacity;
+  }
+
+  /**
+   * Given specified <code>requiredCapacity</code> determines if that amount of space is available,
+   * counting the space the ring buffer could grow into up to its maximum size. The ring buffer is
+   * not resized by this check. Note, you can not assume that if this method returns
+   * <code>true</code> that a call to {@link ElasticRingBuffer#next()} will not block, as the
+   * consumers may be lagging further behind by then.
+   *
+   * @param requiredCapacity The capacity to check for.
+   * @return <code>true</code> If the specified <code>requiredCapacity</code> is available within
+   *     the maximum capacity <code>false</code> if not.
+   */
+  @Override
+  public boolean hasAvailableCapacity(int requiredCapacity) {
+    return sequencer.hasAvailableCapacity(requiredCapacity);
+  }
+
+  /**
+   * @see Sequenced#next()
+   */
+  @Override
+  public long next() {
+    return sequencer.next();
+  }
+
+  /**
+   * @see Sequenced#next(int)
+   */
+  @Override
+  public long next(int n) {
+    return sequencer.next(n);
+  }
+
+  /**
+   * @see Sequenced#next(int, long, TimeUnit)
+   */
+  @Override
+  public long next(int n, long timeout, TimeUnit unit) throws TimeoutException {
+    return sequencer.next(n, timeout, unit);
+  }
+
+  /**
+   * @see Sequenced#tryNext()
+   */
+  @Override
+  public long tryNext() throws InsufficientCapacityException {
+    return sequencer.tryNext();
+  }
+
+  /**
+   * @see Sequenced#tryNext(int)
+   */
+  @Override
+  public long tryNext(int n) throws InsufficientCapacityException {
+    return sequencer.tryNext(n);
+  }
+
+  /**
+   * @see Sequenced#tryClaim(int)
+   */
+  @Override
+  public long tryClaim(int n) {
+    return sequencer.tryClaim(n);
+  }
+
+  /**
+   * @see Sequenced#publish(long)
+   */
+  @Override
+  public void publish(long sequence) {
+    sequencer.publish(sequence);
+  }
+
+  /**
+   * @see Sequenced#publish(long, long)
+   */
+  @Override
+  public void publish(long lo, long hi) {
+    sequencer.publish(lo, hi);
+  }
+
+  /**
+   * Get the remaining capacity for this ring buffer, counted against the maximum capacity.
+   *
+   * @return The number of slots remaining.
+   */
+  @Override
+  public long remainingCapacity() {
+    return sequencer.remainingCapacity();
+  }
+
+  /**
+   * Publishes an event to the ring buffer. It handles claiming the next sequence, getting the
+   * current (uninitialised) event from the ring buffer and publishing the claimed sequence after
+   * translation.
+   *
+   * @param translator The user specified translation for the event
+   */
+  public void publishEvent(EventTranslator<E> translator) {
+    final long sequence = sequencer.next();
+    try {
+      translator.translateTo(get(sequence), sequence);
+    } finally {
+      sequencer.publish(sequence);
+    }
+  }
+
+  /**
+   * Allows one user supplied argument.
+   *
+   * @param <A> Class of the user supplied argument
+   * @param translator The user specified translation for the event
+   * @param arg0 A user supplied argument.
+   * @see #publishEvent(EventTranslator)
+   */
+  public <A> void publishEvent(EventTranslatorOneArg<E, A> translator, A arg0) {
+    final long sequence = sequencer.next();
+    try {
+      translator.translateTo(get(sequence), sequence, arg0);
+    } finally {
+      sequencer.publish(sequence);
+    }
+  }
+
+  /**
+   * Attempts to publish an event to the ring buffer, growing it if necessary. It will return false
+   * if the maximum capacity is full.
+   *
+   * @param translator The user specified translation for the event
+   * @return true if the value was published, false if there was insufficient capacity.
+   */
+  public boolean tryPublishEvent(EventTranslator<E> translator) {
+    final long sequence = sequencer.tryClaim(1);
+    if (sequence < 0) {
+      return false;
+    }
+
+    try {
+      translator.translateTo(get(sequence), sequence);
+    } finally {
+      sequencer.publish(sequence);
+    }
+    return true;
+  }
+
+  /**
+   * Create a new SequenceBarrier to be used by an EventProcessor to track which messages are
+   * available to be read from the ring buffer given a list of sequences to track.
+   *
+   * @param sequencesToTrack the additional sequences to track
+   * @return A sequence barrier that will track the specified sequences.
+   * @see SequenceBarrier
+   */
+  public SequenceBarrier newBarrier(Sequence... sequencesToTrack) {
+    return sequencer.newBarrier(sequencesToTrack);
+  }
+
+  /**
+   * Creates an event poller for this ring buffer gated on the supplied sequences.
+   *
+   * @param gatingSequences to be gated on.
+   * @return A poller that will gate on this ring buffer and the supplied sequences.
+   */
+  public EventPoller<E> newPoller(Sequence... gatingSequences) {
+    return sequencer.newPoller(this, gatingSequences);
+  }
+
+  /**
+   * Add the specified gating sequences to this instance of the ring buffer. They will safely and
+   * atomically added to the list of gating sequences.
+   *
+   * @param gatingSequences The sequences to add.
+   */
+  public void addGatingSequences(Sequence... gatingSequences) {
+    sequencer.addGatingSequences(gatingSequences);
+  }
+
+  /**
+   * Add a gating sequence that starts at a given value rather than at the cursor, for a consumer
+   * that is added while publishing is in progress.
+   *
+   * @param gatingSequence The sequence to add.
+   * @param initialValue The value the sequence starts at.
+   * @return <tt>true</tt> if the sequence was added, <tt>false</tt> if events after <code>
+   *     initialValue</code> may already have been overwritten.
+   * @see Sequencer#addGatingSequence(Sequence, long)
+   */
+  public boolean addGatingSequence(Sequence gatingSequence, long initialValue) {
+    return sequencer.addGatingSequence(gatingSequence, initialValue);
+  }
+
+  /**
+   * Remove the specified sequence from this ring buffer.
+   *
+   * @param sequence to be removed.
+   * @return <tt>true</tt> if this sequence was found, <tt>false</tt> otherwise.
+   */
+  public boolean removeGatingSequence(Sequence sequence) {
+    return sequencer.removeGatingSequence(sequence);
+  }
+
+  /**
+   * Get the minimum sequence value from all of the gating sequences added to this ring buffer.
+   *
+   * @return The minimum gating sequence or the cursor sequence if no sequences have been added.
+   */
+  public long getMinimumGatingSequence() {
+    return sequencer.getMinimumSequence();
+  }
+
+  /**
+   * Get the current cursor value for the ring buffer. The cursor value is the last value that was
+   * published, or the highest available sequence that can be consumed.
+   */
+  @Override
+  public long getCursor() {
+    return sequencer.getCursor();
+  }
+
+  @Override
+  public String toString() {
+    return "ElasticRingBuffer{"
+        + "bufferSize="
+        + getBufferSize()
+        + ", maxBufferSize="
+        + maxCapacity
+        + ", sequencer="
+        + sequencer
+        + "}";
+  }
+
+  /**
+   * Move the events of the sequences after <code>minSequence</code> up to <code>
+   * claimedSequence</code> into an array of the new capacity, filling the remaining slots with the
+   * events of already consumed sequences and then with new events.
+   */
+  private void resize(int capacity, long minSequence, long claimedSequence) {
+    final Entries previous = this.entries;
+    final Entries resized = new Entries(capacity);
+    final long consumed = Math.min(minSequence, claimedSequence);
+
+    for (long sequence = consumed + 1; sequence <= claimedSequence; sequence++) {
+      resized.slots[(int) sequence & resized.mask] = previous.slots[(int) sequence & previous.mask];
+    }
+
+    long spare = claimedSequence - previous.slots.length;
+    for (int i = 0; i < capacity; i++) {
+      if (resized.slots[i] == null) {
+        resized.slots[i] =
+            spare < consumed
+                ? previous.slots[(int) ++spare & previous.mask]
+                : eventFactory.newInstance();
+      }
+    }
+
+    this.entries = resized;
+  }
+
+  private static final class Entries {
+    final Object[] slots;
+    final int mask;
+
+    Entries(int capacity) {
+      this.slots = new Object[capacity];
+      this.mask = capacity - 1;
+    }
+  }
+
+  private final class ElasticSequencer extends AbstractSequencer {
+    private int capacity;
+    private long cachedValue = Sequence.INITIAL_VALUE;
+    private long nextValue = Sequence.INITIAL_VALUE;
+    private long shrinkCheckSequence;
+    private int idleChecks;
+
+    private final Sequence minimumGatingSequence =
+        new Sequence() {
+          @Override
+          public long get() {
+            return Util.getMinimumSequence(gatingSequences, nextValue);
+          }
+        };
+
+    ElasticSequencer(
+        int bufferSize, WaitStrategy waitStrategy, ProducerWaitStrategy producerWaitStrategy) {
+      super(bufferSize, waitStrategy, producerWaitStrategy);
+      this.capacity = bufferSize;
+      this.shrinkCheckSequence = bufferSize;
+    }
+
+    @Override
+    public void claim(long sequence) {
+      this.nextValue = sequence;
+    }
+
+    @Override
+    public long getHighestPublishedSequence(long lowerBound, long availableSequence) {
+      return availableSequence;
+    }
+
+    @Override
+    public boolean isAvailable(long sequence) {
+      return sequence <= cursor.get();
+    }
+
+    @Override
+    public boolean hasAvailableCapacity(int requiredCapacity) {
+      long nextValue = this.nextValue;
+      long wrapPoint = (nextValue + requiredCapacity) - maxCapacity;
+      return wrapPoint <= Util.getMinimumSequence(gatingSequences, nextValue);
+    }
+
+    @Override
+    public long next() {
+      return next(1);
+    }
+
+    @Override
+    public long next(int n) {
+      if (n < 1) {
+        throw new IllegalArgumentException("n must be > 0");
+      }
+
+      long nextSequence = this.nextValue + n;
+      if (!ensureCapacity(nextSequence)) {
+        this.cachedValue =
+            producerWaitStrategy.waitFor(nextSequence - capacity, minimumGatingSequence);
+      }
+
+      this.nextValue = nextSequence;
+
+      return nextSequence;
+    }
+
+    @Override
+    public long next(int n, long timeout, TimeUnit unit) throws TimeoutException {
+      if (n < 1) {
+        throw new IllegalArgumentException("n must be > 0");
+      }
+
+      long nextSequence = this.nextValue + n;
+      if (!ensureCapacity(nextSequence)) {
+        this.cachedValue =
+            producerWaitStrategy.waitFor(
+                nextSequence - capacity, minimumGatingSequence, unit.toNanos(timeout));
+      }
+
+      this.nextValue = nextSequence;
+
+      return nextSequence;
+    }
+
+    @Override
+    public long tryNext() throws InsufficientCapacityException {
+      return tryNext(1);
+    }
+
+    @Override
+    public long tryNext(int n) throws InsufficientCapacityException {
+      final long sequence = tryClaim(n);
+      if (sequence < 0) {
+        throw InsufficientCapacityException.INSTANCE;
+      }
+
+      return sequence;
+    }
+
+    @Override
+    public long tryClaim(int n) {
+      if (n < 1) {
+        throw new IllegalArgumentException("n must be > 0");
+      }
+
+      long nextSequence = this.nextValue + n;
+      if (!ensureCapacity(nextSequence)) {
+        return INSUFFICIENT_CAPACITY;
+      }
+
+      this.nextValue = nextSequence;
+
+      return nextSequence;
+    }
+
+    @Override
+    public void publish(long sequence) {
+      cursor.set(sequence);
+      waitStrategy.signalAllWhenBlocking();
+    }
+
+    @Override
+    public void publish(long lo, long hi) {
+      publish(hi);
+    }
+
+    @Override
+    public long remainingCapacity() {
+      long nextValue = this.nextValue;
+
+      long consumed = Util.getMinimumSequence(gatingSequences, nextValue);
+      long produced = nextValue;
+      return maxCapacity - (produced - consumed);
+    }
+
+    /**
+     * Make room for claiming up to <code>nextSequence</code>, growing the ring buffer if it is
+     * full. While there is room anyway the occupancy is checked every half lap to decide whether to
+     * shrink.
+     *
+     * @return false if there is not enough room even at the maximum capacity.
+     */
+    private boolean ensureCapacity(long nextSequence) {
+      long nextValue = this.nextValue;
+      long wrapPoint = nextSequence - capacity;
+      long cachedGatingSequence = this.cachedValue;
+
+      if (wrapPoint > cachedGatingSequence || cachedGatingSequence > nextValue) {
+        cursor.setVolatile(nextValue); // StoreLoad fence
+
+        long minSequence = Util.getMinimumSequence(gatingSequences, nextValue);
+        this.cachedValue = minSequence;
+
+        if (wrapPoint > minSequence) {
+          int newCapacity = capacity;
+          while (nextSequence - newCapacity > minSequence && newCapacity < maxCapacity) {
+            newCapacity <<= 1;
+          }
+
+          if (newCapacity != capacity) {
+            resizeTo(newCapacity, minSequence, nextValue);
+          }
+
+          return nextSequence - capacity <= minSequence;
+        }
+      } else if (shrinkWhenIdle && nextValue >= shrinkCheckSequence) {
+        checkForShrink(nextValue, nextSequence);
+      }
+
+      return true;
+    }
+
+    private void checkForShrink(long nextValue, long nextSequence) {
+      if (capacity > initialCapacity) {
+        cursor.setVolatile(nextValue); // StoreLoad fence
+
+        long minSequence = Util.getMinimumSequence(gatingSequences, nextValue);
+        this.cachedValue = minSequence;
+
+        if (nextSequence - minSequence < capacity / 4) {
+          if (++idleChecks == 2) {
+            resizeTo(capacity / 2, minSequence, nextValue);
+          }
+        } else {
+          idleChecks = 0;
+        }
+      }
+
+      shrinkCheckSequence = nextValue + capacity / 2;
+    }
+
+    private void resizeTo(int newCapacity, long minSequence, long nextValue) {
+      resize(newCapacity, minSequence, nextValue);
+      capacity = newCapacity;
+      idleChecks = 0;
+    }
+  }
+}
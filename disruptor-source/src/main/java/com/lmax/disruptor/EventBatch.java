@@ -0,0 +1,85 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+/**
+ * A view over a contiguous range of events in a {@link DataProvider}, passed to a {@link
+ * BatchEventHandler}. The same instance is moved to each new range, so reading it allocates
+ * nothing.
+ *
+ * @param <T> event implementation storing the data for sharing during exchange or parallel
+ *     coordination of an event.
+ */
+public final class EventBatch<T> {
+  private final DataProvider<T> dataProvider;
+  private long startSequence;
+  private int size;
+
+  EventBatch(final DataProvider<T> dataProvider) {
+    this.dataProvider = dataProvider;
+  }
+
+  void reset(final long startSequence, final int size) {
+    this.startSequence = startSequence;
+    this.size = size;
+  }
+
+  /**
+   * The sequence of the first event in the batch.
+   *
+   * @return the first sequence.
+   */
+  public long getStartSequence() {
+    return startSequence;
+  }
+
+  /**
+   * The sequence of the last event in the batch.
+   *
+   * @return the last sequence.
+   */
+  public long getEndSequence() {
+    return startSequence + size - 1;
+  }
+
+  /**
+   * The number of events in the batch.
+   *
+   * @return the number of events.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Get an event by its position in the batch.
+   *
+   * @param index of the event, from 0 to <code>size() - 1</code>.
+   * @return the event at <code>getStartSequence() + index</code>.
+   */
+  public T get(final int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+    }
+
+    return dataProvider.get(startSequence + index);
+  }
+
+  @Override
+  public String toString() {
+    return "EventBatch{" + "startSequence=" + startSequence + ", size=" + size + '}';
+  }
+}
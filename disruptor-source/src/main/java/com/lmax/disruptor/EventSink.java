@@ -1,5 +1,7 @@
 package com.lmax.disruptor;
 
+import java.util.concurrent.TimeUnit;
+
 public interface EventSink<E> {
   /**
    * Publishes an event to the ring buffer. It handles claiming the next sequence, getting the
@@ -256,6 +258,71 @@ public interface EventSink<E> {
    */
   boolean tryPublishEvent(EventTranslatorVararg<E> translator, Object... args);
 
+  /**
+   * Attempts to publish an event to the ring buffer, waiting at most the given time for the
+   * capacity to become available. Will return false if it did not become available in time.
+   *
+   * @param translator The user specified translation for the event
+   * @param timeout how long to wait before giving up, in units of <code>unit</code>
+   * @param unit the time unit of the <code>timeout</code> argument
+   * @return true if the value was published, false if the capacity was not available in time.
+   * @see RingBuffer#next(int, long, TimeUnit)
+   */
+  boolean tryPublishEvent(EventTranslator<E> translator, long timeout, TimeUnit unit);
+
+  /**
+   * Allows one user supplied argument.
+   *
+   * @param <A> Class of the user supplied argument
+   * @param translator The user specified translation for the event
+   * @param arg0 A user supplied argument.
+   * @param timeout how long to wait before giving up, in units of <code>unit</code>
+   * @param unit the time unit of the <code>timeout</code> argument
+   * @return true if the value was published, false if the capacity was not available in time.
+   * @see #tryPublishEvent(EventTranslator, long, TimeUnit)
+   */
+  <A> boolean tryPublishEvent(
+      EventTranslatorOneArg<E, A> translator, A arg0, long timeout, TimeUnit unit);
+
+  /**
+   * Allows two user supplied arguments.
+   *
+   * @param <A> Class of the user supplied argument
+   * @param <B> Class of the user supplied argument
+   * @param translator The user specified translation for the event
+   * @param arg0 A user supplied argument.
+   * @param arg1 A user supplied argument.
+   * @param timeout how long to wait before giving up, in units of <code>unit</code>
+   * @param unit the time unit of the <code>timeout</code> argument
+   * @return true if the value was published, false if the capacity was not available in time.
+   * @see #tryPublishEvent(EventTranslator, long, TimeUnit)
+   */
+  <A, B> boolean tryPublishEvent(
+      EventTranslatorTwoArg<E, A, B> translator, A arg0, B arg1, long timeout, TimeUnit unit);
+
+  /**
+   * Allows three user supplied arguments
+   *
+   * @param <A> Class of the user supplied argument
+   * @param <B> Class of the user supplied argument
+   * @param <C> Class of the user supplied argument
+   * @param translator The user specified translation for the event
+   * @param arg0 A user supplied argument.
+   * @param arg1 A user supplied argument.
+   * @param arg2 A user supplied argument.
+   * @param timeout how long to wait before giving up, in units of <code>unit</code>
+   * @param unit the time unit of the <code>timeout</code> argument
+   * @return true if the value was published, false if the capacity was not available in time.
+   * @see #tryPublishEvent(EventTranslator, long, TimeUnit)
+   */
+  <A, B, C> boolean tryPublishEvent(
+      EventTranslatorThreeArg<E, A, B, C> translator,
+      A arg0,
+      B arg1,
+      C arg2,
+      long timeout,
+      TimeUnit unit);
+
   /**
    * Attempts to publish multiple events to the ring buffer. It handles claiming the next sequence,
    * getting the current (uninitialised) event from the ring buffer and publishing the claimed
@@ -266,6 +333,19 @@ public interface EventSink<E> {
    */
   boolean tryPublishEvents(EventTranslator<E>[] translators);
 
+  /**
+   * Attempts to publish multiple events to the ring buffer, waiting at most the given time for the
+   * capacity of the whole batch to become available. Will return false if it did not become
+   * available in time, in which case none of the events have been published.
+   *
+   * @param translators The user specified translation for the event
+   * @param timeout how long to wait before giving up, in units of <code>unit</code>
+   * @param unit the time unit of the <code>timeout</code> argument
+   * @return true if the values were published, false if the capacity was not available in time.
+   * @see RingBuffer#next(int, long, TimeUnit)
+   */
+  boolean tryPublishEvents(EventTranslator<E>[] translators, long timeout, TimeUnit unit);
+
   /**
    * Attempts to publish multiple events to the ring buffer. It handles claiming the next sequence,
    * getting the current (uninitialised) event from the ring buffer and publishing the claimed
@@ -397,4 +477,87 @@ public interface EventSink<E> {
    */
   boolean tryPublishEvents(
       EventTranslatorVararg<E> translator, int batchStartsAt, int batchSize, Object[]... args);
+
+  /**
+   * Publishes as many events of the batch as currently fit in the ring buffer, in order from
+   * <code>batchStartsAt</code>, without blocking. Unlike {@link
+   * #tryPublishEvents(EventTranslator[], int, int)} a batch that does not fit completely is not
+   * rejected as a whole.
+   *
+   * @param translators The user specified translation for each event
+   * @param batchStartsAt The first element of the array which is within the batch.
+   * @param batchSize The actual size of the batch
+   * @return the number of events published, from 0 to <code>batchSize</code>.
+   */
+  int tryPublishEventsPartial(EventTranslator<E>[] translators, int batchStartsAt, int batchSize);
+
+  /**
+   * Allows one user supplied argument per event.
+   *
+   * @param <A> Class of the user supplied argument
+   * @param translator The user specified translation for each event
+   * @param batchStartsAt The first element of the array which is within the batch.
+   * @param batchSize The actual size of the batch
+   * @param arg0 An array of user supplied arguments, one element per event.
+   * @return the number of events published, from 0 to <code>batchSize</code>.
+   * @see #tryPublishEventsPartial(EventTranslator[], int, int)
+   */
+  <A> int tryPublishEventsPartial(
+      EventTranslatorOneArg<E, A> translator, int batchStartsAt, int batchSize, A[] arg0);
+
+  /**
+   * Allows two user supplied arguments per event.
+   *
+   * @param <A> Class of the user supplied argument
+   * @param <B> Class of the user supplied argument
+   * @param translator The user specified translation for each event
+   * @param batchStartsAt The first element of the array which is within the batch.
+   * @param batchSize The actual size of the batch
+   * @param arg0 An array of user supplied arguments, one element per event.
+   * @param arg1 An array of user supplied arguments, one element per event.
+   * @return the number of events published, from 0 to <code>batchSize</code>.
+   * @see #tryPublishEventsPartial(EventTranslator[], int, int)
+   */
+  <A, B> int tryPublishEventsPartial(
+      EventTranslatorTwoArg<E, A, B> translator,
+      int batchStartsAt,
+      int batchSize,
+      A[] arg0,
+      B[] arg1);
+
+  /**
+   * Allows three user supplied arguments per event.
+   *
+   * @param <A> Class of the user supplied argument
+   * @param <B> Class of the user supplied argument
+   * @param <C> Class of the user supplied argument
+   * @param translator The user specified translation for each event
+   * @param batchStartsAt The first element of the array which is within the batch.
+   * @param batchSize The actual size of the batch
+   * @param arg0 An array of user supplied arguments, one element per event.
+   * @param arg1 An array of user supplied arguments, one element per event.
+   * @param arg2 An array of user supplied arguments, one element per event.
+   * @return the number of events published, from 0 to <code>batchSize</code>.
+   * @see #tryPublishEventsPartial(EventTranslator[], int, int)
+   */
+  <A, B, C> int tryPublishEventsPartial(
+      EventTranslatorThreeArg<E, A, B, C> translator,
+      int batchStartsAt,
+      int batchSize,
+      A[] arg0,
+      B[] arg1,
+      C[] arg2);
+
+  /**
+   * Allows a variable number of user supplied arguments per event.
+   *
+   * @param translator The user specified translation for each event
+   * @param batchStartsAt The first element of the array which is within the batch.
+   * @param batchSize The actual size of the batch
+   * @param args User supplied arguments, one Object[] per event.
+   * @return the number of events published, from 0 to <code>batchSize</code>.
+   * @see #tryPublishEventsPartial(EventTranslator[], int, int)
+   */
+  int tryPublishEventsPartial(
+      EventTranslatorVararg<E> translator, int batchStartsAt, int batchSize, Object[]... args);
 }
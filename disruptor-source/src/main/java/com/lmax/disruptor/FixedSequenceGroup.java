@@ -22,6 +22,7 @@ import java.util.Arrays;
 /** Hides a group of Sequences behind a single Sequence */
 public final class FixedSequenceGroup extends Sequence {
   private final Sequence[] sequences;
+  private final SequenceArray sequenceArray;
 
   /**
    * Constructor
@@ -30,6 +31,18 @@ public final class FixedSequenceGroup extends Sequence {
    */
   public FixedSequenceGroup(Sequence[] sequences) {
     this.sequences = Arrays.copyOf(sequences, sequences.length);
+    this.sequenceArray = null;
+  }
+
+  /**
+   * Track every sequence of a {@link SequenceArray}, the minimum is read by scanning the packed
+   * array rather than dereferencing each sequence.
+   *
+   * @param sequenceArray the sequences to be tracked under this sequence group
+   */
+  public FixedSequenceGroup(SequenceArray sequenceArray) {
+    this.sequences = null;
+    this.sequenceArray = sequenceArray;
   }
 
   /** Not supported. */
@@ -44,6 +57,12 @@ public final class FixedSequenceGroup extends Sequence {
     throw new UnsupportedOperationException();
   }
 
+  /** Not supported. */
+  @Override
+  public long getAndAdd(long increment) {
+    throw new UnsupportedOperationException();
+  }
+
   /**
    * Get the minimum sequence value for the group.
    *
@@ -51,6 +70,10 @@ public final class FixedSequenceGroup extends Sequence {
    */
   @Override
   public long get() {
+    if (null != sequenceArray) {
+      return Util.getMinimumSequence(sequenceArray, Long.MAX_VALUE);
+    }
+
     return Util.getMinimumSequence(sequences);
   }
 
@@ -68,6 +91,6 @@ public final class FixedSequenceGroup extends Sequence {
 
   @Override
   public String toString() {
-    return Arrays.toString(sequences);
+    return null != sequenceArray ? sequenceArray.toString() : Arrays.toString(sequences);
   }
 }
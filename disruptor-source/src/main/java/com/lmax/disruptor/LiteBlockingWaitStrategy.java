@@ -15,6 +15,8 @@
  */
 package com.lmax.disruptor;
 
+import com.lmax.disruptor.util.ThreadHints;
+
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
@@ -69,6 +71,7 @@ public final class LiteBlockingWaitStrategy implements WaitStrategy {
 
     while ((availableSequence = dependentSequence.get()) < sequence) {
       barrier.checkAlert();
+      ThreadHints.onSpinWait();
     }
 
     return availableSequence;
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2012 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+/**
+ * Batch processor for a {@link LongRingBuffer} that hands each <code>long</code> value straight
+ * to a {@link LongEventHandler} without boxing. Has the same batching, lifecycle and exception
+ * semantics as {@link BatchEventProcessor}.
+ */
+public final class LongBatchEventProcessor extends AbstractBatchEventProcessor<Long> {
+  private final LongRingBuffer ringBuffer;
+  private final LongEventHandler eventHandler;
+
+  /**
+   * Construct a processor that will automatically track the progress by updating its sequence when
+   * the {@link LongEventHandler#onEvent(long, long, boolean)} method returns.
+   *
+   * @param ringBuffer to which values are published.
+   * @param sequenceBarrier on which it is waiting.
+   * @param eventHandler is the delegate to which values are dispatched.
+   */
+  public LongBatchEventProcessor(
+      final LongRingBuffer ringBuffer,
+      final SequenceBarrier sequenceBarrier,
+      final LongEventHandler eventHandler) {
+    super(sequenceBarrier, eventHandler);
+    this.ringBuffer = ringBuffer;
+    this.eventHandler = eventHandler;
+  }
+
+  @Override
+  void onEvent(final long sequence, final boolean endOfBatch) throws Exception {
+    eventHandler.onEvent(ringBuffer.get(sequence), sequence, endOfBatch);
+  }
+
+  @Override
+  Long failedValue(final long sequence) {
+    // getting a value from a primitive ring buffer has no side effects
+    return ringBuffer.get(sequence);
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2012 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import com.lmax.disruptor.dsl.ProducerType;
+
+/**
+ * Ring buffer that stores <code>long</code> values directly in a primitive array indexed by
+ * sequence, so no event objects are allocated and no translator boxes its argument. Consume with a
+ * {@link LongBatchEventProcessor}.
+ */
+public final class LongRingBuffer extends PrimitiveRingBuffer {
+  private final long[] entries;
+
+  LongRingBuffer(Sequencer sequencer) {
+    super(sequencer);
+    this.entries = new long[bufferSize + 2 * BUFFER_PAD];
+  }
+
+  /**
+   * Create a new LongRingBuffer with the specified producer type (SINGLE or MULTI)
+   *
+   * @param producerType producer type to use {@link ProducerType}.
+   * @param bufferSize number of values held within the ring buffer.
+   * @param waitStrategy used to determine how to wait for new values to become available.
+   * @return a constructed ring buffer.
+   * @throws IllegalArgumentException if bufferSize is less than 1 or not a power of 2
+   */
+  public static LongRingBuffer create(
+      ProducerType producerType, int bufferSize, WaitStrategy waitStrategy) {
+    return new LongRingBuffer(newSequencer(producerType, bufferSize, waitStrategy));
+  }
+
+  /**
+   * Get the value for a given sequence.
+   *
+   * @param sequence of the value.
+   * @return the value stored at the given sequence.
+   */
+  public long get(long sequence) {
+    return entries[indexOf(sequence)];
+  }
+
+  /**
+   * Set the value for a sequence previously claimed with {@link #next()}, the sequence must still
+   * be published afterward.
+   *
+   * @param sequence claimed by the caller.
+   * @param value to store.
+   */
+  public void set(long sequence, long value) {
+    entries[indexOf(sequence)] = value;
+  }
+
+  /**
+   * Claim the next sequence, store the value and publish it.
+   *
+   * @param value to publish.
+   */
+  public void publishEvent(long value) {
+    final long sequence = sequencer.next();
+    entries[indexOf(sequence)] = value;
+    sequencer.publish(sequence);
+  }
+
+  /**
+   * Claim a batch of sequences, store the values and publish them together.
+   *
+   * @param values array containing the values to publish.
+   * @param offset of the first value within the array.
+   * @param length number of values to publish.
+   */
+  public void publishEvents(long[] values, int offset, int length) {
+    checkBounds(values.length, offset, length);
+    final long finalSequence = sequencer.next(length);
+    final long initialSequence = finalSequence - (length - 1);
+    long sequence = initialSequence;
+    for (int i = offset, end = offset + length; i < end; i++) {
+      entries[indexOf(sequence++)] = values[i];
+    }
+    sequencer.publish(initialSequence, finalSequence);
+  }
+
+  /**
+   * Attempt to publish a value if there is capacity available.
+   *
+   * @param value to publish.
+   * @return true if the value was published, false if there was insufficient capacity.
+   */
+  public boolean tryPublishEvent(long value) {
+    final long sequence = sequencer.tryClaim(1);
+    if (sequence < 0) {
+      return false;
+    }
+
+    entries[indexOf(sequence)] = value;
+    sequencer.publish(sequence);
+    return true;
+  }
+}
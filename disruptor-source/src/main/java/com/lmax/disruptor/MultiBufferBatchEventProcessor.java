@@ -0,0 +1,345 @@
+/*
+ * Copyright 2012 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Event processor that merges several ring buffers, or lanes, into one {@link EventHandler}. Giving
+ * every producer thread its own lane sequenced by a {@link SingleProducerSequencer} turns a
+ * many-to-one topology into several one-to-one ones, so producers claim without a CAS and the
+ * consumer never scans an availability buffer.
+ *
+ * <p>By default lanes are served round robin. Each turn takes whatever has been published to the
+ * lane at that point, at most one ring buffer's worth, so a busy lane cannot starve the others.
+ * {@link #setWeights(int...)} limits how many events each lane may take per turn instead, and
+ * {@link #setStrictPriority(int)} gives the lanes strict priority in the order they were given.
+ * When no lane has anything available the thread waits for any lane to be published to with the
+ * idle {@link WaitStrategy}, by default a {@link SleepingWaitStrategy}. The end of batch flag passed
+ * to the handler marks the last event of a lane's turn.
+ *
+ * <pre>
+ * <code>RingBuffer&lt;MyEvent&gt;[] lanes = ...; // RingBuffer.createSingleProducer each
+ * SequenceBarrier[] barriers = ...;      // lanes[i].newBarrier()
+ * MultiBufferBatchEventProcessor&lt;MyEvent&gt; processor =
+ *     new MultiBufferBatchEventProcessor&lt;MyEvent&gt;(lanes, barriers, handler);
+ * for (int i = 0; i &lt; lanes.length; i++) {
+ *     lanes[i].addGatingSequences(processor.getSequences()[i]);
+ * }</code>
+ * </pre>
+ *
+ * <p>If the {@link EventHandler} also implements {@link LifecycleAware} it will be notified just
+ * after the thread is started and just before the thread is shutdown.
+ *
+ * @param <T> event implementation storing the data for sharing during exchange or parallel
+ *     coordination of an event.
+ */
+public final class MultiBufferBatchEventProcessor<T> implements EventProcessor {
+  private static final int IDLE = 0;
+  private static final int HALTED = IDLE + 1;
+  private static final int RUNNING = HALTED + 1;
+  private final DataProvider<T>[] providers;
+  private final SequenceBarrier[] barriers;
+  private final Sequence[] sequences;
+  private final EventHandler<? super T> eventHandler;
+  private final AtomicInteger running = new AtomicInteger(IDLE);
+  private final int[] turnLimits;
+  private final Sequence allLanes;
+  private final Sequence laneCursors;
+  private boolean strictPriority = false;
+  private WaitStrategy idleWaitStrategy = new SleepingWaitStrategy();
+  private ExceptionHandler<? super T> exceptionHandler = new FatalExceptionHandler();
+
+  /**
+   * Construct a {@link EventProcessor} that tracks its progress through each lane with a separate
+   * {@link Sequence}, updated when the {@link EventHandler#onEvent(Object, long, boolean)} method
+   * returns for the last event of a turn.
+   *
+   * @param providers the lanes to which events are published.
+   * @param barriers on which it is waiting, one for each lane in the same order.
+   * @param eventHandler is the delegate to which events of all lanes are dispatched.
+   */
+  public MultiBufferBatchEventProcessor(
+      final DataProvider<T>[] providers,
+      final SequenceBarrier[] barriers,
+      final EventHandler<? super T> eventHandler) {
+    if (providers.length != barriers.length) {
+      throw new IllegalArgumentException("Should have as many barriers as data providers");
+    }
+
+    this.providers = providers;
+    this.barriers = barriers;
+    this.eventHandler = eventHandler;
+
+    this.sequences = new Sequence[providers.length];
+    this.turnLimits = new int[providers.length];
+    for (int i = 0; i < sequences.length; i++) {
+      sequences[i] = new Sequence(Sequencer.INITIAL_CURSOR_VALUE);
+      turnLimits[i] = Integer.MAX_VALUE;
+    }
+    allLanes = new FixedSequenceGroup(sequences);
+    laneCursors = new LaneCursorSum(barriers);
+  }
+
+  /**
+   * Serve the lanes weighted round robin: each turn a lane handles at most its weight in events, so
+   * while every lane is saturated they share the handler in proportion to their weights. Must be
+   * called before the processor is started.
+   *
+   * @param weights the maximum number of events per turn of each lane, in lane order.
+   * @throws IllegalArgumentException if there is not one positive weight per lane.
+   */
+  public void setWeights(final int... weights) {
+    if (weights.length != turnLimits.length) {
+      throw new IllegalArgumentException("Should have as many weights as lanes");
+    }
+    for (final int weight : weights) {
+      if (weight < 1) {
+        throw new IllegalArgumentException("weights must be > 0");
+      }
+    }
+
+    System.arraycopy(weights, 0, turnLimits, 0, weights.length);
+    strictPriority = false;
+  }
+
+  /**
+   * Serve the lanes in strict priority, the first lane given being the most urgent. After every
+   * turn that handled an event the lanes are checked again from the first, so a lane is only
+   * served while all lanes before it are empty. A turn handles at most <code>maxBatchSize</code>
+   * events, which bounds how long an urgent event waits behind a saturated lower priority lane.
+   * Must be called before the processor is started.
+   *
+   * @param maxBatchSize the maximum number of events handled per turn.
+   * @throws IllegalArgumentException if maxBatchSize is less than 1.
+   */
+  public void setStrictPriority(final int maxBatchSize) {
+    if (maxBatchSize < 1) {
+      throw new IllegalArgumentException("maxBatchSize must be > 0");
+    }
+
+    Arrays.fill(turnLimits, maxBatchSize);
+    strictPriority = true;
+  }
+
+  /**
+   * Set the {@link WaitStrategy} used while no lane has anything available. A blocking strategy is
+   * only woken by producers signalling it, so it must be the one instance every lane was created
+   * with. Must be called before the processor is started.
+   *
+   * @param idleWaitStrategy to wait with for any lane to be published to.
+   */
+  public void setIdleWaitStrategy(final WaitStrategy idleWaitStrategy) {
+    if (null == idleWaitStrategy) {
+      throw new NullPointerException();
+    }
+
+    this.idleWaitStrategy = idleWaitStrategy;
+  }
+
+  /**
+   * A read only view of the lane sequences, holding the lowest of them, for gating on or depending
+   * on this processor as a whole. Each lane must still gate on its own sequence from {@link
+   * #getSequences()}.
+   *
+   * @return the minimum sequence of all lanes.
+   */
+  @Override
+  public Sequence getSequence() {
+    return allLanes;
+  }
+
+  /**
+   * The sequences of this processor, one for each lane in the order the lanes were given. Each
+   * must be added to the gating sequences of its own lane.
+   *
+   * @return the sequence of every lane.
+   */
+  public Sequence[] getSequences() {
+    return sequences;
+  }
+
+  @Override
+  public void halt() {
+    running.set(HALTED);
+    for (final SequenceBarrier barrier : barriers) {
+      barrier.alert();
+    }
+    idleWaitStrategy.signalAllWhenBlocking();
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running.get() != IDLE;
+  }
+
+  /**
+   * It is ok to have another thread rerun this method after a halt().
+   *
+   * @throws IllegalStateException if this object instance is already running in a thread
+   */
+  @Override
+  public void run() {
+    if (!running.compareAndSet(IDLE, RUNNING)) {
+      if (running.get() == RUNNING) {
+        throw new IllegalStateException("Thread is already running");
+      }
+    }
+    for (final SequenceBarrier barrier : barriers) {
+      barrier.clearAlert();
+    }
+
+    notifyStart();
+
+    try {
+      while (running.get() == RUNNING) {
+        long processed = 0;
+        for (int lane = 0; lane < barriers.length; lane++) {
+          final long handled = processLane(lane, turnLimits[lane]);
+          processed += handled;
+          if (strictPriority && handled > 0) {
+            break;
+          }
+        }
+
+        if (0 == processed) {
+          waitForAnyLane();
+        }
+      }
+    } finally {
+      notifyShutdown();
+      running.set(IDLE);
+    }
+  }
+
+  /**
+   * Dispatch what is currently published to a lane, up to <code>limit</code> events, returning the
+   * number of events handled.
+   */
+  private long processLane(final int lane, final int limit) {
+    final SequenceBarrier barrier = barriers[lane];
+    final Sequence sequence = sequences[lane];
+    final long nextSequence = sequence.get() + 1L;
+
+    if (barrier.getCursor() < nextSequence) {
+      return 0;
+    }
+
+    T event = null;
+    long current = nextSequence;
+    try {
+      final long availableSequence =
+          Math.min(barrier.waitFor(nextSequence), nextSequence + limit - 1L);
+
+      while (current <= availableSequence) {
+        event = providers[lane].get(current);
+        eventHandler.onEvent(event, current, current == availableSequence);
+        current++;
+      }
+
+      sequence.set(availableSequence);
+      barrier.signalProducers();
+      return availableSequence - nextSequence + 1;
+    } catch (final AlertException ex) {
+      return 0;
+    } catch (final TimeoutException ex) {
+      return 0;
+    } catch (final Throwable ex) {
+      exceptionHandler.handleEventException(ex, current, event);
+      sequence.set(current);
+      barrier.signalProducers();
+      return current - nextSequence + 1;
+    }
+  }
+
+  /**
+   * Wait until the sum of the lane cursors passes the sum of the lane sequences, which happens as
+   * soon as any lane has an event available. Returns early when alerted, leaving the run loop to
+   * check whether it has been halted.
+   */
+  private void waitForAnyLane() {
+    long processedSum = 0;
+    for (final Sequence sequence : sequences) {
+      processedSum += sequence.get();
+    }
+
+    try {
+      idleWaitStrategy.waitFor(processedSum + 1L, laneCursors, laneCursors, barriers[0]);
+    } catch (final AlertException ex) {
+      // halted, or a lane alerted
+    } catch (final TimeoutException ex) {
+      // look at the lanes again
+    } catch (final InterruptedException ex) {
+      // look at the lanes again
+    }
+  }
+
+  /** Notifies the EventHandler when this processor is starting up */
+  private void notifyStart() {
+    if (eventHandler instanceof LifecycleAware) {
+      try {
+        ((LifecycleAware) eventHandler).onStart();
+      } catch (final Throwable ex) {
+        exceptionHandler.handleOnStartException(ex);
+      }
+    }
+  }
+
+  /** Notifies the EventHandler immediately prior to this processor shutting down */
+  private void notifyShutdown() {
+    if (eventHandler instanceof LifecycleAware) {
+      try {
+        ((LifecycleAware) eventHandler).onShutdown();
+      } catch (final Throwable ex) {
+        exceptionHandler.handleOnShutdownException(ex);
+      }
+    }
+  }
+
+  /**
+   * Set a new {@link ExceptionHandler} for handling exceptions propagated out of the {@link
+   * MultiBufferBatchEventProcessor}
+   *
+   * @param exceptionHandler to replace the existing exceptionHandler.
+   */
+  public void setExceptionHandler(final ExceptionHandler<? super T> exceptionHandler) {
+    if (null == exceptionHandler) {
+      throw new NullPointerException();
+    }
+
+    this.exceptionHandler = exceptionHandler;
+  }
+
+  /** The sum of the cursors of all lanes, which moves forward whenever any lane is published to. */
+  private static final class LaneCursorSum extends Sequence {
+    private final SequenceBarrier[] barriers;
+
+    LaneCursorSum(final SequenceBarrier[] barriers) {
+      this.barriers = barriers;
+    }
+
+    @Override
+    public long get() {
+      long sum = 0;
+      for (final SequenceBarrier barrier : barriers) {
+        sum += barrier.getCursor();
+      }
+
+      return sum;
+    }
+  }
+}
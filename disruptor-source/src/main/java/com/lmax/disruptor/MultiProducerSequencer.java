@@ -18,7 +18,7 @@ package com.lmax.disruptor;
 import com.lmax.disruptor.util.Util;
 import sun.misc.Unsafe;
 
-import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Coordinator for claiming sequences for access to a data structure while tracking dependent {@link
@@ -30,14 +30,22 @@ import java.util.concurrent.locks.LockSupport;
  */
 public final class MultiProducerSequencer extends AbstractSequencer {
   private static final Unsafe UNSAFE = Util.getUnsafe();
-  private static final long BASE = UNSAFE.arrayBaseOffset(int[].class);
-  private static final long SCALE = UNSAFE.arrayIndexScale(int[].class);
+  private static final long BASE = UNSAFE.arrayBaseOffset(long[].class);
+  private static final long SCALE = UNSAFE.arrayIndexScale(long[].class);
   // availableBuffer tracks the state of each ringbuffer slot
   // see below for more details on the approach
-  private final int[] availableBuffer;
+  private final long[] availableBuffer;
   private final Sequence gatingSequenceCache = new Sequence(Sequencer.INITIAL_CURSOR_VALUE);
   private final int indexMask;
   private final int indexShift;
+  private final boolean fetchAndAdd;
+  private final Sequence minimumGatingSequence =
+      new Sequence() {
+        @Override
+        public long get() {
+          return Util.getMinimumSequence(gatingSequences, cursor.get());
+        }
+      };
 
   /**
    * Construct a Sequencer with the selected wait strategy and buffer size.
@@ -46,8 +54,45 @@ public final class MultiProducerSequencer extends AbstractSequencer {
    * @param waitStrategy for those waiting on sequences.
    */
   public MultiProducerSequencer(int bufferSize, final WaitStrategy waitStrategy) {
-    super(bufferSize, waitStrategy);
-    availableBuffer = new int[bufferSize];
+    this(bufferSize, waitStrategy, false);
+  }
+
+  /**
+   * Construct a Sequencer with the selected wait strategy, buffer size and claim mode.
+   *
+   * <p>With <code>fetchAndAdd</code> set, {@link #next(int)} claims its sequences with one
+   * unconditional fetch-and-add on the cursor and only then waits for the gating sequences to make
+   * room for them. Producers never retry the claim, so contention on the cursor costs a single
+   * atomic instruction per claim rather than a compare-and-set storm. The cursor may then run
+   * ahead of the available capacity by the claims still waiting for room, {@link #tryNext(int)}
+   * keeps using compare-and-set as it must not claim sequences it cannot give back.
+   *
+   * @param bufferSize the size of the buffer that this will sequence over.
+   * @param waitStrategy for those waiting on sequences.
+   * @param fetchAndAdd whether {@link #next(int)} claims with fetch-and-add.
+   */
+  public MultiProducerSequencer(
+      int bufferSize, final WaitStrategy waitStrategy, final boolean fetchAndAdd) {
+    this(bufferSize, waitStrategy, new SleepingProducerWaitStrategy(), fetchAndAdd);
+  }
+
+  /**
+   * Construct a Sequencer with the selected wait strategies, buffer size and claim mode.
+   *
+   * @param bufferSize the size of the buffer that this will sequence over.
+   * @param waitStrategy for those waiting on sequences.
+   * @param producerWaitStrategy for publishers waiting on a full buffer.
+   * @param fetchAndAdd whether {@link #next(int)} claims with fetch-and-add.
+   * @see #MultiProducerSequencer(int, WaitStrategy, boolean)
+   */
+  public MultiProducerSequencer(
+      int bufferSize,
+      final WaitStrategy waitStrategy,
+      final ProducerWaitStrategy producerWaitStrategy,
+      final boolean fetchAndAdd) {
+    super(bufferSize, waitStrategy, producerWaitStrategy);
+    this.fetchAndAdd = fetchAndAdd;
+    availableBuffer = new long[bufferSize];
     indexMask = bufferSize - 1;
     indexShift = Util.log2(bufferSize);
     initialiseAvailableBuffer();
@@ -62,8 +107,17 @@ public final class MultiProducerSequencer extends AbstractSequencer {
   }
 
   private void setAvailableBufferValue(int index, int flag) {
+    setAvailableBufferValue(index, flag, 1);
+  }
+
+  private void setAvailableBufferValue(int index, int flag, int runLength) {
     long bufferAddress = (index * SCALE) + BASE;
-    UNSAFE.putOrderedInt(availableBuffer, bufferAddress, flag);
+    UNSAFE.putOrderedLong(availableBuffer, bufferAddress, ((long) flag << 32) | runLength);
+  }
+
+  private long getAvailableBufferValue(final long sequence) {
+    long bufferAddress = (calculateIndex(sequence) * SCALE) + BASE;
+    return UNSAFE.getLongVolatile(availableBuffer, bufferAddress);
   }
 
   /**
@@ -76,10 +130,14 @@ public final class MultiProducerSequencer extends AbstractSequencer {
 
   @Override
   public long getHighestPublishedSequence(long lowerBound, long availableSequence) {
-    for (long sequence = lowerBound; sequence <= availableSequence; sequence++) {
-      if (!isAvailable(sequence)) {
+    long sequence = lowerBound;
+    while (sequence <= availableSequence) {
+      final long value = getAvailableBufferValue(sequence);
+      if ((int) (value >>> 32) != calculateAvailabilityFlag(sequence)) {
         return sequence - 1;
       }
+
+      sequence += (int) value;
     }
 
     return availableSequence;
@@ -90,10 +148,8 @@ public final class MultiProducerSequencer extends AbstractSequencer {
    */
   @Override
   public boolean isAvailable(long sequence) {
-    int index = calculateIndex(sequence);
     int flag = calculateAvailabilityFlag(sequence);
-    long bufferAddress = (index * SCALE) + BASE;
-    return UNSAFE.getIntVolatile(availableBuffer, bufferAddress) == flag;
+    return (int) (getAvailableBufferValue(sequence) >>> 32) == flag;
   }
 
   /**
@@ -138,6 +194,10 @@ public final class MultiProducerSequencer extends AbstractSequencer {
       throw new IllegalArgumentException("n must be > 0");
     }
 
+    if (fetchAndAdd) {
+      return nextFetchAndAdd(n);
+    }
+
     long current;
     long next;
 
@@ -152,7 +212,7 @@ public final class MultiProducerSequencer extends AbstractSequencer {
         long gatingSequence = Util.getMinimumSequence(gatingSequences, current);
 
         if (wrapPoint > gatingSequence) {
-          LockSupport.parkNanos(1); // TODO, should we spin based on the wait strategy?
+          producerWaitStrategy.waitFor(wrapPoint, minimumGatingSequence);
           continue;
         }
 
@@ -165,6 +225,63 @@ public final class MultiProducerSequencer extends AbstractSequencer {
     return next;
   }
 
+  /**
+   * Claims with compare-and-set even in fetch-and-add mode, a timed out claim must not have taken
+   * any sequences.
+   *
+   * @see Sequencer#next(int, long, TimeUnit)
+   */
+  @Override
+  public long next(int n, long timeout, TimeUnit unit) throws TimeoutException {
+    if (n < 1) {
+      throw new IllegalArgumentException("n must be > 0");
+    }
+
+    final long deadline = System.nanoTime() + unit.toNanos(timeout);
+    long current;
+    long next;
+
+    do {
+      current = cursor.get();
+      next = current + n;
+
+      long wrapPoint = next - bufferSize;
+      long cachedGatingSequence = gatingSequenceCache.get();
+
+      if (wrapPoint > cachedGatingSequence || cachedGatingSequence > current) {
+        long gatingSequence = Util.getMinimumSequence(gatingSequences, current);
+
+        if (wrapPoint > gatingSequence) {
+          producerWaitStrategy.waitFor(
+              wrapPoint, minimumGatingSequence, deadline - System.nanoTime());
+          continue;
+        }
+
+        gatingSequenceCache.set(gatingSequence);
+      } else if (cursor.compareAndSet(current, next)) {
+        break;
+      }
+    } while (true);
+
+    return next;
+  }
+
+  private long nextFetchAndAdd(int n) {
+    final long current = cursor.getAndAdd(n);
+    final long next = current + n;
+
+    long wrapPoint = next - bufferSize;
+    long cachedGatingSequence = gatingSequenceCache.get();
+
+    if (wrapPoint > cachedGatingSequence || cachedGatingSequence > current) {
+      long gatingSequence = producerWaitStrategy.waitFor(wrapPoint, minimumGatingSequence);
+
+      gatingSequenceCache.set(gatingSequence);
+    }
+
+    return next;
+  }
+
   /**
    * @see Sequencer#publish(long)
    */
@@ -179,9 +296,11 @@ public final class MultiProducerSequencer extends AbstractSequencer {
    */
   @Override
   public void publish(long lo, long hi) {
-    for (long l = lo; l <= hi; l++) {
+    for (long l = lo + 1; l <= hi; l++) {
       setAvailable(l);
     }
+    setAvailableBufferValue(
+        calculateIndex(lo), calculateAvailabilityFlag(lo), (int) (hi - lo + 1));
     waitStrategy.signalAllWhenBlocking();
   }
 
@@ -192,7 +311,7 @@ public final class MultiProducerSequencer extends AbstractSequencer {
   public long remainingCapacity() {
     long consumed = Util.getMinimumSequence(gatingSequences, cursor.get());
     long produced = cursor.get();
-    return getBufferSize() - (produced - consumed);
+    return Math.max(0L, getBufferSize() - (produced - consumed));
   }
 
   /**
@@ -208,6 +327,19 @@ public final class MultiProducerSequencer extends AbstractSequencer {
    */
   @Override
   public long tryNext(int n) throws InsufficientCapacityException {
+    final long sequence = tryClaim(n);
+    if (sequence < 0) {
+      throw InsufficientCapacityException.INSTANCE;
+    }
+
+    return sequence;
+  }
+
+  /**
+   * @see Sequencer#tryClaim(int)
+   */
+  @Override
+  public long tryClaim(int n) {
     if (n < 1) {
       throw new IllegalArgumentException("n must be > 0");
     }
@@ -220,7 +352,7 @@ public final class MultiProducerSequencer extends AbstractSequencer {
       next = current + n;
 
       if (!hasAvailableCapacity(gatingSequences, n, current)) {
-        throw InsufficientCapacityException.INSTANCE;
+        return INSUFFICIENT_CAPACITY;
       }
     } while (!cursor.compareAndSet(current, next));
 
@@ -242,6 +374,13 @@ public final class MultiProducerSequencer extends AbstractSequencer {
    * gating sequences moving forward (i.e. the minimum gating sequence is effectively our last
    * available position in the buffer), when we have new data and successfully claimed a slot we can
    * simply write over the top.
+   *
+   * <p>Each slot packs the availability flag in its upper 32 bits with a run length in its lower
+   * 32 bits. A batch published with {@link #publish(long, long)} marks every slot of the range with
+   * a run of one and then, last and with an ordered write, its first slot with the length of the
+   * whole range. A consumer scanning from the start of the batch reads that single slot and skips
+   * to its end, rather than reading every slot of the batch; individual slots stay correct for
+   * {@link #isAvailable(long)} and for scans that start inside a range.
    */
   private void setAvailable(final long sequence) {
     setAvailableBufferValue(calculateIndex(sequence), calculateAvailabilityFlag(sequence));
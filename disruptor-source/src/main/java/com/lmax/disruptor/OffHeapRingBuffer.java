@@ -0,0 +1,469 @@
+/*
+ * Copyright 2012 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import com.lmax.disruptor.dsl.ProducerType;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ring based store of fixed size slots held in a single direct {@link ByteBuffer}. Unlike {@link
+ * RingBuffer} no event objects are created, so the ring data adds nothing to the heap and does not
+ * have to be traversed by the garbage collector.
+ *
+ * <p>Slots are read and written through a reusable {@link Slot} flyweight which is positioned over
+ * the memory for a given sequence. A flyweight must not be shared between threads, each producer
+ * thread should create its own via {@link #newSlot()} and each {@link EventProcessor} should be
+ * given its own {@link DataProvider} via {@link #newDataProvider()}.
+ *
+ * <pre>
+ * OffHeapRingBuffer ringBuffer = OffHeapRingBuffer.createSingleProducer(1024, 16, waitStrategy);
+ * BatchEventProcessor&lt;OffHeapRingBuffer.Slot&gt; processor =
+ *     new BatchEventProcessor&lt;OffHeapRingBuffer.Slot&gt;(
+ *         ringBuffer.newDataProvider(), ringBuffer.newBarrier(), handler);
+ * ringBuffer.addGatingSequences(processor.getSequence());
+ *
+ * OffHeapRingBuffer.Slot slot = ringBuffer.newSlot();
+ * long sequence = ringBuffer.next();
+ * try {
+ *     slot.moveTo(sequence).putLong(0, id).putLong(8, price);
+ * } finally {
+ *     ringBuffer.publish(sequence);
+ * }
+ * </pre>
+ */
+public final class OffHeapRingBuffer implements Cursored, Sequenced {
+  private final int bufferSize;
+  private final int slotSize;
+  private final long indexMask;
+  private final Sequencer sequencer;
+  private final ByteBuffer buffer;
+
+  /**
+   * Construct an OffHeapRingBuffer with the full option set.
+   *
+   * @param sequencer sequencer to handle the ordering of events moving through the ring buffer.
+   * @param slotSize the number of bytes available to each slot.
+   * @throws IllegalArgumentException if slotSize is less than 1 or the total size of the buffer
+   *     does not fit into a single {@link ByteBuffer}
+   */
+  OffHeapRingBuffer(Sequencer sequencer, int slotSize) {
+    this.sequencer = sequencer;
+    this.bufferSize = sequencer.getBufferSize();
+
+    if (slotSize < 1) {
+      throw new IllegalArgumentException("slotSize must not be less than 1");
+    }
+    final long capacity = (long) bufferSize * slotSize;
+    if (capacity > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException(
+          "bufferSize * slotSize must not exceed " + Integer.MAX_VALUE + " bytes");
+    }
+
+    this.slotSize = slotSize;
+    this.indexMask = bufferSize - 1;
+    this.buffer = ByteBuffer.allocateDirect((int) capacity).order(ByteOrder.nativeOrder());
+  }
+
+  /**
+   * Create a new OffHeapRingBuffer with the specified producer type (SINGLE or MULTI)
+   *
+   * @param producerType producer type to use {@link ProducerType}.
+   * @param bufferSize number of slots to create within the ring buffer.
+   * @param slotSize number of bytes available to each slot.
+   * @param waitStrategy used to determine how to wait for new elements to become available.
+   * @return a constructed ring buffer.
+   * @throws IllegalArgumentException if bufferSize is less than 1 or not a power of 2
+   */
+  public static OffHeapRingBuffer create(
+      ProducerType producerType, int bufferSize, int slotSize, WaitStrategy waitStrategy) {
+    switch (producerType) {
+      case SINGLE:
+        return createSingleProducer(bufferSize, slotSize, waitStrategy);
+      case MULTI:
+        return createMultiProducer(bufferSize, slotSize, waitStrategy);
+      case MULTI_FETCH_AND_ADD:
+        return new OffHeapRingBuffer(
+            new MultiProducerSequencer(bufferSize, waitStrategy, true), slotSize);
+      default:
+        throw new IllegalStateException(producerType.toString());
+    }
+  }
+
+  /**
+   * Create a new single producer OffHeapRingBuffer with the specified wait strategy.
+   *
+   * @param bufferSize number of slots to create within the ring buffer.
+   * @param slotSize number of bytes available to each slot.
+   * @param waitStrategy used to determine how to wait for new elements to become available.
+   * @return a constructed ring buffer.
+   * @throws IllegalArgumentException if bufferSize is less than 1 or not a power of 2
+   * @see SingleProducerSequencer
+   */
+  public static OffHeapRingBuffer createSingleProducer(
+      int bufferSize, int slotSize, WaitStrategy waitStrategy) {
+    return new OffHeapRingBuffer(new SingleProducerSequencer(bufferSize, waitStrategy), slotSize);
+  }
+
+  /**
+   * Create a new multiple producer OffHeapRingBuffer with the specified wait strategy.
+   *
+   * @param bufferSize number of slots to create within the ring buffer.
+   * @param slotSize number of bytes available to each slot.
+   * @param waitStrategy used to determine how to wait for new elements to become available.
+   * @return a constructed ring buffer.
+   * @throws IllegalArgumentException if bufferSize is less than 1 or not a power of 2
+   * @see MultiProducerSequencer
+   */
+  public static OffHeapRingBuffer createMultiProducer(
+      int bufferSize, int slotSize, WaitStrategy waitStrategy) {
+    return new OffHeapRingBuffer(new MultiProducerSequencer(bufferSize, waitStrategy), slotSize);
+  }
+
+  /**
+   * Create a new flyweight over the slots of this ring buffer. The flyweight is not thread safe and
+   * should be reused by a single thread.
+   *
+   * @return a flyweight that is not positioned over any slot.
+   */
+  public Slot newSlot() {
+    return new Slot(buffer.duplicate().order(ByteOrder.nativeOrder()), slotSize, indexMask);
+  }
+
+  /**
+   * Create a {@link DataProvider} suitable for use with a {@link BatchEventProcessor}. Each call to
+   * {@link DataProvider#get(long)} positions and returns the same flyweight, so a provider must
+   * only be used by a single event processor.
+   *
+   * @return a data provider backed by its own flyweight.
+   */
+  public DataProvider<Slot> newDataProvider() {
+    final Slot slot = newSlot();
+    return new DataProvider<Slot>() {
+      @Override
+      public Slot get(long sequence) {
+        return slot.moveTo(sequence);
+      }
+    };
+  }
+
+  /**
+   * Creates an event poller for this ring buffer gated on the supplied sequences. The poller is
+   * given its own flyweight.
+   *
+   * @param gatingSequences to be gated on.
+   * @return A poller that will gate on this ring buffer and the supplied sequences.
+   */
+  public EventPoller<Slot> newPoller(Sequence... gatingSequences) {
+    return sequencer.newPoller(newDataProvider(), gatingSequences);
+  }
+
+  /**
+   * Create a new SequenceBarrier to be used by an EventProcessor to track which slots are available
+   * to be read from the ring buffer given a list of sequences to track.
+   *
+   * @param sequencesToTrack the additional sequences to track
+   * @return A sequence barrier that will track the specified sequences.
+   * @see SequenceBarrier
+   */
+  public SequenceBarrier newBarrier(Sequence... sequencesToTrack) {
+    return sequencer.newBarrier(sequencesToTrack);
+  }
+
+  /**
+   * Add the specified gating sequences to this ring buffer. They will safely and atomically added
+   * to the list of gating sequences.
+   *
+   * @param gatingSequences The sequences to add.
+   */
+  public void addGatingSequences(Sequence... gatingSequences) {
+    sequencer.addGatingSequences(gatingSequences);
+  }
+
+  /**
+   * Remove the specified sequence from this ring buffer.
+   *
+   * @param sequence to be removed.
+   * @return <tt>true</tt> if this sequence was found, <tt>false</tt> otherwise.
+   */
+  public boolean removeGatingSequence(Sequence sequence) {
+    return sequencer.removeGatingSequence(sequence);
+  }
+
+  /**
+   * Get the minimum sequence value from all of the gating sequences added to this ring buffer.
+   *
+   * @return The minimum gating sequence or the cursor sequence if no sequences have been added.
+   */
+  public long getMinimumGatingSequence() {
+    return sequencer.getMinimumSequence();
+  }
+
+  /**
+   * The number of bytes available to each slot.
+   *
+   * @return the slot size in bytes.
+   */
+  public int getSlotSize() {
+    return slotSize;
+  }
+
+  @Override
+  public long getCursor() {
+    return sequencer.getCursor();
+  }
+
+  @Override
+  public int getBufferSize() {
+    return bufferSize;
+  }
+
+  @Override
+  public boolean hasAvailableCapacity(int requiredCapacity) {
+    return sequencer.hasAvailableCapacity(requiredCapacity);
+  }
+
+  @Override
+  public long next() {
+    return sequencer.next();
+  }
+
+  @Override
+  public long next(int n) {
+    return sequencer.next(n);
+  }
+
+  @Override
+  public long next(int n, long timeout, TimeUnit unit) throws TimeoutException {
+    return sequencer.next(n, timeout, unit);
+  }
+
+  @Override
+  public long tryNext() throws InsufficientCapacityException {
+    return sequencer.tryNext();
+  }
+
+  @Override
+  public long tryNext(int n) throws InsufficientCapacityException {
+    return sequencer.tryNext(n);
+  }
+
+  @Override
+  public long tryClaim(int n) {
+    return sequencer.tryClaim(n);
+  }
+
+  @Override
+  public void publish(long sequence) {
+    sequencer.publish(sequence);
+  }
+
+  @Override
+  public void publish(long lo, long hi) {
+    sequencer.publish(lo, hi);
+  }
+
+  @Override
+  public long remainingCapacity() {
+    return sequencer.remainingCapacity();
+  }
+
+  /**
+   * Claims the next sequence, positions the supplied flyweight over it and publishes the sequence
+   * after translation.
+   *
+   * @param slot flyweight owned by the calling thread.
+   * @param translator The user specified translation for the slot
+   */
+  public void publishEvent(Slot slot, EventTranslator<Slot> translator) {
+    final long sequence = sequencer.next();
+    try {
+      translator.translateTo(slot.moveTo(sequence), sequence);
+    } finally {
+      sequencer.publish(sequence);
+    }
+  }
+
+  /**
+   * Allows one user supplied argument.
+   *
+   * @param <A> Class of the user supplied argument
+   * @param slot flyweight owned by the calling thread.
+   * @param translator The user specified translation for the slot
+   * @param arg0 A user supplied argument.
+   * @see #publishEvent(Slot, EventTranslator)
+   */
+  public <A> void publishEvent(Slot slot, EventTranslatorOneArg<Slot, A> translator, A arg0) {
+    final long sequence = sequencer.next();
+    try {
+      translator.translateTo(slot.moveTo(sequence), sequence, arg0);
+    } finally {
+      sequencer.publish(sequence);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "OffHeapRingBuffer{"
+        + "bufferSize="
+        + bufferSize
+        + ", slotSize="
+        + slotSize
+        + ", sequencer="
+        + sequencer
+        + "}";
+  }
+
+  /**
+   * Flyweight over a single slot of an {@link OffHeapRingBuffer}. All offsets are relative to the
+   * start of the slot and must leave room for the value being accessed within {@link
+   * #getSlotSize()}, otherwise an {@link IndexOutOfBoundsException} is thrown rather than touching
+   * the next slot. Values are stored in native byte order.
+   */
+  public static final class Slot {
+    private final ByteBuffer buffer;
+    private final int slotSize;
+    private final long indexMask;
+    private long sequence = Sequencer.INITIAL_CURSOR_VALUE;
+    private int base;
+
+    Slot(ByteBuffer buffer, int slotSize, long indexMask) {
+      this.buffer = buffer;
+      this.slotSize = slotSize;
+      this.indexMask = indexMask;
+    }
+
+    /**
+     * Position this flyweight over the slot for the given sequence.
+     *
+     * @param sequence of the slot.
+     * @return this flyweight.
+     */
+    public Slot moveTo(long sequence) {
+      this.sequence = sequence;
+      this.base = (int) (sequence & indexMask) * slotSize;
+      return this;
+    }
+
+    /**
+     * The sequence this flyweight is currently positioned over.
+     *
+     * @return the current sequence.
+     */
+    public long getSequence() {
+      return sequence;
+    }
+
+    /**
+     * The number of bytes available to the slot.
+     *
+     * @return the slot size in bytes.
+     */
+    public int getSlotSize() {
+      return slotSize;
+    }
+
+    public byte getByte(int offset) {
+      checkRange(offset, Byte.BYTES);
+      return buffer.get(base + offset);
+    }
+
+    public Slot putByte(int offset, byte value) {
+      checkRange(offset, Byte.BYTES);
+      buffer.put(base + offset, value);
+      return this;
+    }
+
+    public int getInt(int offset) {
+      checkRange(offset, Integer.BYTES);
+      return buffer.getInt(base + offset);
+    }
+
+    public Slot putInt(int offset, int value) {
+      checkRange(offset, Integer.BYTES);
+      buffer.putInt(base + offset, value);
+      return this;
+    }
+
+    public long getLong(int offset) {
+      checkRange(offset, Long.BYTES);
+      return buffer.getLong(base + offset);
+    }
+
+    public Slot putLong(int offset, long value) {
+      checkRange(offset, Long.BYTES);
+      buffer.putLong(base + offset, value);
+      return this;
+    }
+
+    public double getDouble(int offset) {
+      checkRange(offset, Double.BYTES);
+      return buffer.getDouble(base + offset);
+    }
+
+    public Slot putDouble(int offset, double value) {
+      checkRange(offset, Double.BYTES);
+      buffer.putDouble(base + offset, value);
+      return this;
+    }
+
+    /**
+     * Copy bytes out of the slot.
+     *
+     * @param offset within the slot to start copying from.
+     * @param dst the array to copy into.
+     * @param dstOffset the position in the array to copy to.
+     * @param length the number of bytes to copy.
+     * @return this flyweight.
+     */
+    public Slot getBytes(int offset, byte[] dst, int dstOffset, int length) {
+      checkRange(offset, length);
+      buffer.position(base + offset);
+      buffer.get(dst, dstOffset, length);
+      return this;
+    }
+
+    /**
+     * Copy bytes into the slot.
+     *
+     * @param offset within the slot to start copying to.
+     * @param src the array to copy from.
+     * @param srcOffset the position in the array to copy from.
+     * @param length the number of bytes to copy.
+     * @return this flyweight.
+     */
+    public Slot putBytes(int offset, byte[] src, int srcOffset, int length) {
+      checkRange(offset, length);
+      buffer.position(base + offset);
+      buffer.put(src, srcOffset, length);
+      return this;
+    }
+
+    private void checkRange(int offset, int length) {
+      if (offset < 0 || length < 0 || offset + length > slotSize) {
+        throw new IndexOutOfBoundsException(
+            "offset " + offset + " and length " + length + " exceed slotSize " + slotSize);
+      }
+    }
+
+    @Override
+    public String toString() {
+      return "Slot{" + "sequence=" + sequence + ", slotSize=" + slotSize + '}';
+    }
+  }
+}
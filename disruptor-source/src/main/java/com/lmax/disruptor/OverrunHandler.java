@@ -0,0 +1,31 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+/**
+ * Implement this interface in your {@link EventHandler} to be notified when an {@link
+ * OverwritingEventProcessor} was lapped by the publisher and had to skip events.
+ */
+public interface OverrunHandler {
+  /**
+   * Called before processing resumes at <code>lastLostSequence + 1</code>.
+   *
+   * @param firstLostSequence the first sequence that was overwritten before it could be handled.
+   * @param lastLostSequence the last sequence skipped.
+   * @throws Exception if the handler fails, it is passed to the {@link ExceptionHandler}.
+   */
+  void onOverrun(long firstLostSequence, long lastLostSequence) throws Exception;
+}
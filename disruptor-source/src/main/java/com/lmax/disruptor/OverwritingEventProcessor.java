@@ -0,0 +1,221 @@
+/*
+ * Copyright 2012 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Event processor for a ring buffer created with {@link RingBuffer#createOverwriting(EventFactory,
+ * int, WaitStrategy)}. Before dispatching each event it checks whether the publisher has lapped
+ * it; if so it skips straight to the newest published event, notifying the {@link EventHandler}
+ * first if it implements {@link OverrunHandler}. A slow consumer therefore only ever loses data,
+ * it never holds the publisher up.
+ *
+ * <p>An event can still be overwritten while the handler is reading it. Handlers that need a
+ * consistent view should copy what they need and then check {@link
+ * OverwritingSequencer#isOverrun(long)} for the sequence.
+ *
+ * <p>If the {@link EventHandler} also implements {@link LifecycleAware} it will be notified just
+ * after the thread is started and just before the thread is shutdown.
+ *
+ * @param <T> event implementation storing the data for sharing during exchange or parallel
+ *     coordination of an event.
+ */
+public final class OverwritingEventProcessor<T> implements EventProcessor {
+  private static final int IDLE = 0;
+  private static final int HALTED = IDLE + 1;
+  private static final int RUNNING = HALTED + 1;
+  private final RingBuffer<T> ringBuffer;
+  private final OverwritingSequencer sequencer;
+  private final EventHandler<? super T> eventHandler;
+  private final AtomicInteger running = new AtomicInteger(IDLE);
+  private final Sequence sequence = new Sequence(Sequencer.INITIAL_CURSOR_VALUE);
+  private final SequenceBarrier sequenceBarrier;
+  private final OverrunHandler overrunHandler;
+  private final TimeoutHandler timeoutHandler;
+  private ExceptionHandler<? super T> exceptionHandler = new FatalExceptionHandler();
+
+  /**
+   * Construct a {@link EventProcessor} that will automatically track the progress by updating its
+   * sequence when the {@link EventHandler#onEvent(Object, long, boolean)} method returns, or when
+   * it skips events that were overwritten.
+   *
+   * @param ringBuffer an overwriting ring buffer to which events are published.
+   * @param sequenceBarrier on which it is waiting.
+   * @param eventHandler is the delegate to which events are dispatched.
+   * @throws IllegalArgumentException if the ring buffer was not created as an overwriting one.
+   */
+  public OverwritingEventProcessor(
+      final RingBuffer<T> ringBuffer,
+      final SequenceBarrier sequenceBarrier,
+      final EventHandler<? super T> eventHandler) {
+    if (!(ringBuffer.sequencer instanceof OverwritingSequencer)) {
+      throw new IllegalArgumentException("RingBuffer must be created with createOverwriting");
+    }
+
+    this.ringBuffer = ringBuffer;
+    this.sequencer = (OverwritingSequencer) ringBuffer.sequencer;
+    this.sequenceBarrier = sequenceBarrier;
+    this.eventHandler = eventHandler;
+
+    if (eventHandler instanceof SequenceReportingEventHandler) {
+      ((SequenceReportingEventHandler<?>) eventHandler).setSequenceCallback(sequence);
+    }
+
+    overrunHandler =
+        (eventHandler instanceof OverrunHandler) ? (OverrunHandler) eventHandler : null;
+    timeoutHandler =
+        (eventHandler instanceof TimeoutHandler) ? (TimeoutHandler) eventHandler : null;
+  }
+
+  @Override
+  public Sequence getSequence() {
+    return sequence;
+  }
+
+  @Override
+  public void halt() {
+    running.set(HALTED);
+    sequenceBarrier.alert();
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running.get() != IDLE;
+  }
+
+  /**
+   * It is ok to have another thread rerun this method after a halt().
+   *
+   * @throws IllegalStateException if this object instance is already running in a thread
+   */
+  @Override
+  public void run() {
+    if (!running.compareAndSet(IDLE, RUNNING)) {
+      if (running.get() == RUNNING) {
+        throw new IllegalStateException("Thread is already running");
+      }
+    }
+    sequenceBarrier.clearAlert();
+
+    notifyStart();
+
+    try {
+      if (running.get() == HALTED) {
+        return;
+      }
+
+      T event = null;
+      long nextSequence = sequence.get() + 1L;
+
+      while (true) {
+        try {
+          final long availableSequence = sequenceBarrier.waitFor(nextSequence);
+          long processedSequence = availableSequence;
+
+          while (nextSequence <= availableSequence) {
+            if (sequencer.isOverrun(nextSequence)) {
+              nextSequence = skipOverrun(nextSequence);
+              processedSequence = nextSequence - 1L;
+              break;
+            }
+
+            event = ringBuffer.get(nextSequence);
+            eventHandler.onEvent(event, nextSequence, nextSequence == availableSequence);
+            nextSequence++;
+          }
+
+          sequence.set(processedSequence);
+        } catch (final TimeoutException e) {
+          notifyTimeout(sequence.get());
+        } catch (final AlertException ex) {
+          if (running.get() != RUNNING) {
+            break;
+          }
+        } catch (final Throwable ex) {
+          exceptionHandler.handleEventException(ex, nextSequence, event);
+          sequence.set(nextSequence);
+          nextSequence++;
+        }
+      }
+    } finally {
+      notifyShutdown();
+      running.set(IDLE);
+    }
+  }
+
+  /**
+   * Work out where to resume after being lapped at <code>lostSequence</code>: the newest published
+   * event, or the oldest one not yet being overwritten if the publisher has claimed further ahead.
+   */
+  private long skipOverrun(final long lostSequence) throws Exception {
+    final long resumeSequence =
+        Math.max(
+            sequenceBarrier.getCursor(),
+            sequencer.getClaimedSequence() - ringBuffer.getBufferSize() + 1L);
+
+    if (overrunHandler != null) {
+      overrunHandler.onOverrun(lostSequence, resumeSequence - 1L);
+    }
+    return resumeSequence;
+  }
+
+  /** Notifies the EventHandler when this processor is starting up */
+  private void notifyStart() {
+    if (eventHandler instanceof LifecycleAware) {
+      try {
+        ((LifecycleAware) eventHandler).onStart();
+      } catch (final Throwable ex) {
+        exceptionHandler.handleOnStartException(ex);
+      }
+    }
+  }
+
+  private void notifyTimeout(final long availableSequence) {
+    try {
+      if (timeoutHandler != null) {
+        timeoutHandler.onTimeout(availableSequence);
+      }
+    } catch (Throwable e) {
+      exceptionHandler.handleEventException(e, availableSequence, null);
+    }
+  }
+
+  /** Notifies the EventHandler immediately prior to this processor shutting down */
+  private void notifyShutdown() {
+    if (eventHandler instanceof LifecycleAware) {
+      try {
+        ((LifecycleAware) eventHandler).onShutdown();
+      } catch (final Throwable ex) {
+        exceptionHandler.handleOnShutdownException(ex);
+      }
+    }
+  }
+
+  /**
+   * Set a new {@link ExceptionHandler} for handling exceptions propagated out of the {@link
+   * OverwritingEventProcessor}
+   *
+   * @param exceptionHandler to replace the existing exceptionHandler.
+   */
+  public void setExceptionHandler(final ExceptionHandler<? super T> exceptionHandler) {
+    if (null == exceptionHandler) {
+      throw new NullPointerException();
+    }
+
+    this.exceptionHandler = exceptionHandler;
+  }
+}
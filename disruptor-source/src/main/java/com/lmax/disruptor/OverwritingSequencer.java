@@ -0,0 +1,196 @@
+/*
+ * Copyright 2012 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import com.lmax.disruptor.util.Util;
+import sun.misc.Unsafe;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single producer sequencer that never waits for the gating sequences, so the publisher's latency
+ * does not depend on how fast its consumers are. Once a consumer falls a whole ring behind the
+ * events it has not read yet are overwritten; it can find out with {@link #isOverrun(long)} and
+ * skip ahead, as the {@link OverwritingEventProcessor} does.
+ *
+ * <p>Gating sequences can still be added, for example by the DSL, but only to report {@link
+ * #getMinimumSequence()}. Not safe for use from multiple threads as it does not implement any
+ * barriers.
+ */
+public final class OverwritingSequencer extends AbstractSequencer {
+  private static final Unsafe UNSAFE = Util.getUnsafe();
+
+  private final Sequence claimed = new Sequence(Sequencer.INITIAL_CURSOR_VALUE);
+  private long nextValue = Sequence.INITIAL_VALUE;
+
+  /**
+   * Construct a Sequencer with the selected wait strategy and buffer size.
+   *
+   * @param bufferSize the size of the buffer that this will sequence over.
+   * @param waitStrategy for those waiting on sequences.
+   */
+  public OverwritingSequencer(int bufferSize, WaitStrategy waitStrategy) {
+    super(bufferSize, waitStrategy);
+  }
+
+  /**
+   * @see Sequencer#claim(long)
+   */
+  @Override
+  public void claim(long sequence) {
+    this.nextValue = sequence;
+    claimed.setVolatile(sequence);
+  }
+
+  @Override
+  public long getHighestPublishedSequence(long lowerBound, long availableSequence) {
+    return availableSequence;
+  }
+
+  /**
+   * A sequence is available once published and until the publisher claims the sequence one lap
+   * later.
+   *
+   * @see Sequencer#isAvailable(long)
+   */
+  @Override
+  public boolean isAvailable(long sequence) {
+    return sequence <= cursor.get() && !isOverrun(sequence);
+  }
+
+  /**
+   * Check whether the event of a sequence has been, or is being, overwritten by the publisher. A
+   * consumer that has read an event can call this afterwards to learn whether what it read may
+   * have been changed underneath it.
+   *
+   * @param sequence of the event.
+   * @return true if the publisher has claimed the same slot for a later lap.
+   */
+  public boolean isOverrun(long sequence) {
+    UNSAFE.loadFence();
+    return sequence <= claimed.get() - bufferSize;
+  }
+
+  /**
+   * The highest sequence claimed by the publisher, which may not have been published yet.
+   *
+   * @return the claimed sequence.
+   */
+  public long getClaimedSequence() {
+    return claimed.get();
+  }
+
+  /**
+   * Capacity is always available, as long as no more than a ring's worth is required at once.
+   *
+   * @see Sequencer#hasAvailableCapacity(int)
+   */
+  @Override
+  public boolean hasAvailableCapacity(int requiredCapacity) {
+    return requiredCapacity <= bufferSize;
+  }
+
+  /**
+   * @see Sequencer#next()
+   */
+  @Override
+  public long next() {
+    return next(1);
+  }
+
+  /**
+   * Claim the next <code>n</code> sequences without waiting for any gating sequence, overwriting
+   * whatever was there a lap earlier.
+   *
+   * @see Sequencer#next(int)
+   */
+  @Override
+  public long next(int n) {
+    if (n < 1 || n > bufferSize) {
+      throw new IllegalArgumentException("n must be > 0 and <= bufferSize");
+    }
+
+    long nextSequence = this.nextValue + n;
+    this.nextValue = nextSequence;
+
+    claimed.setVolatile(nextSequence);
+    // the claim must be visible before any write to the slots being taken over
+    UNSAFE.storeFence();
+
+    return nextSequence;
+  }
+
+  /**
+   * Same as {@link #next(int)}, as claiming never waits.
+   *
+   * @see Sequencer#next(int, long, TimeUnit)
+   */
+  @Override
+  public long next(int n, long timeout, TimeUnit unit) {
+    return next(n);
+  }
+
+  /**
+   * @see Sequencer#tryNext()
+   */
+  @Override
+  public long tryNext() throws InsufficientCapacityException {
+    return tryNext(1);
+  }
+
+  /**
+   * @see Sequencer#tryNext(int)
+   */
+  @Override
+  public long tryNext(int n) throws InsufficientCapacityException {
+    return next(n);
+  }
+
+  /**
+   * @see Sequencer#tryClaim(int)
+   */
+  @Override
+  public long tryClaim(int n) {
+    return next(n);
+  }
+
+  /**
+   * @see Sequencer#publish(long)
+   */
+  @Override
+  public void publish(long sequence) {
+    cursor.set(sequence);
+    waitStrategy.signalAllWhenBlocking();
+  }
+
+  /**
+   * @see Sequencer#publish(long, long)
+   */
+  @Override
+  public void publish(long lo, long hi) {
+    publish(hi);
+  }
+
+  /**
+   * The whole buffer is always available to the publisher.
+   *
+   * @see Sequencer#remainingCapacity()
+   */
+  @Override
+  public long remainingCapacity() {
+    return bufferSize;
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+/**
+ * Blocking strategy for {@link EventProcessor}s running on virtual threads: a {@link
+ * BlockingWaitStrategy} that parks for <code>parkNanos</code> at a time while waiting for the
+ * processors ahead on the barrier, instead of spinning on the carrier thread.
+ *
+ * <p>Waiting for the cursor is the lock and condition variable of {@link BlockingWaitStrategy},
+ * which already unmounts a virtual thread rather than pinning it.
+ */
+public final class ParkingWaitStrategy implements WaitStrategy {
+  private static final long DEFAULT_PARK_NANOS = 1000L;
+
+  private final BlockingWaitStrategy blockingWaitStrategy;
+  private final long parkNanos;
+
+  public ParkingWaitStrategy() {
+    this(DEFAULT_PARK_NANOS);
+  }
+
+  /**
+   * @param parkNanos how long to park at a time while waiting for dependent processors.
+   * @throws IllegalArgumentException if parkNanos is less than 1.
+   */
+  public ParkingWaitStrategy(final long parkNanos) {
+    if (parkNanos < 1L) {
+      throw new IllegalArgumentException("parkNanos must be > 0");
+    }
+
+    this.parkNanos = parkNanos;
+    this.blockingWaitStrategy = new BlockingWaitStrategy(parkNanos);
+  }
+
+  @Override
+  public void signalAllWhenBlocking() {
+    blockingWaitStrategy.signalAllWhenBlocking();
+  }
+
+  @Override
+  public long waitFor(
+      long sequence, Sequence cursorSequence, Sequence dependentSequence, SequenceBarrier barrier)
+      throws AlertException, InterruptedException {
+    return blockingWaitStrategy.waitFor(sequence, cursorSequence, dependentSequence, barrier);
+  }
+
+  @Override
+  public String toString() {
+    return "ParkingWaitStrategy{" + "parkNanos=" + parkNanos + '}';
+  }
+}
@@ -0,0 +1,349 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import com.lmax.disruptor.util.Util;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A pool of workers that each own one partition of the events in a {@link RingBuffer}. Every event
+ * is published with a key, all the events for a key go to the same partition, and a partition is
+ * worked by a single {@link WorkHandler}, so events with the same key are handled one at a time in
+ * the order they were published while different keys are handled in parallel.
+ *
+ * <p>When an event is published through the pool its partition is written to an index alongside
+ * the ring buffer, one <code>int</code> per slot, before the sequence is published. A worker scans
+ * that index and only reads the events of its own partition, rather than every worker reading every
+ * event and skipping those for other keys. Gating the ring buffer on {@link #getWorkerSequences()}
+ * is enough to keep it from wrapping over unprocessed events, as each worker advances its sequence
+ * past the events of other partitions as it scans.
+ *
+ * <p>All events must be published through {@link #publish(Object, long)} or one of the
+ * <code>publishEvent</code> methods of the pool, as an event published directly to the ring buffer
+ * has no partition recorded for it.
+ *
+ * @param <T> event to be processed by a pool of workers
+ */
+public final class PartitionedWorkerPool<T> {
+  private final RingBuffer<T> ringBuffer;
+  private final AtomicBoolean started = new AtomicBoolean(false);
+  private final int[] partitionIndex;
+  private final int indexMask;
+  private final PartitionProcessor<?>[] partitionProcessors;
+
+  /**
+   * Create a partitioned pool with one partition for each {@link WorkHandler}.
+   *
+   * <p>This option requires a pre-configured {@link RingBuffer} which must have {@link
+   * RingBuffer#addGatingSequences(Sequence...)} called before the work pool is started.
+   *
+   * @param ringBuffer of events to be consumed.
+   * @param sequenceBarrier on which the workers will depend.
+   * @param exceptionHandler to callback when an error occurs which is not handled by the {@link
+   *     WorkHandler}s.
+   * @param workHandlers one for each partition, in partition order.
+   */
+  public PartitionedWorkerPool(
+      final RingBuffer<T> ringBuffer,
+      final SequenceBarrier sequenceBarrier,
+      final ExceptionHandler<? super T> exceptionHandler,
+      final WorkHandler<? super T>... workHandlers) {
+    if (workHandlers.length < 1) {
+      throw new IllegalArgumentException("There must be at least one partition");
+    }
+
+    this.ringBuffer = ringBuffer;
+    this.partitionIndex = new int[ringBuffer.getBufferSize()];
+    this.indexMask = ringBuffer.getBufferSize() - 1;
+    this.partitionProcessors = new PartitionProcessor[workHandlers.length];
+
+    for (int i = 0; i < workHandlers.length; i++) {
+      partitionProcessors[i] =
+          new PartitionProcessor<T>(
+              ringBuffer, sequenceBarrier, workHandlers[i], exceptionHandler, partitionIndex, i);
+    }
+  }
+
+  /**
+   * Construct a partitioned pool with an internal {@link RingBuffer} for convenience.
+   *
+   * <p>This option does not require {@link RingBuffer#addGatingSequences(Sequence...)} to be called
+   * before the work pool is started.
+   *
+   * @param eventFactory for filling the {@link RingBuffer}
+   * @param exceptionHandler to callback when an error occurs which is not handled by the {@link
+   *     WorkHandler}s.
+   * @param workHandlers one for each partition, in partition order.
+   */
+  public PartitionedWorkerPool(
+      final EventFactory<T> eventFactory,
+      final ExceptionHandler<? super T> exceptionHandler,
+      final WorkHandler<? super T>... workHandlers) {
+    this(newRingBuffer(eventFactory), exceptionHandler, workHandlers);
+    ringBuffer.addGatingSequences(getWorkerSequences());
+  }
+
+  private PartitionedWorkerPool(
+      final RingBuffer<T> ringBuffer,
+      final ExceptionHandler<? super T> exceptionHandler,
+      final WorkHandler<? super T>[] workHandlers) {
+    this(ringBuffer, ringBuffer.newBarrier(), exceptionHandler, workHandlers);
+  }
+
+  private static <T> RingBuffer<T> newRingBuffer(final EventFactory<T> eventFactory) {
+    return RingBuffer.createMultiProducer(eventFactory, 1024, new BlockingWaitStrategy());
+  }
+
+  /**
+   * The partition that events published with the given key are handled by.
+   *
+   * @param key the partitioning key, which must have a stable {@link Object#hashCode()}.
+   * @return the index of the partition.
+   */
+  public int partitionFor(final Object key) {
+    final int h = key.hashCode();
+    return ((h ^ (h >>> 16)) & Integer.MAX_VALUE) % partitionProcessors.length;
+  }
+
+  /**
+   * Publish a sequence claimed from the ring buffer, recording the partition of its key first.
+   *
+   * @param key the partitioning key of the event.
+   * @param sequence claimed with {@link RingBuffer#next()}.
+   */
+  public void publish(final Object key, final long sequence) {
+    partitionIndex[(int) sequence & indexMask] = partitionFor(key);
+    ringBuffer.publish(sequence);
+  }
+
+  /**
+   * Publish an event to the partition owning the key.
+   *
+   * @param key the partitioning key of the event.
+   * @param eventTranslator the translator that will load data into the event.
+   */
+  public void publishEvent(final Object key, final EventTranslator<T> eventTranslator) {
+    final long sequence = ringBuffer.next();
+    try {
+      eventTranslator.translateTo(ringBuffer.get(sequence), sequence);
+    } finally {
+      publish(key, sequence);
+    }
+  }
+
+  /**
+   * Publish an event to the partition owning the key.
+   *
+   * @param <A> Class of the user supplied argument.
+   * @param key the partitioning key of the event.
+   * @param eventTranslator the translator that will load data into the event.
+   * @param arg A single argument to load into the event
+   */
+  public <A> void publishEvent(
+      final Object key, final EventTranslatorOneArg<T, A> eventTranslator, final A arg) {
+    final long sequence = ringBuffer.next();
+    try {
+      eventTranslator.translateTo(ringBuffer.get(sequence), sequence, arg);
+    } finally {
+      publish(key, sequence);
+    }
+  }
+
+  /**
+   * Get an array of {@link Sequence}s representing the progress of the workers.
+   *
+   * @return an array of {@link Sequence}s representing the progress of the workers.
+   */
+  public Sequence[] getWorkerSequences() {
+    final Sequence[] sequences = new Sequence[partitionProcessors.length];
+    for (int i = 0, size = partitionProcessors.length; i < size; i++) {
+      sequences[i] = partitionProcessors[i].getSequence();
+    }
+
+    return sequences;
+  }
+
+  /** Wait for the {@link RingBuffer} to drain of published events then halt the workers. */
+  public void drainAndHalt() {
+    Sequence[] workerSequences = getWorkerSequences();
+    while (ringBuffer.getCursor() > Util.getMinimumSequence(workerSequences)) {
+      Thread.yield();
+    }
+
+    halt();
+  }
+
+  /** Halt all workers immediately at the end of their current cycle. */
+  public void halt() {
+    for (PartitionProcessor<?> processor : partitionProcessors) {
+      processor.halt();
+    }
+
+    started.set(false);
+  }
+
+  public boolean isRunning() {
+    return started.get();
+  }
+
+  /**
+   * Start the worker pool processing events in sequence.
+   *
+   * @param executor providing threads for running the workers.
+   * @return the {@link RingBuffer} used for the work queue.
+   * @throws IllegalStateException if the pool has already been started and not halted yet
+   */
+  public RingBuffer<T> start(final Executor executor) {
+    if (!started.compareAndSet(false, true)) {
+      throw new IllegalStateException(
+          "PartitionedWorkerPool has already been started and cannot be restarted until halted.");
+    }
+
+    final long cursor = ringBuffer.getCursor();
+    for (PartitionProcessor<?> processor : partitionProcessors) {
+      processor.getSequence().set(cursor);
+      executor.execute(processor);
+    }
+
+    return ringBuffer;
+  }
+
+  /** Handles the events of one partition, found by scanning the partition index. */
+  private static final class PartitionProcessor<T> implements EventProcessor {
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final Sequence sequence = new Sequence(Sequencer.INITIAL_CURSOR_VALUE);
+    private final RingBuffer<T> ringBuffer;
+    private final SequenceBarrier sequenceBarrier;
+    private final WorkHandler<? super T> workHandler;
+    private final ExceptionHandler<? super T> exceptionHandler;
+    private final TimeoutHandler timeoutHandler;
+    private final int[] partitionIndex;
+    private final int indexMask;
+    private final int partition;
+
+    PartitionProcessor(
+        final RingBuffer<T> ringBuffer,
+        final SequenceBarrier sequenceBarrier,
+        final WorkHandler<? super T> workHandler,
+        final ExceptionHandler<? super T> exceptionHandler,
+        final int[] partitionIndex,
+        final int partition) {
+      this.ringBuffer = ringBuffer;
+      this.sequenceBarrier = sequenceBarrier;
+      this.workHandler = workHandler;
+      this.exceptionHandler = exceptionHandler;
+      this.partitionIndex = partitionIndex;
+      this.indexMask = partitionIndex.length - 1;
+      this.partition = partition;
+
+      timeoutHandler =
+          (workHandler instanceof TimeoutHandler) ? (TimeoutHandler) workHandler : null;
+    }
+
+    @Override
+    public Sequence getSequence() {
+      return sequence;
+    }
+
+    @Override
+    public void halt() {
+      running.set(false);
+      sequenceBarrier.alert();
+    }
+
+    @Override
+    public boolean isRunning() {
+      return running.get();
+    }
+
+    @Override
+    public void run() {
+      if (!running.compareAndSet(false, true)) {
+        throw new IllegalStateException("Thread is already running");
+      }
+      sequenceBarrier.clearAlert();
+
+      notifyStart();
+
+      T event = null;
+      long nextSequence = sequence.get() + 1L;
+      while (true) {
+        try {
+          final long availableSequence = sequenceBarrier.waitFor(nextSequence);
+
+          while (nextSequence <= availableSequence) {
+            // the index entry is visible as it is written before the sequence is published
+            if (partitionIndex[(int) nextSequence & indexMask] == partition) {
+              event = ringBuffer.get(nextSequence);
+              workHandler.onEvent(event);
+            }
+            nextSequence++;
+          }
+
+          sequence.set(availableSequence);
+          sequenceBarrier.signalProducers();
+        } catch (final TimeoutException e) {
+          notifyTimeout(sequence.get());
+        } catch (final AlertException ex) {
+          if (!running.get()) {
+            break;
+          }
+        } catch (final Throwable ex) {
+          exceptionHandler.handleEventException(ex, nextSequence, event);
+          sequence.set(nextSequence);
+          sequenceBarrier.signalProducers();
+          nextSequence++;
+        }
+      }
+
+      notifyShutdown();
+
+      running.set(false);
+    }
+
+    private void notifyStart() {
+      if (workHandler instanceof LifecycleAware) {
+        try {
+          ((LifecycleAware) workHandler).onStart();
+        } catch (final Throwable ex) {
+          exceptionHandler.handleOnStartException(ex);
+        }
+      }
+    }
+
+    private void notifyTimeout(final long availableSequence) {
+      try {
+        if (timeoutHandler != null) {
+          timeoutHandler.onTimeout(availableSequence);
+        }
+      } catch (Throwable e) {
+        exceptionHandler.handleEventException(e, availableSequence, null);
+      }
+    }
+
+    private void notifyShutdown() {
+      if (workHandler instanceof LifecycleAware) {
+        try {
+          ((LifecycleAware) workHandler).onShutdown();
+        } catch (final Throwable ex) {
+          exceptionHandler.handleOnShutdownException(ex);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2012 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Phased wait strategy for publishers waiting on a full ring buffer.
+ *
+ * <p>This strategy can be used when throughput and low-latency are not as important as CPU
+ * resource. Spins, then yields, then waits using the configured fallback ProducerWaitStrategy.
+ */
+public final class PhasedBackoffProducerWaitStrategy implements ProducerWaitStrategy {
+  private static final int SPIN_TRIES = 10000;
+  private final ProducerWaitStrategy fallbackStrategy;
+  private final long spinTimeoutNanos;
+  private final long yieldTimeoutNanos;
+
+  public PhasedBackoffProducerWaitStrategy(
+      long spinTimeout, long yieldTimeout, TimeUnit units, ProducerWaitStrategy fallbackStrategy) {
+    this.spinTimeoutNanos = units.toNanos(spinTimeout);
+    this.yieldTimeoutNanos = spinTimeoutNanos + units.toNanos(yieldTimeout);
+    this.fallbackStrategy = fallbackStrategy;
+  }
+
+  /**
+   * Construct {@link PhasedBackoffProducerWaitStrategy} with fallback to {@link
+   * BlockingProducerWaitStrategy}
+   *
+   * @param spinTimeout The maximum time in to busy spin for.
+   * @param yieldTimeout The maximum time in to yield for.
+   * @param units Time units used for the timeout values.
+   * @return The constructed wait strategy.
+   */
+  public static PhasedBackoffProducerWaitStrategy withLock(
+      long spinTimeout, long yieldTimeout, TimeUnit units) {
+    return new PhasedBackoffProducerWaitStrategy(
+        spinTimeout, yieldTimeout, units, new BlockingProducerWaitStrategy());
+  }
+
+  /**
+   * Construct {@link PhasedBackoffProducerWaitStrategy} with fallback to {@link
+   * SleepingProducerWaitStrategy}
+   *
+   * @param spinTimeout The maximum time in to busy spin for.
+   * @param yieldTimeout The maximum time in to yield for.
+   * @param units Time units used for the timeout values.
+   * @return The constructed wait strategy.
+   */
+  public static PhasedBackoffProducerWaitStrategy withSleep(
+      long spinTimeout, long yieldTimeout, TimeUnit units) {
+    return new PhasedBackoffProducerWaitStrategy(
+        spinTimeout, yieldTimeout, units, new SleepingProducerWaitStrategy());
+  }
+
+  @Override
+  public void signalAllWhenBlocking() {
+    fallbackStrategy.signalAllWhenBlocking();
+  }
+
+  @Override
+  public long waitFor(final long wrapPoint, final Sequence gatingSequence) {
+    long minSequence;
+    long startTime = 0;
+    int counter = SPIN_TRIES;
+
+    do {
+      if ((minSequence = gatingSequence.get()) >= wrapPoint) {
+        return minSequence;
+      }
+
+      if (0 == --counter) {
+        if (0 == startTime) {
+          startTime = System.nanoTime();
+        } else {
+          long timeDelta = System.nanoTime() - startTime;
+          if (timeDelta > yieldTimeoutNanos) {
+            return fallbackStrategy.waitFor(wrapPoint, gatingSequence);
+          } else if (timeDelta > spinTimeoutNanos) {
+            Thread.yield();
+          }
+        }
+        counter = SPIN_TRIES;
+      }
+    } while (true);
+  }
+
+  @Override
+  public long waitFor(final long wrapPoint, final Sequence gatingSequence, final long timeoutNanos)
+      throws TimeoutException {
+    long minSequence;
+    final long startTime = System.nanoTime();
+    int counter = SPIN_TRIES;
+
+    do {
+      if ((minSequence = gatingSequence.get()) >= wrapPoint) {
+        return minSequence;
+      }
+
+      if (0 == --counter || timeoutNanos <= 0) {
+        long timeDelta = System.nanoTime() - startTime;
+        if (timeDelta >= timeoutNanos) {
+          throw TimeoutException.INSTANCE;
+        } else if (timeDelta > yieldTimeoutNanos) {
+          return fallbackStrategy.waitFor(wrapPoint, gatingSequence, timeoutNanos - timeDelta);
+        } else if (timeDelta > spinTimeoutNanos) {
+          Thread.yield();
+        }
+        counter = SPIN_TRIES;
+      }
+    } while (true);
+  }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2012 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import com.lmax.disruptor.dsl.ProducerType;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Common sequencing functionality for the ring buffers that store primitive values directly in an
+ * array rather than in preallocated event objects.
+ *
+ * @see LongRingBuffer
+ * @see DoubleRingBuffer
+ */
+abstract class PrimitiveRingBuffer implements Cursored, Sequenced {
+  /** Number of elements either side of the data, keeps the values off the array header's line. */
+  static final int BUFFER_PAD = 16;
+
+  protected final int bufferSize;
+  protected final int indexMask;
+  protected final Sequencer sequencer;
+
+  PrimitiveRingBuffer(Sequencer sequencer) {
+    this.sequencer = sequencer;
+    this.bufferSize = sequencer.getBufferSize();
+    this.indexMask = bufferSize - 1;
+  }
+
+  static Sequencer newSequencer(
+      ProducerType producerType, int bufferSize, WaitStrategy waitStrategy) {
+    switch (producerType) {
+      case SINGLE:
+        return new SingleProducerSequencer(bufferSize, waitStrategy);
+      case MULTI:
+        return new MultiProducerSequencer(bufferSize, waitStrategy);
+      case MULTI_FETCH_AND_ADD:
+        return new MultiProducerSequencer(bufferSize, waitStrategy, true);
+      default:
+        throw new IllegalStateException(producerType.toString());
+    }
+  }
+
+  final int indexOf(long sequence) {
+    return BUFFER_PAD + ((int) sequence & indexMask);
+  }
+
+  /**
+   * Create a new SequenceBarrier to be used by an EventProcessor to track which values are
+   * available to be read from the ring buffer given a list of sequences to track.
+   *
+   * @param sequencesToTrack the additional sequences to track
+   * @return A sequence barrier that will track the specified sequences.
+   * @see SequenceBarrier
+   */
+  public SequenceBarrier newBarrier(Sequence... sequencesToTrack) {
+    return sequencer.newBarrier(sequencesToTrack);
+  }
+
+  /**
+   * Add the specified gating sequences to this ring buffer. They will safely and atomically added
+   * to the list of gating sequences.
+   *
+   * @param gatingSequences The sequences to add.
+   */
+  public void addGatingSequences(Sequence... gatingSequences) {
+    sequencer.addGatingSequences(gatingSequences);
+  }
+
+  /**
+   * Remove the specified sequence from this ring buffer.
+   *
+   * @param sequence to be removed.
+   * @return <tt>true</tt> if this sequence was found, <tt>false</tt> otherwise.
+   */
+  public boolean removeGatingSequence(Sequence sequence) {
+    return sequencer.removeGatingSequence(sequence);
+  }
+
+  /**
+   * Get the minimum sequence value from all of the gating sequences added to this ring buffer.
+   *
+   * @return The minimum gating sequence or the cursor sequence if no sequences have been added.
+   */
+  public long getMinimumGatingSequence() {
+    return sequencer.getMinimumSequence();
+  }
+
+  @Override
+  public long getCursor() {
+    return sequencer.getCursor();
+  }
+
+  @Override
+  public int getBufferSize() {
+    return bufferSize;
+  }
+
+  @Override
+  public boolean hasAvailableCapacity(int requiredCapacity) {
+    return sequencer.hasAvailableCapacity(requiredCapacity);
+  }
+
+  @Override
+  public long next() {
+    return sequencer.next();
+  }
+
+  @Override
+  public long next(int n) {
+    return sequencer.next(n);
+  }
+
+  @Override
+  public long next(int n, long timeout, TimeUnit unit) throws TimeoutException {
+    return sequencer.next(n, timeout, unit);
+  }
+
+  @Override
+  public long tryNext() throws InsufficientCapacityException {
+    return sequencer.tryNext();
+  }
+
+  @Override
+  public long tryNext(int n) throws InsufficientCapacityException {
+    return sequencer.tryNext(n);
+  }
+
+  @Override
+  public long tryClaim(int n) {
+    return sequencer.tryClaim(n);
+  }
+
+  @Override
+  public void publish(long sequence) {
+    sequencer.publish(sequence);
+  }
+
+  @Override
+  public void publish(long lo, long hi) {
+    sequencer.publish(lo, hi);
+  }
+
+  @Override
+  public long remainingCapacity() {
+    return sequencer.remainingCapacity();
+  }
+
+  final void checkBounds(int arrayLength, int offset, int length) {
+    if (offset < 0 || length < 1) {
+      throw new IllegalArgumentException(
+          "offset must not be negative and length must be positive but got: offset "
+              + offset
+              + " and length "
+              + length);
+    } else if (length > bufferSize) {
+      throw new IllegalArgumentException(
+          "The ring buffer cannot accommodate "
+              + length
+              + " it only has space for "
+              + bufferSize
+              + " entities.");
+    } else if (offset + length > arrayLength) {
+      throw new IllegalArgumentException(
+          "A length of: "
+              + length
+              + " with offset of: "
+              + offset
+              + " will overrun the available number of values: "
+              + (arrayLength - offset));
+    }
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName()
+        + "{"
+        + "bufferSize="
+        + bufferSize
+        + ", sequencer="
+        + sequencer
+        + "}";
+  }
+}
@@ -24,15 +24,18 @@ final class ProcessingSequenceBarrier implements SequenceBarrier {
   private final Sequence dependentSequence;
   private final Sequencer sequencer;
   private final WaitStrategy waitStrategy;
+  private final ProducerWaitStrategy producerWaitStrategy;
   private volatile boolean alerted = false;
 
   ProcessingSequenceBarrier(
       final Sequencer sequencer,
       final WaitStrategy waitStrategy,
+      final ProducerWaitStrategy producerWaitStrategy,
       final Sequence cursorSequence,
       final Sequence[] dependentSequences) {
     this.sequencer = sequencer;
     this.waitStrategy = waitStrategy;
+    this.producerWaitStrategy = producerWaitStrategy;
     this.cursorSequence = cursorSequence;
     if (0 == dependentSequences.length) {
       dependentSequence = cursorSequence;
@@ -69,6 +72,11 @@ final class ProcessingSequenceBarrier implements SequenceBarrier {
     return alerted;
   }
 
+  @Override
+  public void signalProducers() {
+    producerWaitStrategy.signalAllWhenBlocking();
+  }
+
   @Override
   public long waitFor(final long sequence)
       throws AlertException, InterruptedException, TimeoutException {
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2012 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+/**
+ * Strategy employed by a {@link Sequencer} for making a publisher wait for the gating sequences
+ * when the ring buffer is full.
+ *
+ * <p>The counterpart of {@link WaitStrategy} for the producer side: consumers advancing their
+ * sequence call {@link #signalAllWhenBlocking()} through {@link SequenceBarrier#signalProducers()}
+ * so that blocked publishers can be woken up.
+ */
+public interface ProducerWaitStrategy {
+  /**
+   * Wait until the minimum gating sequence has reached the given wrap point, i.e. until there is
+   * room in the ring buffer for the claimed sequences. Publishers cannot be alerted, so
+   * implementations must keep waiting and preserve the interrupt status of the thread.
+   *
+   * @param wrapPoint the sequence the minimum gating sequence must reach.
+   * @param gatingSequence view of the minimum of the gating sequences.
+   * @return the minimum gating sequence, which will be greater than or equal to the wrap point.
+   */
+  long waitFor(long wrapPoint, Sequence gatingSequence);
+
+  /**
+   * Wait until the minimum gating sequence has reached the given wrap point or the timeout has
+   * elapsed. A timeout that is not positive checks the gating sequences once.
+   *
+   * @param wrapPoint the sequence the minimum gating sequence must reach.
+   * @param gatingSequence view of the minimum of the gating sequences.
+   * @param timeoutNanos the longest time to wait, in nanoseconds.
+   * @return the minimum gating sequence, which will be greater than or equal to the wrap point.
+   * @throws TimeoutException if the wrap point was not reached in time.
+   */
+  long waitFor(long wrapPoint, Sequence gatingSequence, long timeoutNanos)
+      throws TimeoutException;
+
+  /** Implementations should signal the waiting publishers that the gating sequences have moved. */
+  void signalAllWhenBlocking();
+}
@@ -19,6 +19,8 @@ import com.lmax.disruptor.dsl.ProducerType;
 import com.lmax.disruptor.util.Util;
 import sun.misc.Unsafe;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * Ring based store of reusable entries containing the data representing an event being exchanged
  * between event producer and {@link EventProcessor}s.
@@ -58,11 +60,38 @@ public final class RingBuffer<E> extends RingBufferFields<E>
       EventFactory<E> factory,
       int bufferSize,
       WaitStrategy waitStrategy) {
+    return create(
+        producerType, factory, bufferSize, waitStrategy, new SleepingProducerWaitStrategy());
+  }
+
+  /**
+   * Create a new Ring Buffer with the specified producer type and the strategy publishers use to
+   * wait for space when the ring buffer is full.
+   *
+   * @param <E> Class of the event stored in the ring buffer.
+   * @param producerType producer type to use {@link ProducerType}.
+   * @param factory used to create events within the ring buffer.
+   * @param bufferSize number of elements to create within the ring buffer.
+   * @param waitStrategy used to determine how to wait for new elements to become available.
+   * @param producerWaitStrategy used to determine how publishers wait on a full ring buffer.
+   * @return a constructed ring buffer.
+   * @throws IllegalArgumentException if bufferSize is less than 1 or not a power of 2
+   */
+  public static <E> RingBuffer<E> create(
+      ProducerType producerType,
+      EventFactory<E> factory,
+      int bufferSize,
+      WaitStrategy waitStrategy,
+      ProducerWaitStrategy producerWaitStrategy) {
     switch (producerType) {
       case SINGLE:
-        return createSingleProducer(factory, bufferSize, waitStrategy);
+        return createSingleProducer(factory, bufferSize, waitStrategy, producerWaitStrategy);
       case MULTI:
-        return createMultiProducer(factory, bufferSize, waitStrategy);
+        return createMultiProducer(factory, bufferSize, waitStrategy, producerWaitStrategy);
+      case MULTI_FETCH_AND_ADD:
+        return new RingBuffer<E>(
+            factory,
+            new MultiProducerSequencer(bufferSize, waitStrategy, producerWaitStrategy, true));
       default:
         throw new IllegalStateException(producerType.toString());
     }
@@ -101,6 +130,29 @@ public final class RingBuffer<E> extends RingBufferFields<E>
     return new RingBuffer<E>(factory, sequencer);
   }
 
+  /**
+   * Create a new multiple producer RingBuffer with the specified wait strategies.
+   *
+   * @param <E> Class of the event stored in the ring buffer.
+   * @param factory used to create the events within the ring buffer.
+   * @param bufferSize number of elements to create within the ring buffer.
+   * @param waitStrategy used to determine how to wait for new elements to become available.
+   * @param producerWaitStrategy used to determine how publishers wait on a full ring buffer.
+   * @return a constructed ring buffer.
+   * @throws IllegalArgumentException if bufferSize is less than 1 or not a power of 2
+   * @see MultiProducerSequencer
+   */
+  public static <E> RingBuffer<E> createMultiProducer(
+      EventFactory<E> factory,
+      int bufferSize,
+      WaitStrategy waitStrategy,
+      ProducerWaitStrategy producerWaitStrategy) {
+    MultiProducerSequencer sequencer =
+        new MultiProducerSequencer(bufferSize, waitStrategy, producerWaitStrategy, false);
+
+    return new RingBuffer<E>(factory, sequencer);
+  }
+
   /**
    * Create a new single producer RingBuffer using the default wait strategy {@link
    * BlockingWaitStrategy}.
@@ -134,6 +186,49 @@ public final class RingBuffer<E> extends RingBufferFields<E>
     return new RingBuffer<E>(factory, sequencer);
   }
 
+  /**
+   * Create a new single producer RingBuffer with the specified wait strategies.
+   *
+   * @param <E> Class of the event stored in the ring buffer.
+   * @param factory used to create the events within the ring buffer.
+   * @param bufferSize number of elements to create within the ring buffer.
+   * @param waitStrategy used to determine how to wait for new elements to become available.
+   * @param producerWaitStrategy used to determine how the publisher waits on a full ring buffer.
+   * @return a constructed ring buffer.
+   * @throws IllegalArgumentException if bufferSize is less than 1 or not a power of 2
+   * @see SingleProducerSequencer
+   */
+  public static <E> RingBuffer<E> createSingleProducer(
+      EventFactory<E> factory,
+      int bufferSize,
+      WaitStrategy waitStrategy,
+      ProducerWaitStrategy producerWaitStrategy) {
+    SingleProducerSequencer sequencer =
+        new SingleProducerSequencer(bufferSize, waitStrategy, producerWaitStrategy);
+
+    return new RingBuffer<E>(factory, sequencer);
+  }
+
+  /**
+   * Create a new single producer RingBuffer whose publisher never waits for its consumers, instead
+   * overwriting events they have not read yet. Consume it with an {@link
+   * OverwritingEventProcessor}, which detects being lapped and skips ahead.
+   *
+   * @param <E> Class of the event stored in the ring buffer.
+   * @param factory used to create the events within the ring buffer.
+   * @param bufferSize number of elements to create within the ring buffer.
+   * @param waitStrategy used to determine how to wait for new elements to become available.
+   * @return a constructed ring buffer.
+   * @throws IllegalArgumentException if bufferSize is less than 1 or not a power of 2
+   * @see OverwritingSequencer
+   */
+  public static <E> RingBuffer<E> createOverwriting(
+      EventFactory<E> factory, int bufferSize, WaitStrategy waitStrategy) {
+    OverwritingSequencer sequencer = new OverwritingSequencer(bufferSize, waitStrategy);
+
+    return new RingBuffer<E>(factory, sequencer);
+  }
+
   /**
    * Add the specified gating sequences to this instance of the Disruptor. They will safely and
    * atomically added to the list of gating sequences.
@@ -144,6 +239,20 @@ public final class RingBuffer<E> extends RingBufferFields<E>
     sequencer.addGatingSequences(gatingSequences);
   }
 
+  /**
+   * Add a gating sequence that starts at a given value rather than at the cursor, for a consumer
+   * that is added while publishing is in progress.
+   *
+   * @param gatingSequence The sequence to add.
+   * @param initialValue The value the sequence starts at.
+   * @return <tt>true</tt> if the sequence was added, <tt>false</tt> if events after <code>
+   *     initialValue</code> may already have been overwritten.
+   * @see Sequencer#addGatingSequence(Sequence, long)
+   */
+  public boolean addGatingSequence(Sequence gatingSequence, long initialValue) {
+    return sequencer.addGatingSequence(gatingSequence, initialValue);
+  }
+
   /**
    * Sets the cursor to a specific sequence and returns the preallocated entry that is stored there.
    * This can cause a data race and should only be done in controlled circumstances, e.g. during
@@ -232,6 +341,24 @@ public final class RingBuffer<E> extends RingBufferFields<E>
     return sequencer.next(n);
   }
 
+  /**
+   * The same functionality as {@link RingBuffer#next(int)}, but gives up if the space in the ring
+   * buffer does not become available within the given time, so that publishers can bound their
+   * latency and shed load.
+   *
+   * @param n number of slots to claim
+   * @param timeout how long to wait before giving up, in units of <code>unit</code>
+   * @param unit the time unit of the <code>timeout</code> argument
+   * @return sequence number of the highest slot claimed
+   * @throws TimeoutException if the necessary space in the ring buffer did not become available in
+   *     time, no slot has been claimed in that case
+   * @see Sequencer#next(int, long, TimeUnit)
+   */
+  @Override
+  public long next(int n, long timeout, TimeUnit unit) throws TimeoutException {
+    return sequencer.next(n, timeout, unit);
+  }
+
   /**
    * Publish the specified sequence. This action marks this particular message as being available to
    * be read.
@@ -307,6 +434,19 @@ public final class RingBuffer<E> extends RingBufferFields<E>
     return sequencer.tryNext(n);
   }
 
+  /**
+   * The same functionality as {@link RingBuffer#tryNext(int)}, but signals that the ring buffer is
+   * full by returning {@link Sequenced#INSUFFICIENT_CAPACITY} rather than throwing.
+   *
+   * @param n number of slots to claim
+   * @return sequence number of the highest slot claimed or {@link
+   *     Sequenced#INSUFFICIENT_CAPACITY}
+   */
+  @Override
+  public long tryClaim(int n) {
+    return sequencer.tryClaim(n);
+  }
+
   /**
    * Get the current cursor value for the ring buffer. The actual value received will depend on the
    * type of {@link Sequencer} that is being used.
@@ -534,13 +674,13 @@ public final class RingBuffer<E> extends RingBufferFields<E>
    */
   @Override
   public boolean tryPublishEvent(EventTranslator<E> translator) {
-    try {
-      final long sequence = sequencer.tryNext();
-      translateAndPublish(translator, sequence);
-      return true;
-    } catch (InsufficientCapacityException e) {
+    final long sequence = sequencer.tryClaim(1);
+    if (sequence < 0) {
       return false;
     }
+
+    translateAndPublish(translator, sequence);
+    return true;
   }
 
   /**
@@ -549,13 +689,13 @@ public final class RingBuffer<E> extends RingBufferFields<E>
    */
   @Override
   public <A> boolean tryPublishEvent(EventTranslatorOneArg<E, A> translator, A arg0) {
-    try {
-      final long sequence = sequencer.tryNext();
-      translateAndPublish(translator, sequence, arg0);
-      return true;
-    } catch (InsufficientCapacityException e) {
+    final long sequence = sequencer.tryClaim(1);
+    if (sequence < 0) {
       return false;
     }
+
+    translateAndPublish(translator, sequence, arg0);
+    return true;
   }
 
   /**
@@ -565,13 +705,13 @@ public final class RingBuffer<E> extends RingBufferFields<E>
    */
   @Override
   public <A, B> boolean tryPublishEvent(EventTranslatorTwoArg<E, A, B> translator, A arg0, B arg1) {
-    try {
-      final long sequence = sequencer.tryNext();
-      translateAndPublish(translator, sequence, arg0, arg1);
-      return true;
-    } catch (InsufficientCapacityException e) {
+    final long sequence = sequencer.tryClaim(1);
+    if (sequence < 0) {
       return false;
     }
+
+    translateAndPublish(translator, sequence, arg0, arg1);
+    return true;
   }
 
   /**
@@ -582,25 +722,111 @@ public final class RingBuffer<E> extends RingBufferFields<E>
   @Override
   public <A, B, C> boolean tryPublishEvent(
       EventTranslatorThreeArg<E, A, B, C> translator, A arg0, B arg1, C arg2) {
+    final long sequence = sequencer.tryClaim(1);
+    if (sequence < 0) {
+      return false;
+    }
+
+    translateAndPublish(translator, sequence, arg0, arg1, arg2);
+    return true;
+  }
+
+  /**
+   * @see EventSink#tryPublishEvent(EventTranslatorVararg, Object...)
+   */
+  @Override
+  public boolean tryPublishEvent(EventTranslatorVararg<E> translator, Object... args) {
+    final long sequence = sequencer.tryClaim(1);
+    if (sequence < 0) {
+      return false;
+    }
+
+    translateAndPublish(translator, sequence, args);
+    return true;
+  }
+
+  /**
+   * @see EventSink#tryPublishEvent(EventTranslator, long, TimeUnit)
+   */
+  @Override
+  public boolean tryPublishEvent(EventTranslator<E> translator, long timeout, TimeUnit unit) {
+    try {
+      final long sequence = sequencer.next(1, timeout, unit);
+      translateAndPublish(translator, sequence);
+      return true;
+    } catch (TimeoutException e) {
+      return false;
+    }
+  }
+
+  /**
+   * @see EventSink#tryPublishEvent(EventTranslatorOneArg, Object, long, TimeUnit)
+   *     com.lmax.disruptor.EventSink#tryPublishEvent(com.lmax.disruptor.EventTranslatorOneArg, A,
+   *     long, java.util.concurrent.TimeUnit)
+   */
+  @Override
+  public <A> boolean tryPublishEvent(
+      EventTranslatorOneArg<E, A> translator, A arg0, long timeout, TimeUnit unit) {
+    try {
+      final long sequence = sequencer.next(1, timeout, unit);
+      translateAndPublish(translator, sequence, arg0);
+      return true;
+    } catch (TimeoutException e) {
+      return false;
+    }
+  }
+
+  /**
+   * @see EventSink#tryPublishEvent(EventTranslatorTwoArg, Object, Object, long, TimeUnit)
+   *     com.lmax.disruptor.EventSink#tryPublishEvent(com.lmax.disruptor.EventTranslatorTwoArg, A,
+   *     B, long, java.util.concurrent.TimeUnit)
+   */
+  @Override
+  public <A, B> boolean tryPublishEvent(
+      EventTranslatorTwoArg<E, A, B> translator, A arg0, B arg1, long timeout, TimeUnit unit) {
     try {
-      final long sequence = sequencer.tryNext();
+      final long sequence = sequencer.next(1, timeout, unit);
+      translateAndPublish(translator, sequence, arg0, arg1);
+      return true;
+    } catch (TimeoutException e) {
+      return false;
+    }
+  }
+
+  /**
+   * @see EventSink#tryPublishEvent(EventTranslatorThreeArg, Object, Object, Object, long,
+   *     TimeUnit) com.lmax.disruptor.EventSink#tryPublishEvent(
+   *     com.lmax.disruptor.EventTranslatorThreeArg, A, B, C, long, java.util.concurrent.TimeUnit)
+   */
+  @Override
+  public <A, B, C> boolean tryPublishEvent(
+      EventTranslatorThreeArg<E, A, B, C> translator,
+      A arg0,
+      B arg1,
+      C arg2,
+      long timeout,
+      TimeUnit unit) {
+    try {
+      final long sequence = sequencer.next(1, timeout, unit);
       translateAndPublish(translator, sequence, arg0, arg1, arg2);
       return true;
-    } catch (InsufficientCapacityException e) {
+    } catch (TimeoutException e) {
       return false;
     }
   }
 
   /**
-   * @see EventSink#tryPublishEvent(EventTranslatorVararg, Object...)
+   * @see EventSink#tryPublishEvents(EventTranslator[], long, TimeUnit)
    */
   @Override
-  public boolean tryPublishEvent(EventTranslatorVararg<E> translator, Object... args) {
+  public boolean tryPublishEvents(
+      EventTranslator<E>[] translators, long timeout, TimeUnit unit) {
+    checkBounds(translators, 0, translators.length);
     try {
-      final long sequence = sequencer.tryNext();
-      translateAndPublish(translator, sequence, args);
+      final long finalSequence = sequencer.next(translators.length, timeout, unit);
+      translateAndPublishBatch(translators, 0, translators.length, finalSequence);
       return true;
-    } catch (InsufficientCapacityException e) {
+    } catch (TimeoutException e) {
       return false;
     }
   }
@@ -620,13 +846,13 @@ public final class RingBuffer<E> extends RingBufferFields<E>
   public boolean tryPublishEvents(
       EventTranslator<E>[] translators, int batchStartsAt, int batchSize) {
     checkBounds(translators, batchStartsAt, batchSize);
-    try {
-      final long finalSequence = sequencer.tryNext(batchSize);
-      translateAndPublishBatch(translators, batchStartsAt, batchSize, finalSequence);
-      return true;
-    } catch (InsufficientCapacityException e) {
+    final long finalSequence = sequencer.tryClaim(batchSize);
+    if (finalSequence < 0) {
       return false;
     }
+
+    translateAndPublishBatch(translators, batchStartsAt, batchSize, finalSequence);
+    return true;
   }
 
   /**
@@ -648,13 +874,13 @@ public final class RingBuffer<E> extends RingBufferFields<E>
   public <A> boolean tryPublishEvents(
       EventTranslatorOneArg<E, A> translator, int batchStartsAt, int batchSize, A[] arg0) {
     checkBounds(arg0, batchStartsAt, batchSize);
-    try {
-      final long finalSequence = sequencer.tryNext(batchSize);
-      translateAndPublishBatch(translator, arg0, batchStartsAt, batchSize, finalSequence);
-      return true;
-    } catch (InsufficientCapacityException e) {
+    final long finalSequence = sequencer.tryClaim(batchSize);
+    if (finalSequence < 0) {
       return false;
     }
+
+    translateAndPublishBatch(translator, arg0, batchStartsAt, batchSize, finalSequence);
+    return true;
   }
 
   /**
@@ -681,13 +907,13 @@ public final class RingBuffer<E> extends RingBufferFields<E>
       A[] arg0,
       B[] arg1) {
     checkBounds(arg0, arg1, batchStartsAt, batchSize);
-    try {
-      final long finalSequence = sequencer.tryNext(batchSize);
-      translateAndPublishBatch(translator, arg0, arg1, batchStartsAt, batchSize, finalSequence);
-      return true;
-    } catch (InsufficientCapacityException e) {
+    final long finalSequence = sequencer.tryClaim(batchSize);
+    if (finalSequence < 0) {
       return false;
     }
+
+    translateAndPublishBatch(translator, arg0, arg1, batchStartsAt, batchSize, finalSequence);
+    return true;
   }
 
   /**
@@ -716,14 +942,13 @@ public final class RingBuffer<E> extends RingBufferFields<E>
       B[] arg1,
       C[] arg2) {
     checkBounds(arg0, arg1, arg2, batchStartsAt, batchSize);
-    try {
-      final long finalSequence = sequencer.tryNext(batchSize);
-      translateAndPublishBatch(
-          translator, arg0, arg1, arg2, batchStartsAt, batchSize, finalSequence);
-      return true;
-    } catch (InsufficientCapacityException e) {
+    final long finalSequence = sequencer.tryClaim(batchSize);
+    if (finalSequence < 0) {
       return false;
     }
+
+    translateAndPublishBatch(translator, arg0, arg1, arg2, batchStartsAt, batchSize, finalSequence);
+    return true;
   }
 
   /**
@@ -741,13 +966,157 @@ public final class RingBuffer<E> extends RingBufferFields<E>
   public boolean tryPublishEvents(
       EventTranslatorVararg<E> translator, int batchStartsAt, int batchSize, Object[]... args) {
     checkBounds(args, batchStartsAt, batchSize);
-    try {
-      final long finalSequence = sequencer.tryNext(batchSize);
-      translateAndPublishBatch(translator, batchStartsAt, batchSize, finalSequence, args);
-      return true;
-    } catch (InsufficientCapacityException e) {
+    final long finalSequence = sequencer.tryClaim(batchSize);
+    if (finalSequence < 0) {
       return false;
     }
+
+    translateAndPublishBatch(translator, batchStartsAt, batchSize, finalSequence, args);
+    return true;
+  }
+
+  /**
+   * @see EventSink#tryPublishEventsPartial(EventTranslator[], int, int)
+   */
+  @Override
+  public int tryPublishEventsPartial(
+      EventTranslator<E>[] translators, int batchStartsAt, int batchSize) {
+    checkBounds(translators, batchStartsAt, batchSize);
+    if (batchSize == 0) {
+      return 0;
+    }
+
+    int size = batchSize;
+    long finalSequence;
+    while ((finalSequence = sequencer.tryClaim(size)) == INSUFFICIENT_CAPACITY) {
+      if ((size = shrinkClaim(size)) < 1) {
+        return 0;
+      }
+    }
+
+    translateAndPublishBatch(translators, batchStartsAt, size, finalSequence);
+    return size;
+  }
+
+  /**
+   * @see EventSink#tryPublishEventsPartial(EventTranslatorOneArg, int, int, Object[])
+   *     com.lmax.disruptor.EventSink#tryPublishEventsPartial(
+   *     com.lmax.disruptor.EventTranslatorOneArg, int, int, A[])
+   */
+  @Override
+  public <A> int tryPublishEventsPartial(
+      EventTranslatorOneArg<E, A> translator, int batchStartsAt, int batchSize, A[] arg0) {
+    checkBounds(arg0, batchStartsAt, batchSize);
+    if (batchSize == 0) {
+      return 0;
+    }
+
+    int size = batchSize;
+    long finalSequence;
+    while ((finalSequence = sequencer.tryClaim(size)) == INSUFFICIENT_CAPACITY) {
+      if ((size = shrinkClaim(size)) < 1) {
+        return 0;
+      }
+    }
+
+    translateAndPublishBatch(
+        translator, arg0, batchStartsAt, size, finalSequence);
+    return size;
+  }
+
+  /**
+   * @see EventSink#tryPublishEventsPartial(EventTranslatorTwoArg, int, int, Object[], Object[])
+   *     com.lmax.disruptor.EventSink#tryPublishEventsPartial(
+   *     com.lmax.disruptor.EventTranslatorTwoArg, int, int, A[], B[])
+   */
+  @Override
+  public <A, B> int tryPublishEventsPartial(
+      EventTranslatorTwoArg<E, A, B> translator,
+      int batchStartsAt,
+      int batchSize,
+      A[] arg0,
+      B[] arg1) {
+    checkBounds(arg0, arg1, batchStartsAt, batchSize);
+    if (batchSize == 0) {
+      return 0;
+    }
+
+    int size = batchSize;
+    long finalSequence;
+    while ((finalSequence = sequencer.tryClaim(size)) == INSUFFICIENT_CAPACITY) {
+      if ((size = shrinkClaim(size)) < 1) {
+        return 0;
+      }
+    }
+
+    translateAndPublishBatch(
+        translator, arg0, arg1, batchStartsAt, size, finalSequence);
+    return size;
+  }
+
+  /**
+   * @see EventSink#tryPublishEventsPartial(EventTranslatorThreeArg, int, int, Object[], Object[],
+   *     Object[]) com.lmax.disruptor.EventSink#tryPublishEventsPartial(
+   *     com.lmax.disruptor.EventTranslatorThreeArg, int, int, A[], B[], C[])
+   */
+  @Override
+  public <A, B, C> int tryPublishEventsPartial(
+      EventTranslatorThreeArg<E, A, B, C> translator,
+      int batchStartsAt,
+      int batchSize,
+      A[] arg0,
+      B[] arg1,
+      C[] arg2) {
+    checkBounds(arg0, arg1, arg2, batchStartsAt, batchSize);
+    if (batchSize == 0) {
+      return 0;
+    }
+
+    int size = batchSize;
+    long finalSequence;
+    while ((finalSequence = sequencer.tryClaim(size)) == INSUFFICIENT_CAPACITY) {
+      if ((size = shrinkClaim(size)) < 1) {
+        return 0;
+      }
+    }
+
+    translateAndPublishBatch(
+        translator, arg0, arg1, arg2, batchStartsAt, size, finalSequence);
+    return size;
+  }
+
+  /**
+   * @see EventSink#tryPublishEventsPartial(EventTranslatorVararg, int, int, Object[][])
+   */
+  @Override
+  public int tryPublishEventsPartial(
+      EventTranslatorVararg<E> translator, int batchStartsAt, int batchSize, Object[]... args) {
+    checkBounds(batchStartsAt, batchSize, args);
+    if (batchSize == 0) {
+      return 0;
+    }
+
+    int size = batchSize;
+    long finalSequence;
+    while ((finalSequence = sequencer.tryClaim(size)) == INSUFFICIENT_CAPACITY) {
+      if ((size = shrinkClaim(size)) < 1) {
+        return 0;
+      }
+    }
+
+    translateAndPublishBatch(translator, batchStartsAt, size, finalSequence, args);
+    return size;
+  }
+
+  /**
+   * The size to try next after failing to claim <code>size</code> sequences, no more than the
+   * remaining capacity.
+   *
+   * @param size the number of sequences that could not be claimed.
+   * @return the smaller size to claim, less than 1 if the ring buffer is full.
+   */
+  private int shrinkClaim(final int size) {
+    return (int) Math.min(size - 1, sequencer.remainingCapacity());
   }
 
   private void checkBounds(final int batchStartsAt, final int batchSize, final Object[][] args) {
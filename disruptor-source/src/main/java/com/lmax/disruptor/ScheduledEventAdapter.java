@@ -0,0 +1,42 @@
+/*
+ * Copyright 2012 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+/**
+ * Tells a {@link TimerWheelEventProcessor} when an event is due and how to copy it, so it can be
+ * held in the processor's preallocated wheel and later published to the target ring buffer without
+ * allocating.
+ *
+ * @param <E> event implementation storing the data for sharing during exchange or parallel
+ *     coordination of an event.
+ */
+public interface ScheduledEventAdapter<E> {
+  /**
+   * The time the event is due, on the {@link System#nanoTime()} clock.
+   *
+   * @param event the scheduled event.
+   * @return the deadline of the event in nanoseconds.
+   */
+  long getDeadline(E event);
+
+  /**
+   * Copy the data of one event into another.
+   *
+   * @param source the event to copy from.
+   * @param destination the event to copy into.
+   */
+  void copy(E source, E destination);
+}
@@ -32,8 +32,11 @@ class RhsPadding extends Value {
  *
  * <p>Also attempts to be more efficient with regards to false sharing by adding padding around the
  * volatile field.
+ *
+ * <p>On Java 9 and later the multi-release jar replaces this class with a version in <code>
+ * src/main/java9</code> that uses a <code>VarHandle</code>, the two must be kept in step.
  */
-public class Sequence extends RhsPadding {
+public class Sequence extends RhsPadding implements AtomicSequence {
   static final long INITIAL_VALUE = -1L;
   private static final Unsafe UNSAFE;
   private static final long VALUE_OFFSET;
@@ -77,15 +80,17 @@ public class Sequence extends RhsPadding {
    * @return The value after the increment.
    */
   public long addAndGet(final long increment) {
-    long currentValue;
-    long newValue;
-
-    do {
-      currentValue = get();
-      newValue = currentValue + increment;
-    } while (!compareAndSet(currentValue, newValue));
+    return UNSAFE.getAndAddLong(this, VALUE_OFFSET, increment) + increment;
+  }
 
-    return newValue;
+  /**
+   * Atomically add the supplied value with a single fetch-and-add instruction, never retrying.
+   *
+   * @param increment The value to add to the sequence.
+   * @return The value before the increment.
+   */
+  public long getAndAdd(final long increment) {
+    return UNSAFE.getAndAddLong(this, VALUE_OFFSET, increment);
   }
 
   /**
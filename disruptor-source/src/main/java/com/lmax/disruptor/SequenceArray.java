@@ -0,0 +1,241 @@
+/*
+ * Copyright 2012 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import com.lmax.disruptor.util.Util;
+import sun.misc.Unsafe;
+
+import java.util.Arrays;
+
+/**
+ * A fixed number of sequences packed into a single <code>long[]</code>, one value per 128 bytes.
+ *
+ * <p>Each {@link Sequence} pays for 15 longs of padding to stay clear of false sharing, which adds
+ * up with hundreds of processors. Here each value is kept as far from its neighbours as the value
+ * of a {@link Sequence} is, but the array is contiguous and padded only at its ends, and {@link
+ * #getMinimumSequence(long)} scans it with a fixed stride instead of following one reference per
+ * sequence.
+ *
+ * <p>Each sequence can be read and written through the {@link AtomicSequence} returned by {@link
+ * #getSequence(int)}, which holds no value of its own. To wait on the whole array, for example in
+ * a {@link SequenceBarrier}, use a {@link FixedSequenceGroup}.
+ */
+public final class SequenceArray {
+  private static final Unsafe UNSAFE = Util.getUnsafe();
+  private static final int STRIDE_SHIFT = 4;
+  private static final int PAD = 128 / 8;
+  private static final long BASE = UNSAFE.arrayBaseOffset(long[].class) + (PAD << 3);
+
+  private final long[] values;
+  private final int size;
+  private final Slot[] views;
+
+  /**
+   * Create an array of sequences, each initialised to -1.
+   *
+   * @param size number of sequences held.
+   */
+  public SequenceArray(final int size) {
+    this(size, Sequence.INITIAL_VALUE);
+  }
+
+  /**
+   * Create an array of sequences with a specified initial value.
+   *
+   * @param size number of sequences held.
+   * @param initialValue the initial value of every sequence.
+   */
+  public SequenceArray(final int size, final long initialValue) {
+    if (size < 1) {
+      throw new IllegalArgumentException("size must not be less than 1");
+    }
+
+    this.size = size;
+    this.values = new long[(size << STRIDE_SHIFT) + 2 * PAD];
+    this.views = new Slot[size];
+    for (int i = 0; i < size; i++) {
+      values[PAD + (i << STRIDE_SHIFT)] = initialValue;
+    }
+    UNSAFE.storeFence();
+  }
+
+  /**
+   * The number of sequences held.
+   *
+   * @return the number of sequences.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Perform a volatile read of a sequence.
+   *
+   * @param index of the sequence.
+   * @return the current value of the sequence.
+   */
+  public long get(final int index) {
+    return UNSAFE.getLongVolatile(values, offset(index));
+  }
+
+  /**
+   * Perform an ordered write of a sequence.
+   *
+   * @param index of the sequence.
+   * @param value the new value for the sequence.
+   */
+  public void set(final int index, final long value) {
+    UNSAFE.putOrderedLong(values, offset(index), value);
+  }
+
+  /**
+   * Perform a volatile write of a sequence.
+   *
+   * @param index of the sequence.
+   * @param value the new value for the sequence.
+   */
+  public void setVolatile(final int index, final long value) {
+    UNSAFE.putLongVolatile(values, offset(index), value);
+  }
+
+  /**
+   * Perform a compare and set operation on a sequence.
+   *
+   * @param index of the sequence.
+   * @param expectedValue the expected current value.
+   * @param newValue the value to update to.
+   * @return true if the operation succeeds, false otherwise.
+   */
+  public boolean compareAndSet(final int index, final long expectedValue, final long newValue) {
+    return UNSAFE.compareAndSwapLong(values, offset(index), expectedValue, newValue);
+  }
+
+  /**
+   * Atomically add the supplied value to a sequence.
+   *
+   * @param index of the sequence.
+   * @param increment the value to add.
+   * @return the value before the increment.
+   */
+  public long getAndAdd(final int index, final long increment) {
+    return UNSAFE.getAndAddLong(values, offset(index), increment);
+  }
+
+  /**
+   * Get the minimum value held, reading every sequence with a volatile load.
+   *
+   * @param minimum an initial default minimum.
+   * @return the smaller of the minimum sequence value held and {@code minimum}.
+   */
+  public long getMinimumSequence(long minimum) {
+    final long[] values = this.values;
+    for (int i = 0; i < size; i++) {
+      final long value = UNSAFE.getLongVolatile(values, BASE + ((long) i << (STRIDE_SHIFT + 3)));
+      minimum = Math.min(minimum, value);
+    }
+
+    return minimum;
+  }
+
+  /**
+   * Get a view of one of the sequences, for the processor that advances it. The same view is
+   * returned for the same index.
+   *
+   * @param index of the sequence.
+   * @return a sequence reading and writing the value held at {@code index}.
+   */
+  public synchronized AtomicSequence getSequence(final int index) {
+    checkIndex(index);
+    Slot view = views[index];
+    if (null == view) {
+      view = new Slot(this, index);
+      views[index] = view;
+    }
+
+    return view;
+  }
+
+  @Override
+  public String toString() {
+    final long[] copy = new long[size];
+    for (int i = 0; i < size; i++) {
+      copy[i] = get(i);
+    }
+
+    return Arrays.toString(copy);
+  }
+
+  private long offset(final int index) {
+    checkIndex(index);
+    return BASE + ((long) index << (STRIDE_SHIFT + 3));
+  }
+
+  private void checkIndex(final int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+    }
+  }
+
+  private static final class Slot implements AtomicSequence {
+    private final SequenceArray array;
+    private final int index;
+
+    Slot(final SequenceArray array, final int index) {
+      this.array = array;
+      this.index = index;
+    }
+
+    @Override
+    public long incrementAndGet() {
+      return addAndGet(1L);
+    }
+
+    @Override
+    public long addAndGet(final long increment) {
+      return array.getAndAdd(index, increment) + increment;
+    }
+
+    @Override
+    public long getAndAdd(final long increment) {
+      return array.getAndAdd(index, increment);
+    }
+
+    @Override
+    public long get() {
+      return array.get(index);
+    }
+
+    @Override
+    public boolean compareAndSet(final long expectedValue, final long newValue) {
+      return array.compareAndSet(index, expectedValue, newValue);
+    }
+
+    @Override
+    public void set(final long value) {
+      array.set(index, value);
+    }
+
+    @Override
+    public void setVolatile(final long value) {
+      array.setVolatile(index, value);
+    }
+
+    @Override
+    public String toString() {
+      return Long.toString(get());
+    }
+  }
+}
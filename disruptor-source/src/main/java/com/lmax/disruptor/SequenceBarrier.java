@@ -47,6 +47,13 @@ public interface SequenceBarrier {
    */
   boolean isAlerted();
 
+  /**
+   * Notify publishers blocked on a full ring buffer that a consumer has advanced its sequence, see
+   * {@link ProducerWaitStrategy#signalAllWhenBlocking()}. Does nothing by default, for barriers
+   * that are not backed by a sequencer.
+   */
+  default void signalProducers() {}
+
   /**
    * Wait for the given sequence to be available for consumption.
    *
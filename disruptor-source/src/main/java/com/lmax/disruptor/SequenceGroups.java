@@ -15,6 +15,8 @@
  */
 package com.lmax.disruptor;
 
+import com.lmax.disruptor.util.Util;
+
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 import static java.util.Arrays.copyOf;
@@ -48,6 +50,32 @@ class SequenceGroups {
     }
   }
 
+  static <T> boolean addSequence(
+      final T holder,
+      final AtomicReferenceFieldUpdater<T, Sequence[]> updater,
+      final Cursored cursor,
+      final Sequence sequenceToAdd,
+      final long initialValue) {
+    Sequence[] updatedSequences;
+    Sequence[] currentSequences;
+
+    sequenceToAdd.set(initialValue);
+    do {
+      currentSequences = updater.get(holder);
+      updatedSequences = copyOf(currentSequences, currentSequences.length + 1);
+      updatedSequences[currentSequences.length] = sequenceToAdd;
+    } while (!updater.compareAndSet(holder, currentSequences, updatedSequences));
+
+    // Producers that have not yet seen the new sequence are held back by the ones already there,
+    // read only after the new sequence is visible so that none can have run further ahead.
+    if (initialValue < Util.getMinimumSequence(currentSequences, cursor.getCursor())) {
+      removeSequence(holder, updater, sequenceToAdd);
+      return false;
+    }
+
+    return true;
+  }
+
   static <T> boolean removeSequence(
       final T holder,
       final AtomicReferenceFieldUpdater<T, Sequence[]> sequenceUpdater,
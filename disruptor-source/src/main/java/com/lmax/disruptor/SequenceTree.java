@@ -0,0 +1,245 @@
+/*
+ * Copyright 2012 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+/**
+ * Hides a large, fixed group of sequences behind a single Sequence whose value is kept up to date
+ * by the consumers as they advance, rather than computed by the producer.
+ *
+ * <p>A producer gated on many sequences scans every one of them whenever its cached gating value
+ * runs out. Here the sequences are the leaves of a tree with a fan-out of 8, each inner node holds
+ * the minimum of its children and a consumer that advances its leaf recomputes only the nodes on
+ * its path to the root, stopping as soon as a node does not move. The producer reads the root, so
+ * its cost does not grow with the number of consumers. Add the tree as the only gating sequence
+ * and give each consumer one of the leaves from {@link #getSequence(int)}, for example through
+ * {@link BatchEventProcessor#BatchEventProcessor(DataProvider, SequenceBarrier, EventHandler,
+ * Sequence)}.
+ *
+ * <p>Leaves must only move forward once the tree is gating a ring buffer. Setting a leaf is a
+ * volatile write, so that two consumers finishing at once cannot both miss each other's update.
+ */
+public final class SequenceTree extends Sequence {
+  private static final int FAN_OUT_SHIFT = 3;
+  private static final int FAN_OUT = 1 << FAN_OUT_SHIFT;
+
+  private final SequenceArray[] levels;
+  private final SequenceArray root;
+  private final Sequence[] leafViews;
+
+  /**
+   * Create a tree of sequences, each initialised to -1.
+   *
+   * @param size number of leaf sequences.
+   */
+  public SequenceTree(final int size) {
+    this(size, Sequencer.INITIAL_CURSOR_VALUE);
+  }
+
+  /**
+   * Create a tree of sequences with a specified initial value.
+   *
+   * @param size number of leaf sequences.
+   * @param initialValue the initial value of every sequence.
+   */
+  public SequenceTree(final int size, final long initialValue) {
+    if (size < 1) {
+      throw new IllegalArgumentException("size must not be less than 1");
+    }
+
+    int depth = 2;
+    for (int n = size; n > FAN_OUT; n = (n + FAN_OUT - 1) >>> FAN_OUT_SHIFT) {
+      depth++;
+    }
+
+    levels = new SequenceArray[depth];
+    int n = size;
+    for (int level = 0; level < depth; level++) {
+      levels[level] = new SequenceArray(n, initialValue);
+      n = (n + FAN_OUT - 1) >>> FAN_OUT_SHIFT;
+    }
+    root = levels[depth - 1];
+    leafViews = new Sequence[size];
+  }
+
+  /**
+   * The number of leaf sequences.
+   *
+   * @return the number of leaves.
+   */
+  public int size() {
+    return levels[0].size();
+  }
+
+  /**
+   * Get the {@link Sequence} for a leaf, to be used as the sequence of one consumer. The same
+   * view is returned for the same index.
+   *
+   * @param index of the leaf.
+   * @return a sequence whose updates are folded into the minimum of this tree.
+   */
+  public synchronized Sequence getSequence(final int index) {
+    if (index < 0 || index >= leafViews.length) {
+      throw new IndexOutOfBoundsException("index: " + index + ", size: " + leafViews.length);
+    }
+
+    Sequence view = leafViews[index];
+    if (null == view) {
+      view = new Leaf(this, index);
+      leafViews[index] = view;
+    }
+
+    return view;
+  }
+
+  /**
+   * Get the minimum value of all the leaves.
+   *
+   * @return the minimum sequence value of the tree.
+   */
+  @Override
+  public long get() {
+    return root.get(0);
+  }
+
+  /**
+   * Set every leaf and inner node to a value, used when the tree is added as a gating sequence.
+   *
+   * @param value to set the whole tree to.
+   */
+  @Override
+  public void set(final long value) {
+    for (SequenceArray level : levels) {
+      for (int i = 0, n = level.size(); i < n; i++) {
+        level.setVolatile(i, value);
+      }
+    }
+  }
+
+  /**
+   * Set every leaf and inner node to a value.
+   *
+   * @param value to set the whole tree to.
+   */
+  @Override
+  public void setVolatile(final long value) {
+    set(value);
+  }
+
+  /** Not supported. */
+  @Override
+  public long incrementAndGet() {
+    throw new UnsupportedOperationException();
+  }
+
+  /** Not supported. */
+  @Override
+  public long addAndGet(long increment) {
+    throw new UnsupportedOperationException();
+  }
+
+  /** Not supported. */
+  @Override
+  public long getAndAdd(long increment) {
+    throw new UnsupportedOperationException();
+  }
+
+  /** Not supported. */
+  @Override
+  public boolean compareAndSet(long expectedValue, long newValue) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public String toString() {
+    return levels[0].toString();
+  }
+
+  private void propagate(int child) {
+    for (int level = 1; level < levels.length; level++) {
+      final SequenceArray children = levels[level - 1];
+      final SequenceArray nodes = levels[level];
+      final int parent = child >>> FAN_OUT_SHIFT;
+
+      final int first = parent << FAN_OUT_SHIFT;
+      final int last = Math.min(children.size(), first + FAN_OUT);
+      long minimum = Long.MAX_VALUE;
+      for (int i = first; i < last; i++) {
+        minimum = Math.min(minimum, children.get(i));
+      }
+
+      long current;
+      do {
+        current = nodes.get(parent);
+        if (minimum <= current) {
+          // unchanged, or whoever moved it is propagating further up
+          return;
+        }
+      } while (!nodes.compareAndSet(parent, current, minimum));
+
+      child = parent;
+    }
+  }
+
+  private static final class Leaf extends Sequence {
+    private final SequenceTree tree;
+    private final SequenceArray leaves;
+    private final int index;
+
+    Leaf(final SequenceTree tree, final int index) {
+      this.tree = tree;
+      this.leaves = tree.levels[0];
+      this.index = index;
+    }
+
+    @Override
+    public long addAndGet(final long increment) {
+      return getAndAdd(increment) + increment;
+    }
+
+    @Override
+    public long getAndAdd(final long increment) {
+      final long value = leaves.getAndAdd(index, increment);
+      tree.propagate(index);
+      return value;
+    }
+
+    @Override
+    public long get() {
+      return leaves.get(index);
+    }
+
+    @Override
+    public boolean compareAndSet(final long expectedValue, final long newValue) {
+      if (leaves.compareAndSet(index, expectedValue, newValue)) {
+        tree.propagate(index);
+        return true;
+      }
+
+      return false;
+    }
+
+    @Override
+    public void set(final long value) {
+      setVolatile(value);
+    }
+
+    @Override
+    public void setVolatile(final long value) {
+      leaves.setVolatile(index, value);
+      tree.propagate(index);
+    }
+  }
+}
@@ -1,6 +1,11 @@
 package com.lmax.disruptor;
 
+import java.util.concurrent.TimeUnit;
+
 public interface Sequenced {
+  /** Returned by {@link #tryClaim(int)} when there is not enough space in the ring buffer. */
+  long INSUFFICIENT_CAPACITY = Long.MIN_VALUE;
+
   /**
    * The capacity of the data structure to hold entries.
    *
@@ -43,6 +48,20 @@ public interface Sequenced {
    */
   long next(int n);
 
+  /**
+   * Claim the next n events in sequence for publishing, waiting at most the given time for the
+   * capacity to become available. Have a look at {@link #next(int)} for a description on how to
+   * use this method.
+   *
+   * @param n the number of sequences to claim
+   * @param timeout how long to wait before giving up, in units of <code>unit</code>
+   * @param unit the time unit of the <code>timeout</code> argument
+   * @return the highest claimed sequence value
+   * @throws TimeoutException if the capacity did not become available in time, in which case no
+   *     sequence has been claimed.
+   */
+  long next(int n, long timeout, TimeUnit unit) throws TimeoutException;
+
   /**
    * Publishes a sequence. Call when the event has been filled.
    *
@@ -84,4 +103,16 @@ public interface Sequenced {
    * @throws InsufficientCapacityException thrown if there is no space available in the ring buffer.
    */
   long tryNext(int n) throws InsufficientCapacityException;
+
+  /**
+   * Attempt to claim the next n events in sequence for publishing without throwing when the ring
+   * buffer is full. Will return the highest numbered slot if there are at least <code>n</code>
+   * slots available, otherwise {@link #INSUFFICIENT_CAPACITY}; as claimed sequences are never
+   * negative a check for <code>&lt; 0</code> suffices. Prefer this over {@link #tryNext(int)} where
+   * a full ring buffer is expected to be common.
+   *
+   * @param n the number of sequences to claim
+   * @return the claimed sequence value or {@link #INSUFFICIENT_CAPACITY}
+   */
+  long tryClaim(int n);
 }
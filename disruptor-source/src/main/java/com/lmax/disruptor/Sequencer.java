@@ -31,6 +31,19 @@ public interface Sequencer extends Cursored, Sequenced {
    */
   void addGatingSequences(Sequence... gatingSequences);
 
+  /**
+   * Add a gating sequence that starts at a given value rather than at the cursor, so that a
+   * consumer added while producers are running can still read the events after that value. The
+   * sequence is only added if none of those events can have been overwritten, so the minimum gating
+   * sequence never moves backwards.
+   *
+   * @param gatingSequence The sequence to add.
+   * @param initialValue The value the sequence starts at.
+   * @return <tt>true</tt> if the sequence was added, <tt>false</tt> if <code>initialValue</code> is
+   *     behind the slowest existing gating sequence.
+   */
+  boolean addGatingSequence(Sequence gatingSequence, long initialValue);
+
   /**
    * Claim a specific sequence. Only used if initialising the ring buffer to a specific value.
    *
@@ -17,7 +17,7 @@ package com.lmax.disruptor;
 
 import com.lmax.disruptor.util.Util;
 
-import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Coordinator for claiming sequences for access to a data structure while tracking dependent {@link
@@ -36,7 +36,19 @@ public final class SingleProducerSequencer extends SingleProducerSequencerFields
    * @param waitStrategy for those waiting on sequences.
    */
   public SingleProducerSequencer(int bufferSize, WaitStrategy waitStrategy) {
-    super(bufferSize, waitStrategy);
+    this(bufferSize, waitStrategy, new SleepingProducerWaitStrategy());
+  }
+
+  /**
+   * Construct a Sequencer with the selected wait strategies and buffer size.
+   *
+   * @param bufferSize the size of the buffer that this will sequence over.
+   * @param waitStrategy for those waiting on sequences.
+   * @param producerWaitStrategy for the publisher waiting on a full buffer.
+   */
+  public SingleProducerSequencer(
+      int bufferSize, WaitStrategy waitStrategy, ProducerWaitStrategy producerWaitStrategy) {
+    super(bufferSize, waitStrategy, producerWaitStrategy);
   }
 
   /**
@@ -116,10 +128,36 @@ public final class SingleProducerSequencer extends SingleProducerSequencerFields
     if (wrapPoint > cachedGatingSequence || cachedGatingSequence > nextValue) {
       cursor.setVolatile(nextValue); // StoreLoad fence
 
-      long minSequence;
-      while (wrapPoint > (minSequence = Util.getMinimumSequence(gatingSequences, nextValue))) {
-        LockSupport.parkNanos(1L); // TODO: Use waitStrategy to spin?
-      }
+      long minSequence = producerWaitStrategy.waitFor(wrapPoint, minimumGatingSequence);
+
+      this.cachedValue = minSequence;
+    }
+
+    this.nextValue = nextSequence;
+
+    return nextSequence;
+  }
+
+  /**
+   * @see Sequencer#next(int, long, TimeUnit)
+   */
+  @Override
+  public long next(int n, long timeout, TimeUnit unit) throws TimeoutException {
+    if (n < 1) {
+      throw new IllegalArgumentException("n must be > 0");
+    }
+
+    long nextValue = this.nextValue;
+
+    long nextSequence = nextValue + n;
+    long wrapPoint = nextSequence - bufferSize;
+    long cachedGatingSequence = this.cachedValue;
+
+    if (wrapPoint > cachedGatingSequence || cachedGatingSequence > nextValue) {
+      cursor.setVolatile(nextValue); // StoreLoad fence
+
+      long minSequence =
+          producerWaitStrategy.waitFor(wrapPoint, minimumGatingSequence, unit.toNanos(timeout));
 
       this.cachedValue = minSequence;
     }
@@ -171,12 +209,25 @@ public final class SingleProducerSequencer extends SingleProducerSequencerFields
    */
   @Override
   public long tryNext(int n) throws InsufficientCapacityException {
+    final long sequence = tryClaim(n);
+    if (sequence < 0) {
+      throw InsufficientCapacityException.INSTANCE;
+    }
+
+    return sequence;
+  }
+
+  /**
+   * @see Sequencer#tryClaim(int)
+   */
+  @Override
+  public long tryClaim(int n) {
     if (n < 1) {
       throw new IllegalArgumentException("n must be > 0");
     }
 
     if (!hasAvailableCapacity(n, true)) {
-      throw InsufficientCapacityException.INSTANCE;
+      return INSUFFICIENT_CAPACITY;
     }
 
     long nextSequence = this.nextValue += n;
@@ -190,15 +241,26 @@ abstract class SingleProducerSequencerFields extends SingleProducerSequencerPad
   /** Set to -1 as sequence starting point */
   long nextValue = Sequence.INITIAL_VALUE;
 
-  SingleProducerSequencerFields(int bufferSize, WaitStrategy waitStrategy) {
-    super(bufferSize, waitStrategy);
+  /** Minimum of the gating sequences, or the claimed sequence when there are none. */
+  final Sequence minimumGatingSequence =
+      new Sequence() {
+        @Override
+        public long get() {
+          return Util.getMinimumSequence(gatingSequences, nextValue);
+        }
+      };
+
+  SingleProducerSequencerFields(
+      int bufferSize, WaitStrategy waitStrategy, ProducerWaitStrategy producerWaitStrategy) {
+    super(bufferSize, waitStrategy, producerWaitStrategy);
   }
 }
 
 abstract class SingleProducerSequencerPad extends AbstractSequencer {
   protected long p1, p2, p3, p4, p5, p6, p7;
 
-  SingleProducerSequencerPad(int bufferSize, WaitStrategy waitStrategy) {
-    super(bufferSize, waitStrategy);
+  SingleProducerSequencerPad(
+      int bufferSize, WaitStrategy waitStrategy, ProducerWaitStrategy producerWaitStrategy) {
+    super(bufferSize, waitStrategy, producerWaitStrategy);
   }
 }
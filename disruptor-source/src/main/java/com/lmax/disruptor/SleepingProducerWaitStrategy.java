@@ -0,0 +1,71 @@
+/*
+ * Copyright 2012 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sleeping strategy that parks publishers waiting on a full ring buffer for the given period
+ * between checks of the gating sequences.
+ *
+ * <p>This is the default strategy, with a period of one nanosecond it behaves as the sequencers
+ * always have: the actual pause is then as long as the OS timer slack allows.
+ */
+public final class SleepingProducerWaitStrategy implements ProducerWaitStrategy {
+  private static final long DEFAULT_SLEEP = 1L;
+
+  private final long sleepTimeNs;
+
+  public SleepingProducerWaitStrategy() {
+    this(DEFAULT_SLEEP);
+  }
+
+  public SleepingProducerWaitStrategy(long sleepTimeNs) {
+    this.sleepTimeNs = sleepTimeNs;
+  }
+
+  @Override
+  public long waitFor(final long wrapPoint, final Sequence gatingSequence) {
+    long minSequence;
+
+    while ((minSequence = gatingSequence.get()) < wrapPoint) {
+      LockSupport.parkNanos(sleepTimeNs);
+    }
+
+    return minSequence;
+  }
+
+  @Override
+  public long waitFor(final long wrapPoint, final Sequence gatingSequence, final long timeoutNanos)
+      throws TimeoutException {
+    final long deadline = System.nanoTime() + timeoutNanos;
+    long minSequence;
+
+    while ((minSequence = gatingSequence.get()) < wrapPoint) {
+      final long remaining = deadline - System.nanoTime();
+      if (remaining <= 0) {
+        throw TimeoutException.INSTANCE;
+      }
+
+      LockSupport.parkNanos(Math.min(sleepTimeNs, remaining));
+    }
+
+    return minSequence;
+  }
+
+  @Override
+  public void signalAllWhenBlocking() {}
+}
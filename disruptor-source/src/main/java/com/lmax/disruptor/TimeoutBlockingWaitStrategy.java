@@ -1,5 +1,7 @@
 package com.lmax.disruptor;
 
+import com.lmax.disruptor.util.ThreadHints;
+
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
@@ -51,6 +53,7 @@ public class TimeoutBlockingWaitStrategy implements WaitStrategy {
 
     while ((availableSequence = dependentSequence.get()) < sequence) {
       barrier.checkAlert();
+      ThreadHints.onSpinWait();
     }
 
     return availableSequence;
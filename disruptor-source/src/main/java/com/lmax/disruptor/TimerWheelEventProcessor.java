@@ -0,0 +1,336 @@
+/*
+ * Copyright 2012 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Event processor that delays events: it takes scheduled events from a source ring buffer, holds
+ * them in a hashed timer wheel and publishes each one to a target ring buffer once its deadline
+ * has passed.
+ *
+ * <p>All storage is allocated up front. The processor owns <code>capacity</code> events created by
+ * the event factory, into which scheduled events are copied, and the wheel itself is a set of
+ * intrusive linked lists threaded through primitive arrays, so scheduling and firing a timer never
+ * allocates. When every pooled event is in use the processor stops taking events from the source
+ * ring buffer, which then pushes back on its producers as usual.
+ *
+ * <p>Deadlines are rounded up to the wheel's tick, so an event is published no earlier than its
+ * deadline and normally within one tick after it. Events that are already due when taken are
+ * published on the next tick. The order in which events due in the same tick are published is
+ * unspecified.
+ *
+ * <p>If the {@link ScheduledEventAdapter} also implements {@link LifecycleAware} it will be
+ * notified just after the thread is started and just before the thread is shutdown.
+ *
+ * @param <E> event implementation storing the data for sharing during exchange or parallel
+ *     coordination of an event.
+ */
+public final class TimerWheelEventProcessor<E> implements EventProcessor {
+  private static final int IDLE = 0;
+  private static final int HALTED = IDLE + 1;
+  private static final int RUNNING = HALTED + 1;
+  private static final int NONE = -1;
+
+  private final DataProvider<E> source;
+  private final SequenceBarrier sequenceBarrier;
+  private final RingBuffer<E> target;
+  private final ScheduledEventAdapter<E> adapter;
+  private final AtomicInteger running = new AtomicInteger(IDLE);
+  private final Sequence sequence = new Sequence(Sequencer.INITIAL_CURSOR_VALUE);
+  private final long tickNanos;
+  private final long epoch;
+  private final int wheelMask;
+  private final int[] buckets;
+  private final Object[] pool;
+  private final long[] deadlineTicks;
+  private final int[] nextEntry;
+  private final EventTranslatorOneArg<E, E> copyTranslator;
+  private int freeEntry;
+  // written only by the processor thread, with ordered stores so other threads see the count
+  private final AtomicInteger scheduled = new AtomicInteger();
+  private long processedTick;
+  private ExceptionHandler<? super E> exceptionHandler = new FatalExceptionHandler();
+
+  /**
+   * Construct a timer wheel between two ring buffers. Its sequence must be added to the gating
+   * sequences of the source ring buffer.
+   *
+   * @param source to which scheduled events are published.
+   * @param sequenceBarrier of the source on which it is waiting.
+   * @param target to which events are published once they are due.
+   * @param eventFactory used to preallocate the events held in the wheel.
+   * @param adapter giving the deadline of an event and copying it.
+   * @param capacity the maximum number of events held at once.
+   * @param wheelSize the number of buckets in the wheel, must be a power of 2.
+   * @param tickDuration the resolution of the wheel.
+   * @param unit the unit of tickDuration.
+   */
+  public TimerWheelEventProcessor(
+      final DataProvider<E> source,
+      final SequenceBarrier sequenceBarrier,
+      final RingBuffer<E> target,
+      final EventFactory<E> eventFactory,
+      final ScheduledEventAdapter<E> adapter,
+      final int capacity,
+      final int wheelSize,
+      final long tickDuration,
+      final TimeUnit unit) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must not be less than 1");
+    }
+    if (wheelSize < 1 || Integer.bitCount(wheelSize) != 1) {
+      throw new IllegalArgumentException("wheelSize must be a power of 2");
+    }
+    if (tickDuration < 1) {
+      throw new IllegalArgumentException("tickDuration must be > 0");
+    }
+
+    this.source = source;
+    this.sequenceBarrier = sequenceBarrier;
+    this.target = target;
+    this.adapter = adapter;
+    this.tickNanos = unit.toNanos(tickDuration);
+    this.epoch = System.nanoTime();
+    this.wheelMask = wheelSize - 1;
+
+    this.buckets = new int[wheelSize];
+    Arrays.fill(buckets, NONE);
+
+    this.pool = new Object[capacity];
+    this.deadlineTicks = new long[capacity];
+    this.nextEntry = new int[capacity];
+    for (int i = 0; i < capacity; i++) {
+      pool[i] = eventFactory.newInstance();
+      nextEntry[i] = i + 1 < capacity ? i + 1 : NONE;
+    }
+    this.freeEntry = 0;
+
+    this.copyTranslator =
+        new EventTranslatorOneArg<E, E>() {
+          @Override
+          public void translateTo(E event, long sequence, E scheduledEvent) {
+            adapter.copy(scheduledEvent, event);
+          }
+        };
+  }
+
+  @Override
+  public Sequence getSequence() {
+    return sequence;
+  }
+
+  @Override
+  public void halt() {
+    running.set(HALTED);
+    sequenceBarrier.alert();
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running.get() != IDLE;
+  }
+
+  /**
+   * The number of events currently held in the wheel. May be called from any thread.
+   *
+   * @return the number of scheduled events not yet published.
+   */
+  public int getScheduledCount() {
+    return scheduled.get();
+  }
+
+  /**
+   * It is ok to have another thread rerun this method after a halt().
+   *
+   * @throws IllegalStateException if this object instance is already running in a thread
+   */
+  @Override
+  public void run() {
+    if (!running.compareAndSet(IDLE, RUNNING)) {
+      if (running.get() == RUNNING) {
+        throw new IllegalStateException("Thread is already running");
+      }
+    }
+    sequenceBarrier.clearAlert();
+
+    notifyStart();
+
+    try {
+      processedTick = currentTick();
+      while (running.get() == RUNNING) {
+        final long taken = takeScheduledEvents();
+        final int fired = fireDueEvents(currentTick());
+
+        if (0 == taken && 0 == fired) {
+          LockSupport.parkNanos(tickNanos);
+        }
+      }
+    } finally {
+      notifyShutdown();
+      running.set(IDLE);
+    }
+  }
+
+  /** Copy newly published events into the wheel, as long as there is room for them. */
+  private long takeScheduledEvents() {
+    final long nextSequence = sequence.get() + 1L;
+    if (freeEntry == NONE || sequenceBarrier.getCursor() < nextSequence) {
+      return 0;
+    }
+
+    E event = null;
+    long current = nextSequence;
+    try {
+      final long availableSequence =
+          Math.min(sequenceBarrier.waitFor(nextSequence), nextSequence + freeCount() - 1L);
+
+      while (current <= availableSequence) {
+        event = source.get(current);
+        schedule(event);
+        current++;
+      }
+
+      sequence.set(availableSequence);
+      sequenceBarrier.signalProducers();
+      return availableSequence - nextSequence + 1L;
+    } catch (final AlertException ex) {
+      return 0;
+    } catch (final TimeoutException ex) {
+      return 0;
+    } catch (final Throwable ex) {
+      exceptionHandler.handleEventException(ex, current, event);
+      sequence.set(current);
+      sequenceBarrier.signalProducers();
+      return current - nextSequence + 1L;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void schedule(final E event) {
+    final long deadlineTick = Math.max(tickOf(adapter.getDeadline(event)), processedTick + 1L);
+
+    final int entry = freeEntry;
+    adapter.copy(event, (E) pool[entry]);
+    freeEntry = nextEntry[entry];
+
+    final int bucket = (int) deadlineTick & wheelMask;
+    deadlineTicks[entry] = deadlineTick;
+    nextEntry[entry] = buckets[bucket];
+    buckets[bucket] = entry;
+    scheduled.lazySet(scheduled.get() + 1);
+  }
+
+  /**
+   * Publish every event due up to <code>nowTick</code>, visiting each bucket passed since the last
+   * call at most once.
+   */
+  @SuppressWarnings("unchecked")
+  private int fireDueEvents(final long nowTick) {
+    if (nowTick <= processedTick) {
+      return 0;
+    }
+
+    int fired = 0;
+    final long fromTick = Math.max(processedTick + 1L, nowTick - wheelMask);
+    for (long tick = fromTick; tick <= nowTick; tick++) {
+      final int bucket = (int) tick & wheelMask;
+      int previous = NONE;
+      int entry = buckets[bucket];
+      while (entry != NONE) {
+        final int next = nextEntry[entry];
+        if (deadlineTicks[entry] <= nowTick) {
+          final E event = (E) pool[entry];
+          try {
+            target.publishEvent(copyTranslator, event);
+          } catch (final Throwable ex) {
+            exceptionHandler.handleEventException(ex, sequence.get(), event);
+          }
+
+          if (previous == NONE) {
+            buckets[bucket] = next;
+          } else {
+            nextEntry[previous] = next;
+          }
+          nextEntry[entry] = freeEntry;
+          freeEntry = entry;
+          fired++;
+        } else {
+          previous = entry;
+        }
+        entry = next;
+      }
+    }
+
+    scheduled.lazySet(scheduled.get() - fired);
+    processedTick = nowTick;
+    return fired;
+  }
+
+  /** Notifies the adapter when this processor is starting up */
+  private void notifyStart() {
+    if (adapter instanceof LifecycleAware) {
+      try {
+        ((LifecycleAware) adapter).onStart();
+      } catch (final Throwable ex) {
+        exceptionHandler.handleOnStartException(ex);
+      }
+    }
+  }
+
+  /** Notifies the adapter immediately prior to this processor shutting down */
+  private void notifyShutdown() {
+    if (adapter instanceof LifecycleAware) {
+      try {
+        ((LifecycleAware) adapter).onShutdown();
+      } catch (final Throwable ex) {
+        exceptionHandler.handleOnShutdownException(ex);
+      }
+    }
+  }
+
+  private int freeCount() {
+    return pool.length - scheduled.get();
+  }
+
+  /** The last tick that has fully passed. */
+  private long currentTick() {
+    return (System.nanoTime() - epoch) / tickNanos;
+  }
+
+  /** The first tick at or after the given time. */
+  private long tickOf(final long nanoTime) {
+    final long elapsed = nanoTime - epoch;
+    return elapsed <= 0 ? 0 : (elapsed + tickNanos - 1) / tickNanos;
+  }
+
+  /**
+   * Set a new {@link ExceptionHandler} for handling exceptions propagated out of the {@link
+   * TimerWheelEventProcessor}
+   *
+   * @param exceptionHandler to replace the existing exceptionHandler.
+   */
+  public void setExceptionHandler(final ExceptionHandler<? super E> exceptionHandler) {
+    if (null == exceptionHandler) {
+      throw new NullPointerException();
+    }
+
+    this.exceptionHandler = exceptionHandler;
+  }
+}
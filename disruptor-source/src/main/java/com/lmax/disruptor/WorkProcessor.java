@@ -41,6 +41,8 @@ public final class WorkProcessor<T> implements EventProcessor {
   private final TimeoutHandler timeoutHandler;
   private final WorkHandler<? super T> workHandler;
   private final Sequence workSequence;
+  private int maxClaimBatchSize = 1;
+  private int claimShare = 1;
 
   /**
    * Construct a {@link WorkProcessor}.
@@ -104,6 +106,7 @@ public final class WorkProcessor<T> implements EventProcessor {
     boolean processedSequence = true;
     long cachedAvailableSequence = Long.MIN_VALUE;
     long nextSequence = sequence.get();
+    long lastClaimedSequence = nextSequence;
     T event = null;
     while (true) {
       try {
@@ -114,10 +117,23 @@ public final class WorkProcessor<T> implements EventProcessor {
         // is thrown from the WorkHandler
         if (processedSequence) {
           processedSequence = false;
-          do {
-            nextSequence = workSequence.get() + 1L;
-            sequence.set(nextSequence - 1L);
-          } while (!workSequence.compareAndSet(nextSequence - 1L, nextSequence));
+          if (nextSequence < lastClaimedSequence) {
+            // still working through the run claimed last time
+            sequence.set(nextSequence);
+            nextSequence++;
+          } else {
+            long currentSequence;
+            do {
+              currentSequence = workSequence.get();
+              sequence.set(currentSequence);
+              lastClaimedSequence =
+                  currentSequence
+                      + claimBatchSize(
+                          cachedAvailableSequence, currentSequence, claimShare, maxClaimBatchSize);
+            } while (!workSequence.compareAndSet(currentSequence, lastClaimedSequence));
+            nextSequence = currentSequence + 1L;
+          }
+          sequenceBarrier.signalProducers();
         }
 
         if (cachedAvailableSequence >= nextSequence) {
@@ -145,6 +161,49 @@ public final class WorkProcessor<T> implements EventProcessor {
     running.set(false);
   }
 
+  /**
+   * Claim runs of up to <code>maxClaimBatchSize</code> sequences with each update of the shared
+   * work sequence, instead of one. The run claimed is this processor's share of the events known to
+   * be published, so that it is a single sequence when the backlog is short and the workers keep
+   * taking turns. Must be called before the processor is started.
+   *
+   * @param maxClaimBatchSize the largest number of sequences claimed at once.
+   * @param claimShare the number of processors sharing the work sequence.
+   */
+  void setClaimBatching(final int maxClaimBatchSize, final int claimShare) {
+    this.maxClaimBatchSize = maxClaimBatchSize;
+    this.claimShare = claimShare;
+  }
+
+  /**
+   * The number of sequences to claim after <code>currentSequence</code>: an equal share of the
+   * events known to be published beyond it, or a single sequence when there are fewer of those than
+   * processors, including when nothing is known to be published yet.
+   *
+   * @param availableSequence the highest sequence known to be published.
+   * @param currentSequence the last sequence claimed from the work sequence.
+   * @param claimShare the number of processors sharing the work sequence.
+   * @param maxClaimBatchSize the largest number of sequences claimed at once.
+   * @return the number of sequences to claim, at least 1.
+   */
+  static long claimBatchSize(
+      final long availableSequence,
+      final long currentSequence,
+      final int claimShare,
+      final int maxClaimBatchSize) {
+    // checked before subtracting, as the available sequence starts out at Long.MIN_VALUE
+    if (maxClaimBatchSize == 1 || availableSequence <= currentSequence) {
+      return 1L;
+    }
+
+    final long backlog = availableSequence - currentSequence;
+    if (backlog <= claimShare) {
+      return 1L;
+    }
+
+    return Math.min(backlog / claimShare, maxClaimBatchSize);
+  }
+
   private void notifyStart() {
     if (workHandler instanceof LifecycleAware) {
       try {
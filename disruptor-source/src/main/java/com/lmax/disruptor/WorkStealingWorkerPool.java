@@ -0,0 +1,414 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import com.lmax.disruptor.util.Util;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A pool of workers that, like {@link WorkerPool}, hands each event to exactly one of a set of
+ * {@link WorkHandler}s, but lets a worker keep a run of claimed sequences to itself and lets idle
+ * workers steal from it.
+ *
+ * <p>Each worker owns a range of sequences and takes them from the front one at a time. When its
+ * range is empty it claims a new run from the shared work sequence while there is published work
+ * left to claim, and otherwise steals the back half of the range of a busy peer. A worker held up
+ * by a slow event therefore does not hold up the events queued behind it, and the workers only
+ * meet on the shared work sequence once per run.
+ *
+ * <p>Every worker's {@link Sequence} stays below the sequences it still holds, so gating the
+ * {@link RingBuffer} on {@link #getWorkerSequences()} keeps unprocessed events from being
+ * overwritten even though the workers complete them out of order.
+ *
+ * @param <T> event to be processed by a pool of workers
+ */
+public final class WorkStealingWorkerPool<T> {
+  /** The largest run of sequences a worker claims at once unless set otherwise. */
+  public static final int DEFAULT_MAX_CLAIM_BATCH_SIZE = 64;
+
+  private static final long EMPTY = Long.MIN_VALUE;
+
+  private final RingBuffer<T> ringBuffer;
+  private final AtomicBoolean started = new AtomicBoolean(false);
+  private final Worker<T>[] workers;
+  private final Sequence workSequence = new Sequence(Sequencer.INITIAL_CURSOR_VALUE);
+  private int maxClaimBatchSize = DEFAULT_MAX_CLAIM_BATCH_SIZE;
+
+  /**
+   * Create a work-stealing pool to enable an array of {@link WorkHandler}s to consume published
+   * sequences.
+   *
+   * <p>This option requires a pre-configured {@link RingBuffer} which must have {@link
+   * RingBuffer#addGatingSequences(Sequence...)} called before the work pool is started.
+   *
+   * @param ringBuffer of events to be consumed.
+   * @param sequenceBarrier on which the workers will depend.
+   * @param exceptionHandler to callback when an error occurs which is not handled by the {@link
+   *     WorkHandler}s.
+   * @param workHandlers to distribute the work load across.
+   */
+  public WorkStealingWorkerPool(
+      final RingBuffer<T> ringBuffer,
+      final SequenceBarrier sequenceBarrier,
+      final ExceptionHandler<? super T> exceptionHandler,
+      final WorkHandler<? super T>... workHandlers) {
+    this.ringBuffer = ringBuffer;
+    workers = newWorkers(sequenceBarrier, exceptionHandler, workHandlers);
+  }
+
+  /**
+   * Construct a work-stealing pool with an internal {@link RingBuffer} for convenience.
+   *
+   * <p>This option does not require {@link RingBuffer#addGatingSequences(Sequence...)} to be called
+   * before the work pool is started.
+   *
+   * @param eventFactory for filling the {@link RingBuffer}
+   * @param exceptionHandler to callback when an error occurs which is not handled by the {@link
+   *     WorkHandler}s.
+   * @param workHandlers to distribute the work load across.
+   */
+  public WorkStealingWorkerPool(
+      final EventFactory<T> eventFactory,
+      final ExceptionHandler<? super T> exceptionHandler,
+      final WorkHandler<? super T>... workHandlers) {
+    ringBuffer = RingBuffer.createMultiProducer(eventFactory, 1024, new BlockingWaitStrategy());
+    final SequenceBarrier barrier = ringBuffer.newBarrier();
+    workers = newWorkers(barrier, exceptionHandler, workHandlers);
+
+    ringBuffer.addGatingSequences(getWorkerSequences());
+  }
+
+  @SuppressWarnings("unchecked")
+  private Worker<T>[] newWorkers(
+      final SequenceBarrier sequenceBarrier,
+      final ExceptionHandler<? super T> exceptionHandler,
+      final WorkHandler<? super T>[] workHandlers) {
+    final Worker<T>[] newWorkers = new Worker[workHandlers.length];
+    for (int i = 0; i < workHandlers.length; i++) {
+      newWorkers[i] = new Worker<T>(this, sequenceBarrier, workHandlers[i], exceptionHandler, i);
+    }
+
+    return newWorkers;
+  }
+
+  /**
+   * Set the largest run of sequences a worker claims from the shared work sequence at once. A
+   * worker takes an equal share of the published events not yet claimed, up to this size. Must be
+   * called before the pool is started.
+   *
+   * @param maxClaimBatchSize the largest number of sequences a worker claims at once.
+   * @throws IllegalArgumentException if maxClaimBatchSize is less than 1.
+   */
+  public void setMaxClaimBatchSize(final int maxClaimBatchSize) {
+    if (maxClaimBatchSize < 1) {
+      throw new IllegalArgumentException("maxClaimBatchSize must be > 0");
+    }
+
+    this.maxClaimBatchSize = maxClaimBatchSize;
+  }
+
+  /**
+   * Get an array of {@link Sequence}s representing the progress of the workers.
+   *
+   * @return an array of {@link Sequence}s representing the progress of the workers.
+   */
+  public Sequence[] getWorkerSequences() {
+    final Sequence[] sequences = new Sequence[workers.length + 1];
+    for (int i = 0, size = workers.length; i < size; i++) {
+      sequences[i] = workers[i].getSequence();
+    }
+    sequences[sequences.length - 1] = workSequence;
+
+    return sequences;
+  }
+
+  /** Wait for the {@link RingBuffer} to drain of published events then halt the workers. */
+  public void drainAndHalt() {
+    Sequence[] workerSequences = getWorkerSequences();
+    while (ringBuffer.getCursor() > Util.getMinimumSequence(workerSequences)) {
+      Thread.yield();
+    }
+
+    halt();
+  }
+
+  /** Halt all workers immediately at the end of their current cycle. */
+  public void halt() {
+    for (Worker<T> worker : workers) {
+      worker.halt();
+    }
+
+    started.set(false);
+  }
+
+  public boolean isRunning() {
+    return started.get();
+  }
+
+  /**
+   * Start the worker pool processing events in sequence.
+   *
+   * @param executor providing threads for running the workers.
+   * @return the {@link RingBuffer} used for the work queue.
+   * @throws IllegalStateException if the pool has already been started and not halted yet
+   */
+  public RingBuffer<T> start(final Executor executor) {
+    if (!started.compareAndSet(false, true)) {
+      throw new IllegalStateException(
+          "WorkStealingWorkerPool has already been started and cannot be restarted until halted.");
+    }
+
+    final long cursor = ringBuffer.getCursor();
+    workSequence.set(cursor);
+
+    for (Worker<T> worker : workers) {
+      worker.reset(cursor);
+    }
+    for (Worker<T> worker : workers) {
+      executor.execute(worker);
+    }
+
+    return ringBuffer;
+  }
+
+  /**
+   * A worker of the pool. The sequences <code>head + 1</code> to <code>tail</code> are the ones it
+   * holds but has not yet taken. The owner moves <code>head</code> and thieves move <code>tail
+   * </code>, each checking the other afterwards and settling a clash under the lock of the worker,
+   * so the owner only takes the lock when its range is about to run out.
+   */
+  private static final class Worker<T> implements EventProcessor {
+    private final WorkStealingWorkerPool<T> pool;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final Sequence sequence = new Sequence(Sequencer.INITIAL_CURSOR_VALUE);
+    private final SequenceBarrier sequenceBarrier;
+    private final WorkHandler<? super T> workHandler;
+    private final ExceptionHandler<? super T> exceptionHandler;
+    private final TimeoutHandler timeoutHandler;
+    private final int index;
+    private volatile long head = Sequencer.INITIAL_CURSOR_VALUE;
+    private volatile long tail = Sequencer.INITIAL_CURSOR_VALUE;
+    private long stolenTail;
+
+    Worker(
+        final WorkStealingWorkerPool<T> pool,
+        final SequenceBarrier sequenceBarrier,
+        final WorkHandler<? super T> workHandler,
+        final ExceptionHandler<? super T> exceptionHandler,
+        final int index) {
+      this.pool = pool;
+      this.sequenceBarrier = sequenceBarrier;
+      this.workHandler = workHandler;
+      this.exceptionHandler = exceptionHandler;
+      this.index = index;
+
+      timeoutHandler =
+          (workHandler instanceof TimeoutHandler) ? (TimeoutHandler) workHandler : null;
+    }
+
+    @Override
+    public Sequence getSequence() {
+      return sequence;
+    }
+
+    @Override
+    public void halt() {
+      running.set(false);
+      sequenceBarrier.alert();
+    }
+
+    @Override
+    public boolean isRunning() {
+      return running.get();
+    }
+
+    @Override
+    public void run() {
+      if (!running.compareAndSet(false, true)) {
+        throw new IllegalStateException("Thread is already running");
+      }
+      sequenceBarrier.clearAlert();
+
+      notifyStart();
+
+      boolean processedSequence = true;
+      long cachedAvailableSequence = Long.MIN_VALUE;
+      long nextSequence = EMPTY;
+      T event = null;
+      while (true) {
+        try {
+          if (processedSequence) {
+            processedSequence = false;
+            nextSequence = take();
+            while (EMPTY == nextSequence) {
+              refill(cachedAvailableSequence);
+              nextSequence = take();
+            }
+          }
+
+          if (cachedAvailableSequence >= nextSequence) {
+            event = pool.ringBuffer.get(nextSequence);
+            workHandler.onEvent(event);
+            sequence.set(nextSequence);
+            sequenceBarrier.signalProducers();
+            processedSequence = true;
+          } else {
+            cachedAvailableSequence = sequenceBarrier.waitFor(nextSequence);
+          }
+        } catch (final TimeoutException e) {
+          notifyTimeout(sequence.get());
+        } catch (final AlertException ex) {
+          if (!running.get()) {
+            break;
+          }
+        } catch (final Throwable ex) {
+          // handle, mark as processed, unless the exception handler threw an exception
+          exceptionHandler.handleEventException(ex, nextSequence, event);
+          sequence.set(nextSequence);
+          sequenceBarrier.signalProducers();
+          processedSequence = true;
+        }
+      }
+
+      notifyShutdown();
+
+      running.set(false);
+    }
+
+    void reset(final long cursor) {
+      synchronized (this) {
+        head = cursor;
+        tail = cursor;
+      }
+      sequence.set(cursor);
+    }
+
+    private long take() {
+      final long next = head + 1L;
+      head = next;
+      if (next > tail) {
+        synchronized (this) {
+          if (next > tail) {
+            head = next - 1L;
+            return EMPTY;
+          }
+        }
+      }
+
+      return next;
+    }
+
+    private void refill(final long cachedAvailableSequence) {
+      final Sequence workSequence = pool.workSequence;
+      if (cachedAvailableSequence <= workSequence.get() && steal()) {
+        return;
+      }
+
+      long currentSequence;
+      long lastClaimedSequence;
+      do {
+        currentSequence = workSequence.get();
+        sequence.set(currentSequence);
+        lastClaimedSequence =
+            currentSequence
+                + WorkProcessor.claimBatchSize(
+                    cachedAvailableSequence,
+                    currentSequence,
+                    pool.workers.length,
+                    pool.maxClaimBatchSize);
+      } while (!workSequence.compareAndSet(currentSequence, lastClaimedSequence));
+      sequenceBarrier.signalProducers();
+
+      assign(currentSequence, lastClaimedSequence);
+    }
+
+    private boolean steal() {
+      final Worker<T>[] workers = pool.workers;
+      for (int i = 1; i < workers.length; i++) {
+        final Worker<T> victim = workers[(index + i) % workers.length];
+        if (victim.tail > victim.head) {
+          // cover anything the victim still holds before its sequence can move past the steal
+          sequence.set(victim.sequence.get());
+
+          final long stolenHead = victim.stealHalf(this);
+          if (EMPTY != stolenHead) {
+            sequence.set(stolenHead);
+            sequenceBarrier.signalProducers();
+            assign(stolenHead, stolenTail);
+            return true;
+          }
+        }
+      }
+
+      return false;
+    }
+
+    private synchronized long stealHalf(final Worker<T> thief) {
+      final long currentTail = tail;
+      final long remaining = currentTail - head;
+      if (remaining <= 0) {
+        return EMPTY;
+      }
+
+      final long newTail = currentTail - (remaining + 1L) / 2L;
+      tail = newTail;
+      if (head > newTail) {
+        tail = currentTail;
+        return EMPTY;
+      }
+
+      thief.stolenTail = currentTail;
+      return newTail;
+    }
+
+    private synchronized void assign(final long newHead, final long newTail) {
+      head = newHead;
+      tail = newTail;
+    }
+
+    private void notifyStart() {
+      if (workHandler instanceof LifecycleAware) {
+        try {
+          ((LifecycleAware) workHandler).onStart();
+        } catch (final Throwable ex) {
+          exceptionHandler.handleOnStartException(ex);
+        }
+      }
+    }
+
+    private void notifyTimeout(final long availableSequence) {
+      try {
+        if (timeoutHandler != null) {
+          timeoutHandler.onTimeout(availableSequence);
+        }
+      } catch (Throwable e) {
+        exceptionHandler.handleEventException(e, availableSequence, null);
+      }
+    }
+
+    private void notifyShutdown() {
+      if (workHandler instanceof LifecycleAware) {
+        try {
+          ((LifecycleAware) workHandler).onShutdown();
+        } catch (final Throwable ex) {
+          exceptionHandler.handleOnShutdownException(ex);
+        }
+      }
+    }
+  }
+}
@@ -106,6 +106,26 @@ public final class WorkerPool<T> {
     return sequences;
   }
 
+  /**
+   * Let each worker claim a run of up to <code>maxClaimBatchSize</code> sequences at a time rather
+   * than one, so the workers contend on the shared work sequence once per run instead of once per
+   * event. The size of a run adapts to the backlog: a worker takes an equal share of the events
+   * published but not yet claimed, and a single event when there are fewer of those than workers.
+   * Must be called before the pool is started.
+   *
+   * @param maxClaimBatchSize the largest number of sequences a worker claims at once.
+   * @throws IllegalArgumentException if maxClaimBatchSize is less than 1.
+   */
+  public void setMaxClaimBatchSize(final int maxClaimBatchSize) {
+    if (maxClaimBatchSize < 1) {
+      throw new IllegalArgumentException("maxClaimBatchSize must be > 0");
+    }
+
+    for (WorkProcessor<?> processor : workProcessors) {
+      processor.setClaimBatching(maxClaimBatchSize, workProcessors.length);
+    }
+  }
+
   /** Wait for the {@link RingBuffer} to drain of published events then halt the workers. */
   public void drainAndHalt() {
     Sequence[] workerSequences = getWorkerSequences();
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2012 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+/**
+ * Yielding strategy that uses a Thread.yield() for publishers waiting on a full ring buffer after
+ * an initially spinning.
+ *
+ * <p>This strategy is a good compromise between performance and CPU resource without incurring
+ * significant latency spikes.
+ */
+public final class YieldingProducerWaitStrategy implements ProducerWaitStrategy {
+  private static final int SPIN_TRIES = 100;
+
+  @Override
+  public long waitFor(final long wrapPoint, final Sequence gatingSequence) {
+    long minSequence;
+    int counter = SPIN_TRIES;
+
+    while ((minSequence = gatingSequence.get()) < wrapPoint) {
+      if (0 == counter) {
+        Thread.yield();
+      } else {
+        --counter;
+      }
+    }
+
+    return minSequence;
+  }
+
+  @Override
+  public long waitFor(final long wrapPoint, final Sequence gatingSequence, final long timeoutNanos)
+      throws TimeoutException {
+    final long deadline = System.nanoTime() + timeoutNanos;
+    long minSequence;
+    int counter = SPIN_TRIES;
+
+    while ((minSequence = gatingSequence.get()) < wrapPoint) {
+      if (System.nanoTime() - deadline >= 0) {
+        throw TimeoutException.INSTANCE;
+      }
+
+      if (0 == counter) {
+        Thread.yield();
+      } else {
+        --counter;
+      }
+    }
+
+    return minSequence;
+  }
+
+  @Override
+  public void signalAllWhenBlocking() {}
+}
@@ -43,8 +43,13 @@ public class BasicExecutor implements Executor {
       sb.append("{");
       sb.append("name=").append(t.getName()).append(",");
       sb.append("id=").append(t.getId()).append(",");
-      sb.append("state=").append(threadInfo.getThreadState()).append(",");
-      sb.append("lockInfo=").append(threadInfo.getLockInfo());
+      if (null == threadInfo) {
+        // Terminated and virtual threads are not reported by the MXBean
+        sb.append("state=").append(t.getState());
+      } else {
+        sb.append("state=").append(threadInfo.getThreadState()).append(",");
+        sb.append("lockInfo=").append(threadInfo.getLockInfo());
+      }
       sb.append("}");
     }
 
@@ -8,6 +8,8 @@ import java.util.concurrent.Executor;
 interface ConsumerInfo {
   SequenceBarrier getBarrier();
 
+  Sequence[] getBarrierSequences();
+
   Sequence[] getSequences();
 
   void halt();
@@ -18,5 +20,7 @@ interface ConsumerInfo {
 
   void markAsUsedInBarrier();
 
+  void markAsEndOfChain();
+
   void start(Executor executor);
 }
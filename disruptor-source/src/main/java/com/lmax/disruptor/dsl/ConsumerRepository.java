@@ -18,6 +18,7 @@ package com.lmax.disruptor.dsl;
 import com.lmax.disruptor.*;
 
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Provides a repository mechanism to associate {@link EventHandler}s with {@link EventProcessor}s
@@ -25,42 +26,77 @@ import java.util.*;
  * @param <T> the type of the {@link EventHandler}
  */
 class ConsumerRepository<T> implements Iterable<ConsumerInfo> {
-  private final Collection<ConsumerInfo> consumerInfos = new ArrayList<ConsumerInfo>();
+  private final Collection<ConsumerInfo> consumerInfos = new CopyOnWriteArrayList<ConsumerInfo>();
   private final Map<EventHandler<?>, EventProcessorInfo<T>> eventProcessorInfoByEventHandler =
-      new IdentityHashMap<EventHandler<?>, EventProcessorInfo<T>>();
+      Collections.synchronizedMap(new IdentityHashMap<EventHandler<?>, EventProcessorInfo<T>>());
   private final Map<Sequence, ConsumerInfo> eventProcessorInfoBySequence =
-      new IdentityHashMap<Sequence, ConsumerInfo>();
+      Collections.synchronizedMap(new IdentityHashMap<Sequence, ConsumerInfo>());
 
-  public void add(
+  public synchronized void add(
       final EventProcessor eventprocessor,
       final EventHandler<? super T> handler,
-      final SequenceBarrier barrier) {
+      final SequenceBarrier barrier,
+      final Sequence[] barrierSequences) {
     final EventProcessorInfo<T> consumerInfo =
-        new EventProcessorInfo<T>(eventprocessor, handler, barrier);
+        new EventProcessorInfo<T>(eventprocessor, handler, barrier, barrierSequences);
     eventProcessorInfoByEventHandler.put(handler, consumerInfo);
     eventProcessorInfoBySequence.put(eventprocessor.getSequence(), consumerInfo);
     consumerInfos.add(consumerInfo);
   }
 
-  public void add(final EventProcessor processor) {
-    final EventProcessorInfo<T> consumerInfo = new EventProcessorInfo<T>(processor, null, null);
+  public synchronized void add(final EventProcessor processor) {
+    final EventProcessorInfo<T> consumerInfo = new EventProcessorInfo<T>(processor, null, null, new Sequence[0]);
     eventProcessorInfoBySequence.put(processor.getSequence(), consumerInfo);
     consumerInfos.add(consumerInfo);
   }
 
-  public void add(final WorkerPool<T> workerPool, final SequenceBarrier sequenceBarrier) {
-    final WorkerPoolInfo<T> workerPoolInfo = new WorkerPoolInfo<T>(workerPool, sequenceBarrier);
+  public synchronized void add(
+      final WorkerPool<T> workerPool,
+      final SequenceBarrier sequenceBarrier,
+      final Sequence[] barrierSequences) {
+    final WorkerPoolInfo<T> workerPoolInfo =
+        new WorkerPoolInfo<T>(workerPool, sequenceBarrier, barrierSequences);
     consumerInfos.add(workerPoolInfo);
     for (Sequence sequence : workerPool.getWorkerSequences()) {
       eventProcessorInfoBySequence.put(sequence, workerPoolInfo);
     }
   }
 
+  public synchronized EventProcessor remove(final EventHandler<T> handler) {
+    final EventProcessorInfo<T> consumerInfo = getEventProcessorInfo(handler);
+    if (consumerInfo == null) {
+      throw new IllegalArgumentException(
+          "The event handler " + handler + " is not processing events.");
+    }
+    if (!consumerInfo.isEndOfChain()) {
+      throw new IllegalStateException(
+          "The event handler " + handler + " is used in the barrier of another handler.");
+    }
+    for (ConsumerInfo other : consumerInfos) {
+      if (other != consumerInfo && other.getBarrier() == consumerInfo.getBarrier()) {
+        throw new IllegalStateException(
+            "The event handler " + handler + " shares its barrier with another handler.");
+      }
+    }
+
+    final EventProcessor eventProcessor = consumerInfo.getEventProcessor();
+    consumerInfos.remove(consumerInfo);
+    eventProcessorInfoByEventHandler.remove(handler);
+    eventProcessorInfoBySequence.remove(eventProcessor.getSequence());
+
+    return eventProcessor;
+  }
+
   public SequenceBarrier getBarrierFor(final EventHandler<T> handler) {
     final ConsumerInfo consumerInfo = getEventProcessorInfo(handler);
     return consumerInfo != null ? consumerInfo.getBarrier() : null;
   }
 
+  public Sequence[] getBarrierSequencesFor(final EventHandler<T> handler) {
+    final ConsumerInfo consumerInfo = getEventProcessorInfo(handler);
+    return consumerInfo != null ? consumerInfo.getBarrierSequences() : null;
+  }
+
   public Sequence[] getLastSequenceInChain(boolean includeStopped) {
     List<Sequence> lastSequence = new ArrayList<Sequence>();
     for (ConsumerInfo consumerInfo : consumerInfos) {
@@ -102,6 +138,39 @@ class ConsumerRepository<T> implements Iterable<ConsumerInfo> {
     }
   }
 
+  /**
+   * Mark the processors behind the given barrier sequences as end of chain again, once no remaining
+   * consumer has them in its barrier.
+   *
+   * @param barrierSequences the barrier sequences of a consumer that has been removed.
+   * @return the sequences of the processors that are now end of chain.
+   */
+  public synchronized Sequence[] markEventProcessorsAsEndOfChain(
+      final Sequence... barrierSequences) {
+    final List<Sequence> endOfChainSequences = new ArrayList<Sequence>();
+    for (Sequence barrierSequence : barrierSequences) {
+      final ConsumerInfo barrierConsumerInfo = getEventProcessorInfo(barrierSequence);
+      if (barrierConsumerInfo != null && !isUsedInBarrier(barrierSequence)) {
+        barrierConsumerInfo.markAsEndOfChain();
+        endOfChainSequences.add(barrierSequence);
+      }
+    }
+
+    return endOfChainSequences.toArray(new Sequence[endOfChainSequences.size()]);
+  }
+
+  private boolean isUsedInBarrier(final Sequence sequence) {
+    for (ConsumerInfo consumerInfo : consumerInfos) {
+      for (Sequence barrierSequence : consumerInfo.getBarrierSequences()) {
+        if (barrierSequence == sequence) {
+          return true;
+        }
+      }
+    }
+
+    return false;
+  }
+
   private ConsumerInfo getEventProcessorInfo(final Sequence barrierEventProcessor) {
     return eventProcessorInfoBySequence.get(barrierEventProcessor);
   }
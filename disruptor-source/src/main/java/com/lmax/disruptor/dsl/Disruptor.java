@@ -18,10 +18,13 @@ package com.lmax.disruptor.dsl;
 import com.lmax.disruptor.*;
 import com.lmax.disruptor.util.Util;
 
+import java.util.IdentityHashMap;
+import java.util.Map;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * A DSL-style API for setting up the disruptor pattern around a ring buffer (aka the Builder
@@ -43,10 +46,13 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * @param <T> the type of event used.
  */
 public class Disruptor<T> {
+  private static final long DETACH_PARK_NANOS = 100_000L;
   private final ConsumerRepository<T> consumerRepository = new ConsumerRepository<T>();
   private final Executor executor;
   private final RingBuffer<T> ringBuffer;
   private final AtomicBoolean started = new AtomicBoolean(false);
+  private final Map<EventHandler<?>, EventProcessor> detachingProcessors =
+      new IdentityHashMap<EventHandler<?>, EventProcessor>();
   private ExceptionHandler<? super T> exceptionHandler = new ExceptionHandlerWrapper<T>();
 
   /**
@@ -129,6 +135,29 @@ public class Disruptor<T> {
         new BasicExecutor(threadFactory));
   }
 
+  /**
+   * Create a new Disruptor.
+   *
+   * @param eventFactory the factory to create events in the ring buffer.
+   * @param ringBufferSize the size of the ring buffer, must be power of 2.
+   * @param threadFactory a {@link ThreadFactory} to create threads for processors.
+   * @param producerType the claim strategy to use for the ring buffer.
+   * @param waitStrategy the wait strategy to use for the ring buffer.
+   * @param producerWaitStrategy the strategy publishers use to wait on a full ring buffer.
+   */
+  public Disruptor(
+      final EventFactory<T> eventFactory,
+      final int ringBufferSize,
+      final ThreadFactory threadFactory,
+      final ProducerType producerType,
+      final WaitStrategy waitStrategy,
+      final ProducerWaitStrategy producerWaitStrategy) {
+    this(
+        RingBuffer.create(
+            producerType, eventFactory, ringBufferSize, waitStrategy, producerWaitStrategy),
+        new BasicExecutor(threadFactory));
+  }
+
   /**
    * Create a group of event handlers to be used as a dependency. For example if the handler <code>A
    * </code> must process events before handler <code>B</code>:
@@ -258,13 +287,9 @@ public class Disruptor<T> {
       final EventHandler<? super T> eventHandler = eventHandlers[i];
 
       final BatchEventProcessor<T> batchEventProcessor =
-          new BatchEventProcessor<T>(ringBuffer, barrier, eventHandler);
-
-      if (exceptionHandler != null) {
-        batchEventProcessor.setExceptionHandler(exceptionHandler);
-      }
+          createEventProcessor(barrier, eventHandler);
 
-      consumerRepository.add(batchEventProcessor, eventHandler, barrier);
+      consumerRepository.add(batchEventProcessor, eventHandler, barrier, barrierSequences);
       processorSequences[i] = batchEventProcessor.getSequence();
     }
 
@@ -273,6 +298,151 @@ public class Disruptor<T> {
     return new EventHandlerGroup<T>(this, consumerRepository, processorSequences);
   }
 
+  private BatchEventProcessor<T> createEventProcessor(
+      final SequenceBarrier barrier, final EventHandler<? super T> eventHandler) {
+    final BatchEventProcessor<T> batchEventProcessor =
+        new BatchEventProcessor<T>(ringBuffer, barrier, eventHandler);
+
+    if (exceptionHandler != null) {
+      batchEventProcessor.setExceptionHandler(exceptionHandler);
+    }
+
+    return batchEventProcessor;
+  }
+
+  /**
+   * Attach an event handler that reads directly from the ring buffer, starting with the next event
+   * to be published. Unlike {@link #handleEventsWith(EventHandler[])} this may be called after
+   * {@link #start()}, in which case the handler's processor is started straight away. Producers are
+   * never blocked while the handler is attached.
+   *
+   * @param handler the event handler to attach.
+   * @return a {@link EventHandlerGroup} containing the new handler.
+   */
+  public synchronized EventHandlerGroup<T> attachEventHandler(
+      final EventHandler<? super T> handler) {
+    final SequenceBarrier barrier = ringBuffer.newBarrier();
+    final BatchEventProcessor<T> batchEventProcessor = createEventProcessor(barrier, handler);
+
+    ringBuffer.addGatingSequences(batchEventProcessor.getSequence());
+
+    return attach(batchEventProcessor, handler, barrier);
+  }
+
+  /**
+   * Attach an event handler that reads directly from the ring buffer, starting with the event after
+   * <code>sequence</code>. The events from there on must all still be in the ring buffer, so
+   * <code>sequence</code> may not be behind the slowest handler already gating the ring buffer.
+   *
+   * @param handler the event handler to attach.
+   * @param sequence the last sequence the handler is treated as having processed.
+   * @return a {@link EventHandlerGroup} containing the new handler.
+   * @throws IllegalArgumentException if <code>sequence</code> is ahead of the cursor, or events
+   *     after it may already have been overwritten.
+   * @see #attachEventHandler(EventHandler)
+   */
+  public synchronized EventHandlerGroup<T> attachEventHandler(
+      final EventHandler<? super T> handler, final long sequence) {
+    if (sequence > ringBuffer.getCursor()) {
+      throw new IllegalArgumentException(
+          "sequence " + sequence + " is ahead of the cursor " + ringBuffer.getCursor());
+    }
+
+    final SequenceBarrier barrier = ringBuffer.newBarrier();
+    final BatchEventProcessor<T> batchEventProcessor = createEventProcessor(barrier, handler);
+
+    if (!ringBuffer.addGatingSequence(batchEventProcessor.getSequence(), sequence)) {
+      throw new IllegalArgumentException(
+          "Events after sequence " + sequence + " may already have been overwritten");
+    }
+
+    return attach(batchEventProcessor, handler, barrier);
+  }
+
+  private EventHandlerGroup<T> attach(
+      final BatchEventProcessor<T> batchEventProcessor,
+      final EventHandler<? super T> handler,
+      final SequenceBarrier barrier) {
+    consumerRepository.add(batchEventProcessor, handler, barrier, new Sequence[0]);
+    if (started.get()) {
+      executor.execute(batchEventProcessor);
+    }
+
+    return new EventHandlerGroup<T>(
+        this, consumerRepository, new Sequence[] {batchEventProcessor.getSequence()});
+  }
+
+  /**
+   * Detach an event handler, halting its processor and removing its sequence from the gating
+   * sequences of the ring buffer. If the disruptor has been started this waits, however long it
+   * takes, for the handler to finish the event it is processing, so that the event cannot be
+   * overwritten underneath it. The disruptor is not locked while waiting.
+   *
+   * <p>Only a handler that no other handler depends on, and that does not share its {@link
+   * SequenceBarrier} with other handlers, can be detached. Handlers added one at a time with {@link
+   * #attachEventHandler(EventHandler)} or {@link #handleEventsWith(EventHandler[])} have their own
+   * barrier. Handlers the detached one depended on, and that nothing else depends on, go back to
+   * gating the ring buffer and can then be detached in turn.
+   *
+   * @param handler the event handler to detach.
+   * @throws IllegalArgumentException if the handler is not processing events.
+   * @throws IllegalStateException if another handler depends on it or shares its barrier.
+   * @see #detachEventHandler(EventHandler, long, TimeUnit)
+   */
+  public void detachEventHandler(final EventHandler<T> handler) {
+    try {
+      detachEventHandler(handler, -1, TimeUnit.MILLISECONDS);
+    } catch (final TimeoutException e) {
+      // cannot happen without a timeout
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Detach an event handler as {@link #detachEventHandler(EventHandler)} does, waiting at most the
+   * given time for the handler to finish the event it is processing. If it does not, the handler is
+   * left halted, its sequence still gating the ring buffer, and detaching it can be tried again.
+   *
+   * @param handler the event handler to detach.
+   * @param timeout the time to wait for the handler to finish, negative to wait without limit.
+   * @param timeUnit the unit of the timeout.
+   * @throws TimeoutException if the handler has not finished its event within the timeout.
+   * @throws IllegalArgumentException if the handler is not processing events.
+   * @throws IllegalStateException if another handler depends on it or shares its barrier.
+   */
+  public void detachEventHandler(
+      final EventHandler<T> handler, final long timeout, final TimeUnit timeUnit)
+      throws TimeoutException {
+    EventProcessor eventProcessor;
+    synchronized (this) {
+      // halted already by a detach that timed out, halting again would leave it marked as running
+      eventProcessor = detachingProcessors.remove(handler);
+      if (null == eventProcessor) {
+        final Sequence[] barrierSequences = consumerRepository.getBarrierSequencesFor(handler);
+        eventProcessor = consumerRepository.remove(handler);
+        // the handlers it depended on gate the ring buffer again before its own sequence stops
+        for (final Sequence sequence :
+            consumerRepository.markEventProcessorsAsEndOfChain(barrierSequences)) {
+          ringBuffer.addGatingSequence(sequence, sequence.get());
+        }
+        eventProcessor.halt();
+      }
+    }
+
+    final long timeOutAt = System.nanoTime() + timeUnit.toNanos(timeout);
+    while (started.get() && eventProcessor.isRunning()) {
+      if (timeout >= 0 && System.nanoTime() - timeOutAt > 0) {
+        synchronized (this) {
+          detachingProcessors.put(handler, eventProcessor);
+        }
+        throw TimeoutException.INSTANCE;
+      }
+      LockSupport.parkNanos(DETACH_PARK_NANOS);
+    }
+
+    ringBuffer.removeGatingSequence(eventProcessor.getSequence());
+  }
+
   private void checkNotStarted() {
     if (started.get()) {
       throw new IllegalStateException("All event handlers must be added before calling starts.");
@@ -371,7 +541,7 @@ public class Disruptor<T> {
     final WorkerPool<T> workerPool =
         new WorkerPool<T>(ringBuffer, sequenceBarrier, exceptionHandler, workHandlers);
 
-    consumerRepository.add(workerPool, sequenceBarrier);
+    consumerRepository.add(workerPool, sequenceBarrier, barrierSequences);
 
     final Sequence[] workerSequences = workerPool.getWorkerSequences();
 
@@ -555,11 +725,12 @@ public class Disruptor<T> {
    * <p>The ring buffer is set up to prevent overwriting any entry that is yet to be processed by
    * the slowest event processor.
    *
-   * <p>This method must only be called once after all event processors have been added.
+   * <p>This method must only be called once after all event processors have been added, apart
+   * from those attached later with {@link #attachEventHandler(EventHandler)}.
    *
    * @return the configured ring buffer.
    */
-  public RingBuffer<T> start() {
+  public synchronized RingBuffer<T> start() {
     checkOnlyStartedOnce();
     for (final ConsumerInfo consumerInfo : consumerRepository) {
       consumerInfo.start(executor);
@@ -34,6 +34,7 @@ import java.util.concurrent.Executor;
  */
 class EventProcessorInfo<T> implements ConsumerInfo {
   private final SequenceBarrier barrier;
+  private final Sequence[] barrierSequences;
   private final EventProcessor eventprocessor;
   private final EventHandler<? super T> handler;
   private boolean endOfChain = true;
@@ -41,10 +42,12 @@ class EventProcessorInfo<T> implements ConsumerInfo {
   EventProcessorInfo(
       final EventProcessor eventprocessor,
       final EventHandler<? super T> handler,
-      final SequenceBarrier barrier) {
+      final SequenceBarrier barrier,
+      final Sequence[] barrierSequences) {
     this.eventprocessor = eventprocessor;
     this.handler = handler;
     this.barrier = barrier;
+    this.barrierSequences = barrierSequences;
   }
 
   @Override
@@ -52,6 +55,11 @@ class EventProcessorInfo<T> implements ConsumerInfo {
     return barrier;
   }
 
+  @Override
+  public Sequence[] getBarrierSequences() {
+    return barrierSequences;
+  }
+
   @Override
   public Sequence[] getSequences() {
     return new Sequence[] {eventprocessor.getSequence()};
@@ -78,6 +86,11 @@ class EventProcessorInfo<T> implements ConsumerInfo {
     endOfChain = false;
   }
 
+  @Override
+  public void markAsEndOfChain() {
+    endOfChain = true;
+  }
+
   @Override
   public void start(final Executor executor) {
     executor.execute(eventprocessor);
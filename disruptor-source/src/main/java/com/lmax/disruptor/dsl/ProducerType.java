@@ -23,5 +23,13 @@ public enum ProducerType {
   SINGLE,
 
   /** Create a RingBuffer supporting multiple event publishers to the one RingBuffer */
-  MULTI
+  MULTI,
+
+  /**
+   * Create a RingBuffer supporting multiple event publishers that claim sequences with a single
+   * fetch-and-add on the cursor instead of a compare-and-set retry loop, see {@link
+   * com.lmax.disruptor.MultiProducerSequencer#MultiProducerSequencer(int,
+   * com.lmax.disruptor.WaitStrategy, boolean)}
+   */
+  MULTI_FETCH_AND_ADD
 }
@@ -0,0 +1,315 @@
+/*
+ * Copyright 2012 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.dsl;
+
+import com.lmax.disruptor.*;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A DSL-style API for running several independent disruptors side by side, each with its own ring
+ * buffer, sequencer and event processors, and routing every published event to one of them by a
+ * key. Producers publishing to different shards never contend on the same cursor, while all the
+ * events for one key go to the same shard and so are processed in the order they were published.
+ *
+ * <p>A simple example of setting up four shards with one handler per shard:
+ *
+ * <pre>
+ * <code>ShardedDisruptor&lt;MyEvent&gt; disruptor = new ShardedDisruptor&lt;MyEvent&gt;(MyEvent.FACTORY, 1024, threadFactory, 4);
+ * disruptor.handleEventsWith(new ShardedEventHandlerFactory&lt;MyEvent&gt;() { ... });
+ * disruptor.start();
+ *
+ * disruptor.publishEvent(accountId, translator, amount);</code>
+ * </pre>
+ *
+ * <p>More complex dependency graphs can be set up on each shard through {@link #getShard(int)}.
+ *
+ * @param <T> the type of event used.
+ */
+public class ShardedDisruptor<T> {
+  private final Disruptor<T>[] shards;
+
+  /**
+   * Create a new ShardedDisruptor. Every shard defaults to its own {@link BlockingWaitStrategy} and
+   * {@link ProducerType}.MULTI
+   *
+   * @param eventFactory the factory to create events in the ring buffers.
+   * @param ringBufferSize the size of each ring buffer, must be power of 2.
+   * @param threadFactory a {@link ThreadFactory} to create threads for processors.
+   * @param shardCount the number of independent ring buffers.
+   */
+  public ShardedDisruptor(
+      final EventFactory<T> eventFactory,
+      final int ringBufferSize,
+      final ThreadFactory threadFactory,
+      final int shardCount) {
+    this(newShards(eventFactory, ringBufferSize, threadFactory, shardCount));
+  }
+
+  /**
+   * Create a new ShardedDisruptor over existing disruptors, for when the shards need their own
+   * producer types or wait strategies. A wait strategy instance should not be shared between
+   * shards, otherwise publishing to one shard wakes the processors of the others.
+   *
+   * @param shards the disruptors to route events to, none of which may have been started.
+   */
+  @SafeVarargs
+  public ShardedDisruptor(final Disruptor<T>... shards) {
+    if (shards.length < 1) {
+      throw new IllegalArgumentException("There must be at least one shard");
+    }
+    this.shards = shards.clone();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> Disruptor<T>[] newShards(
+      final EventFactory<T> eventFactory,
+      final int ringBufferSize,
+      final ThreadFactory threadFactory,
+      final int shardCount) {
+    if (shardCount < 1) {
+      throw new IllegalArgumentException("shardCount must not be less than 1");
+    }
+
+    final Disruptor<T>[] shards = new Disruptor[shardCount];
+    for (int i = 0; i < shardCount; i++) {
+      shards[i] =
+          new Disruptor<T>(
+              eventFactory,
+              ringBufferSize,
+              threadFactory,
+              ProducerType.MULTI,
+              new BlockingWaitStrategy());
+    }
+    return shards;
+  }
+
+  /**
+   * Set up event handlers to handle events from every shard. Each factory is asked for one handler
+   * per shard, and the handlers of a shard process its events as soon as they become available, in
+   * parallel.
+   *
+   * @param handlerFactories the factories creating the event handlers of each shard.
+   * @return the {@link EventHandlerGroup} of each shard, indexed by shard, that can be used to
+   *     chain dependencies.
+   */
+  @SuppressWarnings({"unchecked", "varargs"})
+  public EventHandlerGroup<T>[] handleEventsWith(
+      final ShardedEventHandlerFactory<T>... handlerFactories) {
+    final EventHandlerGroup<T>[] groups = new EventHandlerGroup[shards.length];
+    for (int shard = 0; shard < shards.length; shard++) {
+      final EventHandler<? super T>[] handlers = new EventHandler[handlerFactories.length];
+      for (int i = 0; i < handlerFactories.length; i++) {
+        handlers[i] = handlerFactories[i].createEventHandler(shard);
+      }
+      groups[shard] = shards[shard].handleEventsWith(handlers);
+    }
+    return groups;
+  }
+
+  /**
+   * Specify an exception handler to be used for event handlers and worker pools created on every
+   * shard.
+   *
+   * @param exceptionHandler the exception handler to use.
+   * @see Disruptor#setDefaultExceptionHandler(ExceptionHandler)
+   */
+  public void setDefaultExceptionHandler(final ExceptionHandler<? super T> exceptionHandler) {
+    for (final Disruptor<T> shard : shards) {
+      shard.setDefaultExceptionHandler(exceptionHandler);
+    }
+  }
+
+  /**
+   * The number of shards events are routed to.
+   *
+   * @return the shard count.
+   */
+  public int getShardCount() {
+    return shards.length;
+  }
+
+  /**
+   * The {@link Disruptor} behind a shard, for setting up its own dependency graph.
+   *
+   * @param shard the index of the shard.
+   * @return the disruptor of the shard.
+   */
+  public Disruptor<T> getShard(final int shard) {
+    return shards[shard];
+  }
+
+  /**
+   * The index of the shard that events published with the given key are routed to.
+   *
+   * @param key the routing key, which must have a stable {@link Object#hashCode()}.
+   * @return the index of the shard.
+   */
+  public int shardFor(final Object key) {
+    final int h = key.hashCode();
+    return ((h ^ (h >>> 16)) & Integer.MAX_VALUE) % shards.length;
+  }
+
+  /**
+   * Publish an event to the ring buffer of the shard owning the key.
+   *
+   * @param key the routing key of the event.
+   * @param eventTranslator the translator that will load data into the event.
+   */
+  public void publishEvent(final Object key, final EventTranslator<T> eventTranslator) {
+    shards[shardFor(key)].publishEvent(eventTranslator);
+  }
+
+  /**
+   * Publish an event to the ring buffer of the shard owning the key.
+   *
+   * @param <A> Class of the user supplied argument.
+   * @param key the routing key of the event.
+   * @param eventTranslator the translator that will load data into the event.
+   * @param arg A single argument to load into the event
+   */
+  public <A> void publishEvent(
+      final Object key, final EventTranslatorOneArg<T, A> eventTranslator, final A arg) {
+    shards[shardFor(key)].publishEvent(eventTranslator, arg);
+  }
+
+  /**
+   * Publish an event to the ring buffer of the shard owning the key.
+   *
+   * @param <A> Class of the user supplied argument.
+   * @param <B> Class of the user supplied argument.
+   * @param key the routing key of the event.
+   * @param eventTranslator the translator that will load data into the event.
+   * @param arg0 The first argument to load into the event
+   * @param arg1 The second argument to load into the event
+   */
+  public <A, B> void publishEvent(
+      final Object key,
+      final EventTranslatorTwoArg<T, A, B> eventTranslator,
+      final A arg0,
+      final B arg1) {
+    shards[shardFor(key)].publishEvent(eventTranslator, arg0, arg1);
+  }
+
+  /**
+   * Publish an event to the ring buffer of the shard owning the key.
+   *
+   * @param <A> Class of the user supplied argument.
+   * @param <B> Class of the user supplied argument.
+   * @param <C> Class of the user supplied argument.
+   * @param key the routing key of the event.
+   * @param eventTranslator the translator that will load data into the event.
+   * @param arg0 The first argument to load into the event
+   * @param arg1 The second argument to load into the event
+   * @param arg2 The third argument to load into the event
+   */
+  public <A, B, C> void publishEvent(
+      final Object key,
+      final EventTranslatorThreeArg<T, A, B, C> eventTranslator,
+      final A arg0,
+      final B arg1,
+      final C arg2) {
+    shards[shardFor(key)].publishEvent(eventTranslator, arg0, arg1, arg2);
+  }
+
+  /**
+   * Get the combined cursor of all shards, the total number of events claimed so far minus one.
+   * Each shard has several producers, so some of the claimed events may not have been published
+   * yet. It only ever increases and starts at {@link Sequencer#INITIAL_CURSOR_VALUE}, but it is not
+   * a sequence of any one ring buffer.
+   *
+   * @return the combined cursor.
+   */
+  public long getCursor() {
+    long claimed = 0;
+    for (final Disruptor<T> shard : shards) {
+      claimed += shard.getCursor() - Sequencer.INITIAL_CURSOR_VALUE;
+    }
+    return claimed + Sequencer.INITIAL_CURSOR_VALUE;
+  }
+
+  /**
+   * Get the value of the cursor of a single shard.
+   *
+   * @param shard the index of the shard.
+   * @return the highest sequence claimed in the shard's ring buffer, which may not have been
+   *     published yet as the shard has several producers.
+   */
+  public long getCursor(final int shard) {
+    return shards[shard].getCursor();
+  }
+
+  /**
+   * Starts the event processors of every shard.
+   *
+   * <p>This method must only be called once after all event processors have been added.
+   */
+  public void start() {
+    for (final Disruptor<T> shard : shards) {
+      shard.start();
+    }
+  }
+
+  /**
+   * Waits until all events currently in every shard have been processed and then halts the
+   * processors. It is critical that publishing has stopped before calling this method, otherwise
+   * it may never return.
+   *
+   * @see Disruptor#shutdown()
+   */
+  public void shutdown() {
+    for (final Disruptor<T> shard : shards) {
+      shard.shutdown();
+    }
+  }
+
+  /**
+   * Waits until all events currently in every shard have been processed and then halts the
+   * processors. The timeout covers all shards together, shards that drained before it expired
+   * have already been halted when the exception is thrown.
+   *
+   * @param timeout the amount of time to wait for all events to be processed. <code>-1</code> will
+   *     give an infinite timeout
+   * @param timeUnit the unit the timeOut is specified in
+   * @throws TimeoutException if a timeout occurs before shutdown completes.
+   */
+  public void shutdown(final long timeout, final TimeUnit timeUnit) throws TimeoutException {
+    final long timeOutAt = System.currentTimeMillis() + timeUnit.toMillis(timeout);
+    for (final Disruptor<T> shard : shards) {
+      if (timeout < 0) {
+        shard.shutdown(-1, TimeUnit.MILLISECONDS);
+      } else {
+        final long remaining = Math.max(0, timeOutAt - System.currentTimeMillis());
+        shard.shutdown(remaining, TimeUnit.MILLISECONDS);
+      }
+    }
+  }
+
+  /**
+   * Calls {@link EventProcessor#halt()} on all of the event processors of every shard.
+   */
+  public void halt() {
+    for (final Disruptor<T> shard : shards) {
+      shard.halt();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "ShardedDisruptor{" + "shardCount=" + shards.length + '}';
+  }
+}
@@ -8,12 +8,17 @@ import java.util.concurrent.Executor;
 
 class WorkerPoolInfo<T> implements ConsumerInfo {
   private final SequenceBarrier sequenceBarrier;
+  private final Sequence[] barrierSequences;
   private final WorkerPool<T> workerPool;
   private boolean endOfChain = true;
 
-  WorkerPoolInfo(final WorkerPool<T> workerPool, final SequenceBarrier sequenceBarrier) {
+  WorkerPoolInfo(
+      final WorkerPool<T> workerPool,
+      final SequenceBarrier sequenceBarrier,
+      final Sequence[] barrierSequences) {
     this.workerPool = workerPool;
     this.sequenceBarrier = sequenceBarrier;
+    this.barrierSequences = barrierSequences;
   }
 
   @Override
@@ -21,6 +26,11 @@ class WorkerPoolInfo<T> implements ConsumerInfo {
     return sequenceBarrier;
   }
 
+  @Override
+  public Sequence[] getBarrierSequences() {
+    return barrierSequences;
+  }
+
   @Override
   public Sequence[] getSequences() {
     return workerPool.getWorkerSequences();
@@ -46,6 +56,11 @@ class WorkerPoolInfo<T> implements ConsumerInfo {
     endOfChain = false;
   }
 
+  @Override
+  public void markAsEndOfChain() {
+    endOfChain = true;
+  }
+
   @Override
   public void start(Executor executor) {
     workerPool.start(executor);
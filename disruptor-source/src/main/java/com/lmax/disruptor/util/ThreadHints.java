@@ -0,0 +1,32 @@
+/*
+ * Copyright 2012 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.util;
+
+/**
+ * Hints to the processor about what the calling thread is doing.
+ *
+ * <p>This is the Java 8 version, where the hints do nothing. The multi-release jar replaces it on
+ * Java 9 and later with one that calls <code>Thread.onSpinWait()</code>.
+ */
+public final class ThreadHints {
+  private ThreadHints() {}
+
+  /**
+   * Indicates that the caller is momentarily unable to progress and is spinning, so that the
+   * processor can pause briefly, using less power and leaving more resources to its SMT sibling.
+   */
+  public static void onSpinWait() {}
+}
@@ -17,6 +17,7 @@ package com.lmax.disruptor.util;
 
 import com.lmax.disruptor.EventProcessor;
 import com.lmax.disruptor.Sequence;
+import com.lmax.disruptor.SequenceArray;
 import sun.misc.Unsafe;
 
 import java.lang.reflect.Field;
@@ -102,6 +103,17 @@ public final class Util {
     return minimum;
   }
 
+  /**
+   * Get the minimum sequence from a {@link SequenceArray}, scanning the packed values directly.
+   *
+   * @param sequences to compare.
+   * @param minimum an initial default minimum.
+   * @return the smaller of minimum sequence value found in {@code sequences} and {@code minimum}
+   */
+  public static long getMinimumSequence(final SequenceArray sequences, long minimum) {
+    return sequences.getMinimumSequence(minimum);
+  }
+
   /**
    * Get an array of {@link Sequence}s for the passed {@link EventProcessor}s
    *
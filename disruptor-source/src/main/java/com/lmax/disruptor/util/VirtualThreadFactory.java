@@ -0,0 +1,65 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.util;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Access to a ThreadFactory creating virtual threads, available from Java 21. Handlers that block
+ * on I/O can then each run on their own thread while sharing a few carrier threads, best combined
+ * with a {@link com.lmax.disruptor.ParkingWaitStrategy}.
+ *
+ * <p>The library is built for Java 8, so the factory is looked up reflectively. On an earlier
+ * runtime {@link #isSupported()} returns false and creating a thread fails.
+ */
+public enum VirtualThreadFactory implements ThreadFactory {
+  INSTANCE;
+
+  private static final ThreadFactory FACTORY = lookupFactory();
+
+  private static ThreadFactory lookupFactory() {
+    try {
+      final Method ofVirtual = Thread.class.getMethod("ofVirtual");
+      final Object builder = ofVirtual.invoke(null);
+      final Method factory = ofVirtual.getReturnType().getMethod("factory");
+      return (ThreadFactory) factory.invoke(builder);
+    } catch (final Exception e) {
+      return null;
+    }
+  }
+
+  /**
+   * Whether the running JVM supports virtual threads.
+   *
+   * @return true from Java 21 on.
+   */
+  public static boolean isSupported() {
+    return FACTORY != null;
+  }
+
+  /**
+   * @throws UnsupportedOperationException if the running JVM does not support virtual threads.
+   */
+  @Override
+  public Thread newThread(final Runnable r) {
+    if (FACTORY == null) {
+      throw new UnsupportedOperationException("Virtual threads require Java 21 or later");
+    }
+
+    return FACTORY.newThread(r);
+  }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import com.lmax.disruptor.support.StubEvent;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static com.lmax.disruptor.RingBuffer.createMultiProducer;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public final class AsyncEventProcessorTest {
+  private final RingBuffer<StubEvent> ringBuffer = createMultiProducer(StubEvent.EVENT_FACTORY, 16);
+  private final SequenceBarrier sequenceBarrier = ringBuffer.newBarrier();
+  private final List<CompletableFuture<Void>> futures =
+      new CopyOnWriteArrayList<CompletableFuture<Void>>();
+  private final AsyncEventHandler<StubEvent> handler =
+      new AsyncEventHandler<StubEvent>() {
+        @Override
+        public CompletionStage<?> onEvent(final StubEvent event, final long sequence) {
+          final CompletableFuture<Void> future = new CompletableFuture<Void>();
+          futures.add(future);
+          return future;
+        }
+      };
+  private AsyncEventProcessor<StubEvent> processor;
+  private Thread thread;
+
+  @After
+  public void tearDown() throws Exception {
+    if (processor != null) {
+      processor.halt();
+      for (CompletableFuture<Void> future : futures) {
+        future.complete(null);
+      }
+      thread.join(5000);
+    }
+  }
+
+  @Test
+  public void shouldAdvanceSequenceOnlyOverContiguousCompletedEvents() throws Exception {
+    start(new AsyncEventProcessor<StubEvent>(ringBuffer, sequenceBarrier, handler, 8));
+    publish(3);
+    awaitDispatched(3);
+
+    futures.get(2).complete(null);
+    futures.get(1).complete(null);
+    Thread.sleep(50);
+    assertThat(processor.getSequence().get(), is(-1L));
+
+    futures.get(0).complete(null);
+    awaitSequence(2L);
+  }
+
+  @Test
+  public void shouldBoundEventsInFlight() throws Exception {
+    start(new AsyncEventProcessor<StubEvent>(ringBuffer, sequenceBarrier, handler, 2));
+    publish(5);
+    awaitDispatched(2);
+    Thread.sleep(50);
+    assertThat(futures.size(), is(2));
+
+    futures.get(1).complete(null);
+    Thread.sleep(50);
+    assertThat(futures.size(), is(2));
+
+    futures.get(0).complete(null);
+    awaitDispatched(4);
+    awaitSequence(1L);
+  }
+
+  @Test
+  public void shouldHandleExceptionalCompletionInSequenceOrder() throws Exception {
+    final List<Long> failedSequences = new CopyOnWriteArrayList<Long>();
+    final AsyncEventProcessor<StubEvent> asyncEventProcessor =
+        new AsyncEventProcessor<StubEvent>(ringBuffer, sequenceBarrier, handler, 8);
+    asyncEventProcessor.setExceptionHandler(
+        new ExceptionHandler<Object>() {
+          @Override
+          public void handleEventException(
+              final Throwable ex, final long sequence, final Object event) {
+            failedSequences.add(Long.valueOf(sequence));
+          }
+
+          @Override
+          public void handleOnStartException(final Throwable ex) {}
+
+          @Override
+          public void handleOnShutdownException(final Throwable ex) {}
+        });
+    start(asyncEventProcessor);
+    publish(3);
+    awaitDispatched(3);
+
+    futures.get(2).completeExceptionally(new RuntimeException());
+    futures.get(1).completeExceptionally(new RuntimeException());
+    futures.get(0).complete(null);
+
+    awaitSequence(2L);
+    assertThat(failedSequences.size(), is(2));
+    assertThat(failedSequences.get(0), is(1L));
+    assertThat(failedSequences.get(1), is(2L));
+  }
+
+  @Test
+  public void shouldCompleteEventsInFlightWhenHalted() throws Exception {
+    start(new AsyncEventProcessor<StubEvent>(ringBuffer, sequenceBarrier, handler, 8));
+    publish(2);
+    awaitDispatched(2);
+
+    processor.halt();
+    Thread.sleep(50);
+    assertTrue(thread.isAlive());
+
+    futures.get(0).complete(null);
+    futures.get(1).complete(null);
+    thread.join(5000);
+
+    assertThat(thread.isAlive(), is(false));
+    assertThat(processor.getSequence().get(), is(1L));
+  }
+
+  private void start(final AsyncEventProcessor<StubEvent> asyncEventProcessor) {
+    processor = asyncEventProcessor;
+    ringBuffer.addGatingSequences(processor.getSequence());
+    thread = new Thread(processor);
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  private void publish(final int count) {
+    for (int i = 0; i < count; i++) {
+      ringBuffer.publish(ringBuffer.next());
+    }
+  }
+
+  private void awaitDispatched(final int count) throws InterruptedException {
+    final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (futures.size() < count && System.nanoTime() < deadline) {
+      Thread.sleep(1);
+    }
+    assertThat(futures.size(), is(count));
+  }
+
+  private void awaitSequence(final long expected) throws InterruptedException {
+    final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (processor.getSequence().get() < expected && System.nanoTime() < deadline) {
+      Thread.sleep(1);
+    }
+    assertThat(processor.getSequence().get(), is(expected));
+  }
+}
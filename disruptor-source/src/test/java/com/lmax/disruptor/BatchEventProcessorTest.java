@@ -70,12 +70,179 @@ public final class BatchEventProcessorTest {
     assertEquals(Arrays.asList(3L, 2L, 1L), batchSizes);
   }
 
+  @Test
+  public void shouldLimitBatchSize() throws Exception {
+    final List<Long> batchSizes = new ArrayList<Long>();
+    final List<Long> endOfBatchSequences = new ArrayList<Long>();
+    final CountDownLatch eventLatch = new CountDownLatch(10);
+
+    final class RecordingEventHandler implements EventHandler<StubEvent>, BatchStartAware {
+      @Override
+      public void onBatchStart(long batchSize) {
+        batchSizes.add(batchSize);
+      }
+
+      @Override
+      public void onEvent(StubEvent event, long sequence, boolean endOfBatch) throws Exception {
+        if (endOfBatch) {
+          endOfBatchSequences.add(sequence);
+        }
+        eventLatch.countDown();
+      }
+    }
+
+    final BatchEventProcessor<StubEvent> batchEventProcessor =
+        new BatchEventProcessor<StubEvent>(ringBuffer, sequenceBarrier, new RecordingEventHandler());
+    batchEventProcessor.setMaxBatchSize(4);
+
+    for (int i = 0; i < 10; i++) {
+      ringBuffer.publish(ringBuffer.next());
+    }
+
+    Thread thread = new Thread(batchEventProcessor);
+    thread.start();
+    eventLatch.await();
+
+    batchEventProcessor.halt();
+    thread.join();
+
+    assertEquals(Arrays.asList(4L, 4L, 2L), batchSizes);
+    assertEquals(Arrays.asList(3L, 7L, 9L), endOfBatchSequences);
+  }
+
+  @Test
+  public void shouldPublishProgressWithinBatch() throws Exception {
+    final List<Long> progress = new ArrayList<Long>();
+    final CountDownLatch eventLatch = new CountDownLatch(10);
+    final Sequence[] processorSequence = new Sequence[1];
+
+    final BatchEventProcessor<StubEvent> batchEventProcessor =
+        new BatchEventProcessor<StubEvent>(
+            ringBuffer,
+            sequenceBarrier,
+            new EventHandler<StubEvent>() {
+              @Override
+              public void onEvent(StubEvent event, long sequence, boolean endOfBatch) {
+                progress.add(processorSequence[0].get());
+                eventLatch.countDown();
+              }
+            });
+    processorSequence[0] = batchEventProcessor.getSequence();
+    batchEventProcessor.setProgressInterval(3);
+
+    for (int i = 0; i < 10; i++) {
+      ringBuffer.publish(ringBuffer.next());
+    }
+
+    Thread thread = new Thread(batchEventProcessor);
+    thread.start();
+    eventLatch.await();
+
+    batchEventProcessor.halt();
+    thread.join();
+
+    assertEquals(Arrays.asList(-1L, -1L, -1L, 2L, 2L, 2L, 5L, 5L, 5L, 8L), progress);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectMaxBatchSizeLessThanOne() {
+    final BatchEventProcessor<StubEvent> batchEventProcessor =
+        new BatchEventProcessor<StubEvent>(
+            ringBuffer,
+            sequenceBarrier,
+            new EventHandler<StubEvent>() {
+              @Override
+              public void onEvent(StubEvent event, long sequence, boolean endOfBatch) {}
+            });
+
+    batchEventProcessor.setMaxBatchSize(0);
+  }
+
+  @Test
+  public void shouldPassAvailableRangeToBatchEventHandler() throws Exception {
+    final List<Long> batches = new ArrayList<Long>();
+    final CountDownLatch eventLatch = new CountDownLatch(10);
+
+    final BatchEventProcessor<StubEvent> batchEventProcessor =
+        new BatchEventProcessor<StubEvent>(
+            ringBuffer,
+            sequenceBarrier,
+            new BatchEventHandler<StubEvent>() {
+              @Override
+              public void onBatch(EventBatch<StubEvent> batch) {
+                batches.add(batch.getStartSequence());
+                batches.add(batch.getEndSequence());
+                for (int i = 0; i < batch.size(); i++) {
+                  assertEquals(batch.getStartSequence() + i, batch.get(i).getValue());
+                  eventLatch.countDown();
+                }
+              }
+            });
+    batchEventProcessor.setMaxBatchSize(6);
+
+    for (int i = 0; i < 10; i++) {
+      ringBuffer.publishEvent(StubEvent.TRANSLATOR, i, "");
+    }
+
+    Thread thread = new Thread(batchEventProcessor);
+    thread.start();
+    assertTrue(eventLatch.await(2, TimeUnit.SECONDS));
+
+    batchEventProcessor.halt();
+    thread.join();
+
+    assertEquals(Arrays.asList(0L, 5L, 6L, 9L), batches);
+  }
+
+  @Test
+  public void shouldSkipBatchOnUncaughtExceptionFromBatchEventHandler() throws Exception {
+    final CountDownLatch exceptionLatch = new CountDownLatch(1);
+    final CountDownLatch eventLatch = new CountDownLatch(1);
+    final List<Long> startSequences = new ArrayList<Long>();
+
+    final BatchEventProcessor<StubEvent> batchEventProcessor =
+        new BatchEventProcessor<StubEvent>(
+            ringBuffer,
+            sequenceBarrier,
+            new BatchEventHandler<StubEvent>() {
+              @Override
+              public void onBatch(EventBatch<StubEvent> batch) {
+                startSequences.add(batch.getStartSequence());
+                if (batch.getStartSequence() == 0L) {
+                  throw new NullPointerException();
+                }
+                eventLatch.countDown();
+              }
+            });
+    batchEventProcessor.setExceptionHandler(new LatchExceptionHandler(exceptionLatch));
+
+    ringBuffer.publish(ringBuffer.next());
+    ringBuffer.publish(ringBuffer.next());
+
+    Thread thread = new Thread(batchEventProcessor);
+    thread.start();
+    assertTrue(exceptionLatch.await(2, TimeUnit.SECONDS));
+
+    ringBuffer.publish(ringBuffer.next());
+    assertTrue(eventLatch.await(2, TimeUnit.SECONDS));
+
+    batchEventProcessor.halt();
+    thread.join();
+
+    assertEquals(Arrays.asList(0L, 2L), startSequences);
+  }
+
   @Test
   public void shouldAlwaysHalt() throws InterruptedException {
     WaitStrategy waitStrategy = new BusySpinWaitStrategy();
     final SingleProducerSequencer sequencer = new SingleProducerSequencer(8, waitStrategy);
     final ProcessingSequenceBarrier barrier =
-        new ProcessingSequenceBarrier(sequencer, waitStrategy, new Sequence(-1), new Sequence[0]);
+        new ProcessingSequenceBarrier(
+            sequencer,
+            waitStrategy,
+            new SleepingProducerWaitStrategy(),
+            new Sequence(-1),
+            new Sequence[0]);
     DataProvider<Object> dp =
         new DataProvider<Object>() {
           @Override
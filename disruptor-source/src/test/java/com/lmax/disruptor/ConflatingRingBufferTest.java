@@ -0,0 +1,169 @@
+/*
+ * Copyright 2012 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import com.lmax.disruptor.dsl.ProducerType;
+import com.lmax.disruptor.util.DaemonThreadFactory;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class ConflatingRingBufferTest {
+  private static final int KEYS = 20;
+
+  private final ConflatingRingBuffer<Integer, Long> ringBuffer =
+      ConflatingRingBuffer.create(ProducerType.SINGLE, 32, new BlockingWaitStrategy());
+
+  @Test
+  public void shouldKeepOnlyLatestPendingValuePerKey() throws Exception {
+    final Map<Integer, Long> received = new HashMap<Integer, Long>();
+    final CountDownLatch latch = new CountDownLatch(KEYS);
+    BatchEventProcessor<ConflatingRingBuffer.Update<Integer, Long>> processor =
+        ringBuffer.newEventProcessor(
+            new EventHandler<ConflatingRingBuffer.Update<Integer, Long>>() {
+              @Override
+              public void onEvent(
+                  ConflatingRingBuffer.Update<Integer, Long> event,
+                  long sequence,
+                  boolean endOfBatch) {
+                received.put(event.getKey(), event.getValue());
+                latch.countDown();
+              }
+            });
+
+    for (long i = 0; i < 5000; i++) {
+      ringBuffer.publish((int) (i % KEYS), i);
+    }
+
+    assertThat(ringBuffer.getRingBuffer().getCursor(), is(KEYS - 1L));
+    assertThat(ringBuffer.getPendingCount(), is(KEYS));
+
+    Thread thread = DaemonThreadFactory.INSTANCE.newThread(processor);
+    thread.start();
+    assertTrue(latch.await(2, TimeUnit.SECONDS));
+    processor.halt();
+    thread.join();
+
+    assertThat(ringBuffer.getPendingCount(), is(0));
+    for (int key = 0; key < KEYS; key++) {
+      assertThat(received.get(key), is(5000L - KEYS + key));
+    }
+  }
+
+  @Test
+  public void shouldTakeNewSlotOnceValueHasBeenTaken() throws Exception {
+    final CountDownLatch latch = new CountDownLatch(2);
+    final long[] values = new long[2];
+    BatchEventProcessor<ConflatingRingBuffer.Update<Integer, Long>> processor =
+        ringBuffer.newEventProcessor(
+            new EventHandler<ConflatingRingBuffer.Update<Integer, Long>>() {
+              @Override
+              public void onEvent(
+                  ConflatingRingBuffer.Update<Integer, Long> event,
+                  long sequence,
+                  boolean endOfBatch) {
+                values[(int) sequence] = event.getValue();
+                latch.countDown();
+              }
+            });
+    Thread thread = DaemonThreadFactory.INSTANCE.newThread(processor);
+    thread.start();
+
+    ringBuffer.publish(1, 10L);
+    while (processor.getSequence().get() < 0) {
+      Thread.yield();
+    }
+    ringBuffer.publish(1, 11L);
+
+    assertTrue(latch.await(2, TimeUnit.SECONDS));
+    processor.halt();
+    thread.join();
+    assertThat(values[0], is(10L));
+    assertThat(values[1], is(11L));
+  }
+
+  @Test
+  public void shouldNotTakeNewerValueWhenReportingFailedEvent() throws Exception {
+    final CountDownLatch inEventLatch = new CountDownLatch(1);
+    final CountDownLatch releaseLatch = new CountDownLatch(1);
+    final CountDownLatch latch = new CountDownLatch(2);
+    final Long[] values = new Long[2];
+    BatchEventProcessor<ConflatingRingBuffer.Update<Integer, Long>> processor =
+        ringBuffer.newEventProcessor(
+            new EventHandler<ConflatingRingBuffer.Update<Integer, Long>>() {
+              @Override
+              public void onEvent(
+                  ConflatingRingBuffer.Update<Integer, Long> event,
+                  long sequence,
+                  boolean endOfBatch)
+                  throws Exception {
+                if (sequence == 0) {
+                  inEventLatch.countDown();
+                  releaseLatch.await();
+                  throw new IllegalStateException();
+                }
+                values[(int) sequence] = event.getValue();
+                latch.countDown();
+              }
+            });
+    processor.setExceptionHandler(
+        new ExceptionHandler<ConflatingRingBuffer.Update<Integer, Long>>() {
+          @Override
+          public void handleEventException(
+              Throwable ex, long sequence, ConflatingRingBuffer.Update<Integer, Long> event) {
+            values[(int) sequence] = event.getValue();
+            latch.countDown();
+          }
+
+          @Override
+          public void handleOnStartException(Throwable ex) {}
+
+          @Override
+          public void handleOnShutdownException(Throwable ex) {}
+        });
+
+    ringBuffer.publish(1, 10L);
+    Thread thread = DaemonThreadFactory.INSTANCE.newThread(processor);
+    thread.start();
+    assertTrue(inEventLatch.await(2, TimeUnit.SECONDS));
+    ringBuffer.publish(1, 11L);
+    releaseLatch.countDown();
+
+    assertTrue(latch.await(2, TimeUnit.SECONDS));
+    processor.halt();
+    thread.join();
+    assertThat(values[0], is(10L));
+    assertThat(values[1], is(11L));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void shouldOnlyAllowOneConsumer() throws Exception {
+    EventHandler<Object> handler =
+        new EventHandler<Object>() {
+          @Override
+          public void onEvent(Object event, long sequence, boolean endOfBatch) {}
+        };
+    ringBuffer.newEventProcessor(handler);
+    ringBuffer.newEventProcessor(handler);
+  }
+}
@@ -21,12 +21,21 @@ public class DisruptorStressTest {
 
   @Test
   public void shouldHandleLotsOfThreads() throws Exception {
+    shouldHandleLotsOfThreads(ProducerType.MULTI);
+  }
+
+  @Test
+  public void shouldHandleLotsOfThreadsClaimingWithFetchAndAdd() throws Exception {
+    shouldHandleLotsOfThreads(ProducerType.MULTI_FETCH_AND_ADD);
+  }
+
+  private void shouldHandleLotsOfThreads(ProducerType producerType) throws Exception {
     Disruptor<TestEvent> disruptor =
         new Disruptor<TestEvent>(
             TestEvent.FACTORY,
             1 << 16,
             DaemonThreadFactory.INSTANCE,
-            ProducerType.MULTI,
+            producerType,
             new BusySpinWaitStrategy());
     RingBuffer<TestEvent> ringBuffer = disruptor.getRingBuffer();
     disruptor.setDefaultExceptionHandler(new FatalExceptionHandler());
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2012 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import com.lmax.disruptor.support.StubEvent;
+import com.lmax.disruptor.util.DaemonThreadFactory;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ElasticRingBufferTest {
+  private final Sequence gatingSequence = new Sequence();
+
+  @Test
+  public void shouldGrowInsteadOfWaitingWhenFull() throws Exception {
+    ElasticRingBuffer<StubEvent> ringBuffer =
+        ElasticRingBuffer.create(StubEvent.EVENT_FACTORY, 4, 16, false, new BlockingWaitStrategy());
+    ringBuffer.addGatingSequences(gatingSequence);
+
+    for (int i = 0; i < 10; i++) {
+      publish(ringBuffer, i);
+    }
+
+    assertThat(ringBuffer.getBufferSize(), is(16));
+    assertThat(ringBuffer.getCursor(), is(9L));
+    for (int i = 0; i < 10; i++) {
+      assertThat(ringBuffer.get(i).getValue(), is(i));
+    }
+  }
+
+  @Test
+  public void shouldWaitOnceMaximumCapacityIsFull() throws Exception {
+    ElasticRingBuffer<StubEvent> ringBuffer =
+        ElasticRingBuffer.create(StubEvent.EVENT_FACTORY, 2, 4, false, new BlockingWaitStrategy());
+    ringBuffer.addGatingSequences(gatingSequence);
+
+    for (int i = 0; i < 4; i++) {
+      publish(ringBuffer, i);
+    }
+
+    assertThat(ringBuffer.tryClaim(1), is(Sequenced.INSUFFICIENT_CAPACITY));
+    assertFalse(ringBuffer.hasAvailableCapacity(1));
+    try {
+      ringBuffer.next(1, 10, TimeUnit.MILLISECONDS);
+      fail("Should of thrown: " + TimeoutException.class.getSimpleName());
+    } catch (TimeoutException e) {
+      // No-op
+    }
+
+    gatingSequence.set(0L);
+    assertThat(ringBuffer.tryClaim(1), is(4L));
+    assertThat(ringBuffer.getBufferSize(), is(4));
+  }
+
+  @Test
+  public void shouldShrinkBackToInitialCapacityWhenIdle() throws Exception {
+    ElasticRingBuffer<StubEvent> ringBuffer =
+        ElasticRingBuffer.create(StubEvent.EVENT_FACTORY, 4, 16, true, new BlockingWaitStrategy());
+    ringBuffer.addGatingSequences(gatingSequence);
+
+    for (int i = 0; i < 16; i++) {
+      publish(ringBuffer, i);
+    }
+    assertThat(ringBuffer.getBufferSize(), is(16));
+    gatingSequence.set(15L);
+
+    for (int i = 16; i < 128; i++) {
+      publish(ringBuffer, i);
+      gatingSequence.set(i);
+    }
+
+    assertThat(ringBuffer.getBufferSize(), is(4));
+    assertThat(ringBuffer.get(127).getValue(), is(127));
+  }
+
+  @Test
+  public void shouldKeepEventsAvailableToSlowConsumerWhileResizing() throws Exception {
+    final ElasticRingBuffer<StubEvent> ringBuffer =
+        ElasticRingBuffer.create(StubEvent.EVENT_FACTORY, 4, 64, true, new BlockingWaitStrategy());
+    final int count = 20000;
+    final CountDownLatch latch = new CountDownLatch(1);
+    final AtomicInteger mismatches = new AtomicInteger();
+
+    BatchEventProcessor<StubEvent> processor =
+        new BatchEventProcessor<StubEvent>(
+            ringBuffer,
+            ringBuffer.newBarrier(),
+            new EventHandler<StubEvent>() {
+              @Override
+              public void onEvent(StubEvent event, long sequence, boolean endOfBatch) {
+                if (event.getValue() != sequence) {
+                  mismatches.incrementAndGet();
+                }
+                if (sequence % 1000 < 50) {
+                  LockSupport.parkNanos(1000);
+                }
+                if (sequence == count - 1) {
+                  latch.countDown();
+                }
+              }
+            });
+    ringBuffer.addGatingSequences(processor.getSequence());
+    Thread thread = DaemonThreadFactory.INSTANCE.newThread(processor);
+    thread.start();
+
+    for (int i = 0; i < count; i++) {
+      publish(ringBuffer, i);
+    }
+
+    assertTrue(latch.await(10, TimeUnit.SECONDS));
+    processor.halt();
+    thread.join();
+    assertThat(mismatches.get(), is(0));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectMaximumBelowInitialCapacity() throws Exception {
+    ElasticRingBuffer.create(StubEvent.EVENT_FACTORY, 8, 4, false, new BlockingWaitStrategy());
+  }
+
+  private static void publish(ElasticRingBuffer<StubEvent> ringBuffer, int value) {
+    long sequence = ringBuffer.next();
+    ringBuffer.get(sequence).setValue(value);
+    ringBuffer.publish(sequence);
+  }
+}
@@ -34,4 +34,17 @@ public class FixedSequenceGroupTest {
     sequence1.set(48);
     assertThat(group.get(), is(47L));
   }
+
+  @Test
+  public void shouldReturnMinimumOfSequenceArray() throws Exception {
+    SequenceArray sequences = new SequenceArray(3, 10L);
+    Sequence group = new FixedSequenceGroup(sequences);
+
+    assertThat(group.get(), is(10L));
+    sequences.set(0, 12L);
+    sequences.set(1, 11L);
+    assertThat(group.get(), is(10L));
+    sequences.set(2, 13L);
+    assertThat(group.get(), is(11L));
+  }
 }
@@ -0,0 +1,263 @@
+/*
+ * Copyright 2012 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import com.lmax.disruptor.support.StubEvent;
+import com.lmax.disruptor.util.DaemonThreadFactory;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class MultiBufferBatchEventProcessorTest {
+  private static final int LANES = 3;
+  private static final int EVENTS_PER_LANE = 10000;
+
+  @SuppressWarnings("unchecked")
+  private final RingBuffer<StubEvent>[] lanes = new RingBuffer[LANES];
+
+  private final SequenceBarrier[] barriers = new SequenceBarrier[LANES];
+
+  public MultiBufferBatchEventProcessorTest() {
+    for (int i = 0; i < LANES; i++) {
+      lanes[i] = RingBuffer.createSingleProducer(StubEvent.EVENT_FACTORY, 64);
+      barriers[i] = lanes[i].newBarrier();
+    }
+  }
+
+  @Test
+  public void shouldMergeLanesKeepingTheOrderOfEachLane() throws Exception {
+    final int[] lastValues = {-1, -1, -1};
+    final int[] outOfOrder = new int[1];
+    final CountDownLatch latch = new CountDownLatch(LANES * EVENTS_PER_LANE);
+
+    MultiBufferBatchEventProcessor<StubEvent> processor =
+        newProcessor(
+            new EventHandler<StubEvent>() {
+              @Override
+              public void onEvent(StubEvent event, long sequence, boolean endOfBatch) {
+                int lane = Integer.parseInt(event.getTestString());
+                if (event.getValue() != lastValues[lane] + 1) {
+                  outOfOrder[0]++;
+                }
+                lastValues[lane] = event.getValue();
+                latch.countDown();
+              }
+            });
+    Thread consumer = DaemonThreadFactory.INSTANCE.newThread(processor);
+    consumer.start();
+
+    Thread[] producers = new Thread[LANES];
+    for (int i = 0; i < LANES; i++) {
+      final RingBuffer<StubEvent> lane = lanes[i];
+      final String name = String.valueOf(i);
+      producers[i] =
+          DaemonThreadFactory.INSTANCE.newThread(
+              new Runnable() {
+                @Override
+                public void run() {
+                  for (int value = 0; value < EVENTS_PER_LANE; value++) {
+                    lane.publishEvent(StubEvent.TRANSLATOR, value, name);
+                  }
+                }
+              });
+      producers[i].start();
+    }
+
+    assertTrue(latch.await(10, TimeUnit.SECONDS));
+    processor.halt();
+    consumer.join();
+
+    assertThat(outOfOrder[0], is(0));
+    for (int i = 0; i < LANES; i++) {
+      assertThat(processor.getSequences()[i].get(), is(EVENTS_PER_LANE - 1L));
+    }
+  }
+
+  @Test
+  public void shouldContinueWithLaneAfterException() throws Exception {
+    final CountDownLatch latch = new CountDownLatch(1);
+    MultiBufferBatchEventProcessor<StubEvent> processor =
+        newProcessor(
+            new EventHandler<StubEvent>() {
+              @Override
+              public void onEvent(StubEvent event, long sequence, boolean endOfBatch) {
+                if (sequence == 0) {
+                  throw new IllegalStateException();
+                }
+                latch.countDown();
+              }
+            });
+    processor.setExceptionHandler(new IgnoreExceptionHandler());
+    Thread consumer = DaemonThreadFactory.INSTANCE.newThread(processor);
+    consumer.start();
+
+    lanes[1].publishEvent(StubEvent.TRANSLATOR, 0, "1");
+    lanes[1].publishEvent(StubEvent.TRANSLATOR, 1, "1");
+
+    assertTrue(latch.await(2, TimeUnit.SECONDS));
+    processor.halt();
+    consumer.join();
+    assertThat(processor.getSequences()[1].get(), is(1L));
+  }
+
+  @Test
+  public void shouldDrainHigherPriorityLaneFirst() throws Exception {
+    final List<String> order = new ArrayList<String>();
+    MultiBufferBatchEventProcessor<StubEvent> processor = newRecordingProcessor(order);
+    processor.setStrictPriority(4);
+
+    publish(2, 8);
+    publish(1, 8);
+    publish(0, 2);
+    drain(processor, order, 18);
+
+    assertThat(order.subList(0, 4), is(Arrays.asList("0", "0", "1", "1")));
+    assertThat(order.subList(8, 12), is(Arrays.asList("1", "1", "2", "2")));
+  }
+
+  @Test
+  public void shouldShareHandlerByWeight() throws Exception {
+    final List<String> order = new ArrayList<String>();
+    MultiBufferBatchEventProcessor<StubEvent> processor = newRecordingProcessor(order);
+    processor.setWeights(3, 1, 2);
+
+    publish(0, 12);
+    publish(1, 12);
+    publish(2, 12);
+    drain(processor, order, 36);
+
+    assertThat(order.subList(0, 6), is(Arrays.asList("0", "0", "0", "1", "2", "2")));
+    assertThat(order.subList(6, 12), is(Arrays.asList("0", "0", "0", "1", "2", "2")));
+  }
+
+  @Test
+  public void shouldBlockOnSharedWaitStrategyWhenIdle() throws Exception {
+    final BlockingWaitStrategy waitStrategy = new BlockingWaitStrategy();
+    for (int i = 0; i < LANES; i++) {
+      lanes[i] = RingBuffer.createSingleProducer(StubEvent.EVENT_FACTORY, 64, waitStrategy);
+      barriers[i] = lanes[i].newBarrier();
+    }
+    final CountDownLatch latch = new CountDownLatch(2);
+    MultiBufferBatchEventProcessor<StubEvent> processor =
+        newProcessor(
+            new EventHandler<StubEvent>() {
+              @Override
+              public void onEvent(StubEvent event, long sequence, boolean endOfBatch) {
+                latch.countDown();
+              }
+            });
+    processor.setIdleWaitStrategy(waitStrategy);
+    Thread consumer = DaemonThreadFactory.INSTANCE.newThread(processor);
+    consumer.start();
+
+    long timeOutAt = System.currentTimeMillis() + 2000;
+    while (consumer.getState() != Thread.State.WAITING
+        && System.currentTimeMillis() < timeOutAt) {
+      Thread.yield();
+    }
+    assertThat(consumer.getState(), is(Thread.State.WAITING));
+
+    publish(2, 1);
+    publish(1, 1);
+    assertTrue(latch.await(2, TimeUnit.SECONDS));
+
+    processor.halt();
+    consumer.join(2000);
+    assertThat(consumer.isAlive(), is(false));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRequireWeightForEveryLane() throws Exception {
+    newProcessor(new IgnoringHandler()).setWeights(1, 2);
+  }
+
+  @Test
+  public void shouldHaveSequenceOfSlowestLane() throws Exception {
+    MultiBufferBatchEventProcessor<StubEvent> processor = newProcessor(new IgnoringHandler());
+    processor.getSequences()[0].set(5L);
+    processor.getSequences()[1].set(3L);
+    processor.getSequences()[2].set(7L);
+
+    assertThat(processor.getSequence().get(), is(3L));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void shouldNotSetSequenceOfAllLanes() throws Exception {
+    newProcessor(new IgnoringHandler()).getSequence().set(1L);
+  }
+
+  private void publish(int lane, int count) {
+    for (int i = 0; i < count; i++) {
+      lanes[lane].publishEvent(StubEvent.TRANSLATOR, i, String.valueOf(lane));
+    }
+  }
+
+  private MultiBufferBatchEventProcessor<StubEvent> newRecordingProcessor(
+      final List<String> order) {
+    return newProcessor(
+        new EventHandler<StubEvent>() {
+          @Override
+          public void onEvent(StubEvent event, long sequence, boolean endOfBatch) {
+            synchronized (order) {
+              order.add(event.getTestString());
+            }
+          }
+        });
+  }
+
+  private void drain(
+      MultiBufferBatchEventProcessor<StubEvent> processor, List<String> order, int count)
+      throws Exception {
+    Thread consumer = DaemonThreadFactory.INSTANCE.newThread(processor);
+    consumer.start();
+
+    long timeOutAt = System.currentTimeMillis() + 2000;
+    while (size(order) < count && System.currentTimeMillis() < timeOutAt) {
+      Thread.yield();
+    }
+    processor.halt();
+    consumer.join();
+    assertThat(order.size(), is(count));
+  }
+
+  private static int size(List<String> order) {
+    synchronized (order) {
+      return order.size();
+    }
+  }
+
+  private MultiBufferBatchEventProcessor<StubEvent> newProcessor(EventHandler<StubEvent> handler) {
+    MultiBufferBatchEventProcessor<StubEvent> processor =
+        new MultiBufferBatchEventProcessor<StubEvent>(lanes, barriers, handler);
+    for (int i = 0; i < LANES; i++) {
+      lanes[i].addGatingSequences(processor.getSequences()[i]);
+    }
+    return processor;
+  }
+
+  private static class IgnoringHandler implements EventHandler<StubEvent> {
+    @Override
+    public void onEvent(StubEvent event, long sequence, boolean endOfBatch) {}
+  }
+}
@@ -36,4 +36,31 @@ public class MultiProducerSequencerTest {
     assertThat(publisher.isAvailable(5), is(true));
     assertThat(publisher.isAvailable(6), is(false));
   }
+
+  @Test
+  public void shouldFindHighestPublishedSequenceAcrossPublishedRanges() throws Exception {
+    publisher.publish(0, 9);
+    publisher.publish(10);
+    publisher.publish(11, 19);
+    publisher.publish(25, 30);
+
+    assertThat(publisher.getHighestPublishedSequence(0, 30), is(19L));
+    assertThat(publisher.getHighestPublishedSequence(0, 14), is(14L));
+    assertThat(publisher.getHighestPublishedSequence(5, 30), is(19L));
+    assertThat(publisher.getHighestPublishedSequence(20, 30), is(19L));
+    assertThat(publisher.getHighestPublishedSequence(25, 40), is(30L));
+    assertThat(publisher.isAvailable(15), is(true));
+    assertThat(publisher.isAvailable(22), is(false));
+  }
+
+  @Test
+  public void shouldNotTreatRangesFromThePreviousLapAsPublished() throws Exception {
+    Sequencer sequencer = new MultiProducerSequencer(8, new BlockingWaitStrategy());
+    sequencer.publish(0, 7);
+    sequencer.publish(8, 9);
+
+    assertThat(sequencer.getHighestPublishedSequence(8, 15), is(9L));
+    assertThat(sequencer.isAvailable(9), is(true));
+    assertThat(sequencer.isAvailable(10), is(false));
+  }
 }
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2012 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class OffHeapRingBufferTest {
+  private final OffHeapRingBuffer ringBuffer =
+      OffHeapRingBuffer.createMultiProducer(16, 32, new BlockingWaitStrategy());
+
+  @Test
+  public void shouldWriteAndReadSlotValues() throws Exception {
+    OffHeapRingBuffer.Slot slot = ringBuffer.newSlot();
+    long sequence = ringBuffer.next();
+    slot.moveTo(sequence).putLong(0, 42L).putInt(8, 7).putDouble(16, 1.5d);
+    ringBuffer.publish(sequence);
+
+    OffHeapRingBuffer.Slot reader = ringBuffer.newDataProvider().get(sequence);
+    assertThat(reader.getSequence(), is(sequence));
+    assertThat(reader.getLong(0), is(42L));
+    assertThat(reader.getInt(8), is(7));
+    assertThat(reader.getDouble(16), is(1.5d));
+  }
+
+  @Test
+  public void shouldWrapSlotsByBufferSize() throws Exception {
+    OffHeapRingBuffer.Slot slot = ringBuffer.newSlot();
+    slot.moveTo(3).putLong(0, 3L);
+    slot.moveTo(3 + ringBuffer.getBufferSize()).putLong(0, 19L);
+
+    assertThat(ringBuffer.newSlot().moveTo(3).getLong(0), is(19L));
+  }
+
+  @Test
+  public void shouldCopyBytes() throws Exception {
+    byte[] expected = {1, 2, 3, 4};
+    byte[] actual = new byte[4];
+
+    OffHeapRingBuffer.Slot slot = ringBuffer.newSlot().moveTo(5);
+    slot.putBytes(28, expected, 0, 4).getBytes(28, actual, 0, 4);
+
+    assertArrayEquals(expected, actual);
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void shouldNotCopyBytesBeyondSlot() throws Exception {
+    ringBuffer.newSlot().moveTo(0).putBytes(30, new byte[4], 0, 4);
+  }
+
+  @Test
+  public void shouldNotWritePrimitivesBeyondSlot() throws Exception {
+    OffHeapRingBuffer.Slot slot = ringBuffer.newSlot();
+    slot.moveTo(1).putLong(0, 11L);
+
+    try {
+      slot.moveTo(0).putLong(28, 42L);
+      fail("expected IndexOutOfBoundsException");
+    } catch (IndexOutOfBoundsException expected) {
+      // the next slot is left untouched
+    }
+
+    assertThat(slot.moveTo(1).getLong(0), is(11L));
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void shouldNotReadPrimitivesBeyondSlot() throws Exception {
+    ringBuffer.newSlot().moveTo(0).getInt(29);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectSlotsThatDoNotFitInABuffer() throws Exception {
+    OffHeapRingBuffer.createSingleProducer(1 << 20, 1 << 12, new BlockingWaitStrategy());
+  }
+
+  @Test
+  public void shouldDeliverSlotsToBatchEventProcessor() throws Exception {
+    final int count = 100;
+    final long[] sum = new long[1];
+    final CountDownLatch latch = new CountDownLatch(count);
+
+    BatchEventProcessor<OffHeapRingBuffer.Slot> processor =
+        new BatchEventProcessor<OffHeapRingBuffer.Slot>(
+            ringBuffer.newDataProvider(),
+            ringBuffer.newBarrier(),
+            new EventHandler<OffHeapRingBuffer.Slot>() {
+              @Override
+              public void onEvent(OffHeapRingBuffer.Slot slot, long sequence, boolean endOfBatch)
+                  throws Exception {
+                sum[0] += slot.getLong(0);
+                latch.countDown();
+              }
+            });
+    ringBuffer.addGatingSequences(processor.getSequence());
+
+    Thread thread = new Thread(processor);
+    thread.start();
+
+    OffHeapRingBuffer.Slot slot = ringBuffer.newSlot();
+    EventTranslatorOneArg<OffHeapRingBuffer.Slot, Long> translator =
+        new EventTranslatorOneArg<OffHeapRingBuffer.Slot, Long>() {
+          @Override
+          public void translateTo(OffHeapRingBuffer.Slot event, long sequence, Long value) {
+            event.putLong(0, value);
+          }
+        };
+    for (long i = 0; i < count; i++) {
+      ringBuffer.publishEvent(slot, translator, i);
+    }
+
+    assertTrue(latch.await(2, TimeUnit.SECONDS));
+    processor.halt();
+    thread.join();
+
+    assertThat(sum[0], is((count * (count - 1L)) / 2));
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2012 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import com.lmax.disruptor.support.StubEvent;
+import com.lmax.disruptor.util.DaemonThreadFactory;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class OverwritingSequencerTest {
+  private static final int BUFFER_SIZE = 4;
+
+  @Test
+  public void shouldNeverWaitForGatingSequences() throws Exception {
+    OverwritingSequencer sequencer =
+        new OverwritingSequencer(BUFFER_SIZE, new BlockingWaitStrategy());
+    sequencer.addGatingSequences(new Sequence());
+
+    for (int i = 0; i < BUFFER_SIZE * 3; i++) {
+      sequencer.publish(sequencer.next());
+    }
+
+    assertThat(sequencer.getCursor(), is(BUFFER_SIZE * 3 - 1L));
+    assertThat(sequencer.remainingCapacity(), is((long) BUFFER_SIZE));
+    assertThat(sequencer.tryClaim(BUFFER_SIZE), is(BUFFER_SIZE * 4 - 1L));
+  }
+
+  @Test
+  public void shouldDetectOverwrittenSequences() throws Exception {
+    OverwritingSequencer sequencer =
+        new OverwritingSequencer(BUFFER_SIZE, new BlockingWaitStrategy());
+    sequencer.publish(sequencer.next(BUFFER_SIZE));
+
+    assertFalse(sequencer.isOverrun(0));
+    assertTrue(sequencer.isAvailable(0));
+
+    long next = sequencer.next();
+    assertTrue(sequencer.isOverrun(0));
+    assertFalse(sequencer.isAvailable(0));
+    assertFalse(sequencer.isOverrun(1));
+
+    sequencer.publish(next);
+    assertTrue(sequencer.isAvailable(next));
+  }
+
+  @Test
+  public void shouldSkipToNewestEventWhenLapped() throws Exception {
+    final RingBuffer<StubEvent> ringBuffer =
+        RingBuffer.createOverwriting(
+            StubEvent.EVENT_FACTORY, BUFFER_SIZE, new BlockingWaitStrategy());
+    final List<Long> handled = new ArrayList<Long>();
+    final long[] lost = new long[2];
+    final CountDownLatch latch = new CountDownLatch(2);
+
+    OverwritingEventProcessor<StubEvent> processor =
+        new OverwritingEventProcessor<StubEvent>(
+            ringBuffer, ringBuffer.newBarrier(), new LossyHandler(handled, lost, latch));
+    ringBuffer.addGatingSequences(processor.getSequence());
+
+    for (int i = 0; i < 10; i++) {
+      ringBuffer.publishEvent(StubEvent.TRANSLATOR, i, "");
+    }
+    Thread thread = DaemonThreadFactory.INSTANCE.newThread(processor);
+    thread.start();
+
+    while (processor.getSequence().get() < 9L) {
+      Thread.yield();
+    }
+    ringBuffer.publishEvent(StubEvent.TRANSLATOR, 10, "");
+
+    assertTrue(latch.await(2, TimeUnit.SECONDS));
+    processor.halt();
+    thread.join();
+
+    assertThat(lost[0], is(0L));
+    assertThat(lost[1], is(8L));
+    assertThat(handled.size(), is(2));
+    assertThat(handled.get(0), is(9L));
+    assertThat(handled.get(1), is(10L));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectRingBufferThatIsNotOverwriting() throws Exception {
+    RingBuffer<StubEvent> ringBuffer = RingBuffer.createSingleProducer(StubEvent.EVENT_FACTORY, 4);
+    new OverwritingEventProcessor<StubEvent>(
+        ringBuffer, ringBuffer.newBarrier(), new LossyHandler(null, null, null));
+  }
+
+  private static final class LossyHandler implements EventHandler<StubEvent>, OverrunHandler {
+    private final List<Long> handled;
+    private final long[] lost;
+    private final CountDownLatch latch;
+
+    LossyHandler(List<Long> handled, long[] lost, CountDownLatch latch) {
+      this.handled = handled;
+      this.lost = lost;
+      this.latch = latch;
+    }
+
+    @Override
+    public void onEvent(StubEvent event, long sequence, boolean endOfBatch) {
+      handled.add(sequence);
+      latch.countDown();
+    }
+
+    @Override
+    public void onOverrun(long firstLostSequence, long lastLostSequence) {
+      lost[0] = firstLostSequence;
+      lost[1] = lastLostSequence;
+    }
+  }
+}
@@ -0,0 +1,92 @@
+package com.lmax.disruptor;
+
+import com.lmax.disruptor.util.DaemonThreadFactory;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class PartitionedWorkerPoolTest {
+  private static final int KEYS = 16;
+  private static final int EVENTS_PER_KEY = 500;
+
+  @Test
+  public void shouldHandleEventsOfEachKeyInOrderOnOnePartition() throws Exception {
+    ExecutorService executor = Executors.newCachedThreadPool(DaemonThreadFactory.INSTANCE);
+    RecordingWorkHandler[] handlers = new RecordingWorkHandler[3];
+    for (int i = 0; i < handlers.length; i++) {
+      handlers[i] = new RecordingWorkHandler();
+    }
+    PartitionedWorkerPool<AtomicLong> pool =
+        new PartitionedWorkerPool<AtomicLong>(
+            new AtomicLongEventFactory(), new FatalExceptionHandler(), handlers);
+
+    pool.start(executor);
+    for (int i = 0; i < EVENTS_PER_KEY; i++) {
+      for (int key = 0; key < KEYS; key++) {
+        pool.publishEvent(Integer.valueOf(key), TRANSLATOR, (long) key * EVENTS_PER_KEY + i);
+      }
+    }
+    pool.drainAndHalt();
+    executor.shutdown();
+
+    int handled = 0;
+    for (int partition = 0; partition < handlers.length; partition++) {
+      long[] lastValueByKey = new long[KEYS];
+      Arrays.fill(lastValueByKey, -1L);
+      for (long value : handlers[partition].values) {
+        int key = (int) (value / EVENTS_PER_KEY);
+        assertThat(pool.partitionFor(Integer.valueOf(key)), is(partition));
+        assertTrue(value > lastValueByKey[key]);
+        lastValueByKey[key] = value;
+      }
+      handled += handlers[partition].values.size();
+    }
+    assertThat(handled, is(KEYS * EVENTS_PER_KEY));
+  }
+
+  @Test
+  public void shouldPartitionByKeyHash() {
+    PartitionedWorkerPool<AtomicLong> pool =
+        new PartitionedWorkerPool<AtomicLong>(
+            new AtomicLongEventFactory(),
+            new FatalExceptionHandler(),
+            new RecordingWorkHandler(),
+            new RecordingWorkHandler());
+
+    assertThat(pool.partitionFor("account-1"), is(pool.partitionFor("account-1")));
+    assertThat(pool.partitionFor(Integer.valueOf(3)), is(1));
+  }
+
+  private static final EventTranslatorOneArg<AtomicLong, Long> TRANSLATOR =
+      new EventTranslatorOneArg<AtomicLong, Long>() {
+        @Override
+        public void translateTo(AtomicLong event, long sequence, Long value) {
+          event.set(value);
+        }
+      };
+
+  private static class AtomicLongEventFactory implements EventFactory<AtomicLong> {
+    @Override
+    public AtomicLong newInstance() {
+      return new AtomicLong(0);
+    }
+  }
+
+  private static class RecordingWorkHandler implements WorkHandler<AtomicLong> {
+    private final List<Long> values = new ArrayList<Long>();
+
+    @Override
+    public void onEvent(AtomicLong event) throws Exception {
+      values.add(event.get());
+    }
+  }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2012 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import com.lmax.disruptor.dsl.ProducerType;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class PrimitiveRingBufferTest {
+  @Test
+  public void shouldPublishAndGetLongValues() throws Exception {
+    LongRingBuffer ringBuffer =
+        LongRingBuffer.create(ProducerType.SINGLE, 4, new BlockingWaitStrategy());
+    ringBuffer.publishEvent(7L);
+    ringBuffer.publishEvents(new long[] {1L, 2L, 3L, 4L}, 1, 3);
+
+    assertThat(ringBuffer.getCursor(), is(3L));
+    assertThat(ringBuffer.get(0), is(7L));
+    assertThat(ringBuffer.get(1), is(2L));
+    assertThat(ringBuffer.get(3), is(4L));
+  }
+
+  @Test
+  public void shouldNotTryPublishDoubleValueWhenFull() throws Exception {
+    DoubleRingBuffer ringBuffer =
+        DoubleRingBuffer.create(ProducerType.MULTI, 2, new BlockingWaitStrategy());
+    ringBuffer.addGatingSequences(new Sequence());
+
+    assertTrue(ringBuffer.tryPublishEvent(1.5d));
+    assertTrue(ringBuffer.tryPublishEvent(2.5d));
+    assertFalse(ringBuffer.tryPublishEvent(3.5d));
+    assertThat(ringBuffer.get(1), is(2.5d));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectBatchLargerThanBuffer() throws Exception {
+    LongRingBuffer.create(ProducerType.SINGLE, 4, new BlockingWaitStrategy())
+        .publishEvents(new long[8], 0, 8);
+  }
+
+  @Test
+  public void shouldDeliverLongValuesToProcessor() throws Exception {
+    final int count = 1000;
+    final long[] sum = new long[1];
+    final CountDownLatch latch = new CountDownLatch(count);
+    LongRingBuffer ringBuffer =
+        LongRingBuffer.create(ProducerType.SINGLE, 64, new BlockingWaitStrategy());
+
+    LongBatchEventProcessor processor =
+        new LongBatchEventProcessor(
+            ringBuffer,
+            ringBuffer.newBarrier(),
+            new LongEventHandler() {
+              @Override
+              public void onEvent(long value, long sequence, boolean endOfBatch) {
+                sum[0] += value;
+                latch.countDown();
+              }
+            });
+    ringBuffer.addGatingSequences(processor.getSequence());
+
+    Thread thread = new Thread(processor);
+    thread.start();
+
+    for (long i = 0; i < count; i++) {
+      ringBuffer.publishEvent(i);
+    }
+
+    assertTrue(latch.await(2, TimeUnit.SECONDS));
+    processor.halt();
+    thread.join();
+
+    assertThat(sum[0], is((count * (count - 1L)) / 2));
+  }
+
+  @Test
+  public void shouldLimitLongBatchSize() throws Exception {
+    final List<Long> endOfBatchSequences = new ArrayList<Long>();
+    final CountDownLatch latch = new CountDownLatch(10);
+    LongRingBuffer ringBuffer =
+        LongRingBuffer.create(ProducerType.SINGLE, 16, new BlockingWaitStrategy());
+    ringBuffer.publishEvents(new long[10], 0, 10);
+
+    LongBatchEventProcessor processor =
+        new LongBatchEventProcessor(
+            ringBuffer,
+            ringBuffer.newBarrier(),
+            new LongEventHandler() {
+              @Override
+              public void onEvent(long value, long sequence, boolean endOfBatch) {
+                if (endOfBatch) {
+                  endOfBatchSequences.add(sequence);
+                }
+                latch.countDown();
+              }
+            });
+    processor.setMaxBatchSize(4);
+
+    Thread thread = new Thread(processor);
+    thread.start();
+    assertTrue(latch.await(2, TimeUnit.SECONDS));
+    processor.halt();
+    thread.join();
+
+    assertThat(endOfBatchSequences, is(Arrays.asList(3L, 7L, 9L)));
+  }
+
+  @Test
+  public void shouldReportBoxedDoubleValueToExceptionHandler() throws Exception {
+    final CountDownLatch latch = new CountDownLatch(1);
+    final Object[] reported = new Object[1];
+    DoubleRingBuffer ringBuffer =
+        DoubleRingBuffer.create(ProducerType.SINGLE, 16, new BlockingWaitStrategy());
+
+    DoubleBatchEventProcessor processor =
+        new DoubleBatchEventProcessor(
+            ringBuffer,
+            ringBuffer.newBarrier(),
+            new DoubleEventHandler() {
+              @Override
+              public void onEvent(double value, long sequence, boolean endOfBatch) {
+                throw new IllegalStateException();
+              }
+            });
+    processor.setExceptionHandler(
+        new ExceptionHandler<Object>() {
+          @Override
+          public void handleEventException(Throwable ex, long sequence, Object event) {
+            reported[0] = event;
+            latch.countDown();
+          }
+
+          @Override
+          public void handleOnStartException(Throwable ex) {}
+
+          @Override
+          public void handleOnShutdownException(Throwable ex) {}
+        });
+
+    Thread thread = new Thread(processor);
+    thread.start();
+    ringBuffer.publishEvent(4.25d);
+
+    assertTrue(latch.await(2, TimeUnit.SECONDS));
+    processor.halt();
+    thread.join();
+
+    assertThat(reported[0], is((Object) 4.25d));
+  }
+}
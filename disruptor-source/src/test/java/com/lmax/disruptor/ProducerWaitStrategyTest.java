@@ -0,0 +1,129 @@
+/*
+ * Copyright 2012 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import com.lmax.disruptor.support.StubEvent;
+import com.lmax.disruptor.util.DaemonThreadFactory;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(Parameterized.class)
+public class ProducerWaitStrategyTest {
+  private static final int BUFFER_SIZE = 4;
+
+  private final ProducerWaitStrategy producerWaitStrategy;
+
+  public ProducerWaitStrategyTest(ProducerWaitStrategy producerWaitStrategy) {
+    this.producerWaitStrategy = producerWaitStrategy;
+  }
+
+  @Parameters
+  public static Collection<Object[]> generateData() {
+    Object[][] strategies = {
+      {new BusySpinProducerWaitStrategy()},
+      {new YieldingProducerWaitStrategy()},
+      {new SleepingProducerWaitStrategy()},
+      {PhasedBackoffProducerWaitStrategy.withLock(1, 1, TimeUnit.MILLISECONDS)},
+      // a wait this long would fail the test unless consumers wake the publisher
+      {new BlockingProducerWaitStrategy(1, TimeUnit.MINUTES)},
+    };
+    return Arrays.asList(strategies);
+  }
+
+  @Test
+  public void shouldReleasePublisherWhenConsumerAdvances() throws Exception {
+    final RingBuffer<StubEvent> ringBuffer =
+        RingBuffer.createMultiProducer(
+            StubEvent.EVENT_FACTORY,
+            BUFFER_SIZE,
+            new BlockingWaitStrategy(),
+            producerWaitStrategy);
+    final SequenceBarrier barrier = ringBuffer.newBarrier();
+    final Sequence consumerSequence = new Sequence();
+    ringBuffer.addGatingSequences(consumerSequence);
+    for (int i = 0; i < BUFFER_SIZE; i++) {
+      ringBuffer.publish(ringBuffer.next());
+    }
+
+    final CountDownLatch published = new CountDownLatch(1);
+    Thread publisher =
+        DaemonThreadFactory.INSTANCE.newThread(
+            new Runnable() {
+              @Override
+              public void run() {
+                ringBuffer.publish(ringBuffer.next());
+                published.countDown();
+              }
+            });
+    publisher.start();
+
+    assertFalse(published.await(50, TimeUnit.MILLISECONDS));
+
+    consumerSequence.set(0L);
+    barrier.signalProducers();
+
+    assertTrue(published.await(5, TimeUnit.SECONDS));
+    assertThat(ringBuffer.getCursor(), is((long) BUFFER_SIZE));
+  }
+
+  @Test(expected = TimeoutException.class)
+  public void shouldTimeOutWaitingForGatingSequence() throws Exception {
+    producerWaitStrategy.waitFor(0L, new Sequence(), TimeUnit.MILLISECONDS.toNanos(10));
+  }
+
+  @Test
+  public void shouldNotTimeOutWhenGatingSequenceHasReachedWrapPoint() throws Exception {
+    assertThat(producerWaitStrategy.waitFor(0L, new Sequence(3L), 0L), is(3L));
+  }
+
+  @Test
+  public void shouldPreserveInterruptStatusWhileWaiting() throws Exception {
+    final Sequence gatingSequence = new Sequence();
+    final boolean[] interrupted = new boolean[1];
+    final CountDownLatch done = new CountDownLatch(1);
+    Thread waiter =
+        DaemonThreadFactory.INSTANCE.newThread(
+            new Runnable() {
+              @Override
+              public void run() {
+                producerWaitStrategy.waitFor(0L, gatingSequence);
+                interrupted[0] = Thread.currentThread().isInterrupted();
+                done.countDown();
+              }
+            });
+    waiter.start();
+
+    waiter.interrupt();
+    Thread.sleep(20);
+    gatingSequence.set(0L);
+    producerWaitStrategy.signalAllWhenBlocking();
+
+    assertTrue(done.await(5, TimeUnit.SECONDS));
+    assertTrue(interrupted[0]);
+  }
+}
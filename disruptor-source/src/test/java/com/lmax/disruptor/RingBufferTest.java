@@ -61,6 +61,28 @@ public class RingBufferTest {
     assertThat(ringBuffer.getMinimumGatingSequence(), is(7L));
   }
 
+  @Test
+  public void shouldAddGatingSequenceAtValueNotBehindSlowestSequence() throws Exception {
+    RingBuffer<Object[]> ringBuffer = RingBuffer.createSingleProducer(new ArrayFactory(1), 16);
+
+    Sequence sequenceThree = new Sequence(-1);
+    ringBuffer.addGatingSequences(sequenceThree);
+
+    for (int i = 0; i < 10; i++) {
+      ringBuffer.publish(ringBuffer.next());
+    }
+    sequenceThree.set(3);
+
+    Sequence sequenceFive = new Sequence();
+    assertTrue(ringBuffer.addGatingSequence(sequenceFive, 5));
+    assertThat(sequenceFive.get(), is(5L));
+
+    Sequence sequenceTwo = new Sequence();
+    assertFalse(ringBuffer.addGatingSequence(sequenceTwo, 2));
+    assertFalse(ringBuffer.removeGatingSequence(sequenceTwo));
+    assertThat(ringBuffer.getMinimumGatingSequence(), is(3L));
+  }
+
   @Test
   public void shouldClaimAndGet() throws Exception {
     assertEquals(SingleProducerSequencer.INITIAL_CURSOR_VALUE, ringBuffer.getCursor());
@@ -860,6 +882,45 @@ public class RingBufferTest {
     assertFalse(ringBuffer.tryPublishEvent(StubEvent.TRANSLATOR, 3, "3"));
   }
 
+  @Test
+  public void shouldPublishAsManyEventsAsFit() throws Exception {
+    Sequence sequence = new Sequence(Sequencer.INITIAL_CURSOR_VALUE);
+    final RingBuffer<StubEvent> ringBuffer = createMultiProducer(StubEvent.EVENT_FACTORY, 4);
+    ringBuffer.addGatingSequences(sequence);
+    Integer[] values = {0, 1, 2, 3, 4, 5};
+    String[] strings = {"0", "1", "2", "3", "4", "5"};
+    EventTranslatorTwoArg<StubEvent, Integer, String> translator = StubEvent.TRANSLATOR;
+
+    assertThat(ringBuffer.tryPublishEventsPartial(translator, 0, 3, values, strings), is(3));
+    assertThat(ringBuffer.tryPublishEventsPartial(translator, 3, 3, values, strings), is(1));
+    assertThat(ringBuffer.tryPublishEventsPartial(translator, 4, 2, values, strings), is(0));
+    assertThat(ringBuffer.getCursor(), is(3L));
+    assertThat(ringBuffer.get(3).getValue(), is(3));
+
+    sequence.set(1L);
+    assertThat(ringBuffer.tryPublishEventsPartial(translator, 4, 2, values, strings), is(2));
+    assertThat(ringBuffer.get(5).getTestString(), is("5"));
+  }
+
+  @Test
+  public void shouldGiveUpPublishingWhenNoCapacityWithinTimeout() throws Exception {
+    Sequence sequence = new Sequence(Sequencer.INITIAL_CURSOR_VALUE);
+    final RingBuffer<StubEvent> ringBuffer = createMultiProducer(StubEvent.EVENT_FACTORY, 4);
+    ringBuffer.addGatingSequences(sequence);
+
+    for (int i = 0; i < 4; i++) {
+      assertTrue(
+          ringBuffer.tryPublishEvent(StubEvent.TRANSLATOR, i, "" + i, 1, TimeUnit.MILLISECONDS));
+    }
+
+    assertFalse(ringBuffer.tryPublishEvent(StubEvent.TRANSLATOR, 4, "4", 1, TimeUnit.MILLISECONDS));
+    assertThat(ringBuffer.getCursor(), is(3L));
+
+    sequence.set(0L);
+    assertTrue(ringBuffer.tryPublishEvent(StubEvent.TRANSLATOR, 4, "4", 1, TimeUnit.MILLISECONDS));
+    assertThat(ringBuffer.get(4).getValue(), is(4));
+  }
+
   @Test
   public void shouldPublishEvent() throws Exception {
     RingBuffer<Object[]> ringBuffer = RingBuffer.createSingleProducer(new ArrayFactory(1), 4);
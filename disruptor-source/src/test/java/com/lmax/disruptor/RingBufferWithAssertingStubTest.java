@@ -5,6 +5,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
@@ -42,6 +43,12 @@ public class RingBufferWithAssertingStubTest {
     ringBuffer.publish(hi - 9, hi);
   }
 
+  @Test
+  public void shouldDelegateTimedNextNAndPublish() throws Exception {
+    long hi = ringBuffer.next(10, 1, TimeUnit.SECONDS);
+    ringBuffer.publish(hi - 9, hi);
+  }
+
   private static final class AssertingSequencer implements Sequencer {
     private final int size;
     private long lastBatchSize = -1;
@@ -54,6 +61,11 @@ public class RingBufferWithAssertingStubTest {
     @Override
     public void addGatingSequences(Sequence... gatingSequences) {}
 
+    @Override
+    public boolean addGatingSequence(Sequence gatingSequence, long initialValue) {
+      return true;
+    }
+
     @Override
     public void claim(long sequence) {}
 
@@ -111,6 +123,11 @@ public class RingBufferWithAssertingStubTest {
       return lastValue;
     }
 
+    @Override
+    public long next(int n, long timeout, TimeUnit unit) {
+      return next(n);
+    }
+
     @Override
     public void publish(long sequence) {
       assertThat(sequence, is(lastValue));
@@ -138,6 +155,11 @@ public class RingBufferWithAssertingStubTest {
       return next(n);
     }
 
+    @Override
+    public long tryClaim(int n) {
+      return next(n);
+    }
+
     @Override
     public long getCursor() {
       return lastValue;
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2012 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import com.lmax.disruptor.support.StubEvent;
+import com.lmax.disruptor.util.Util;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class SequenceArrayTest {
+  @Test
+  public void shouldStartWithInitialValue() {
+    SequenceArray sequences = new SequenceArray(4);
+
+    for (int i = 0; i < sequences.size(); i++) {
+      assertThat(sequences.get(i), is(-1L));
+    }
+  }
+
+  @Test
+  public void shouldKeepSequencesIndependent() {
+    SequenceArray sequences = new SequenceArray(3, 0L);
+
+    sequences.set(1, 5L);
+    sequences.setVolatile(2, 7L);
+
+    assertThat(sequences.get(0), is(0L));
+    assertThat(sequences.get(1), is(5L));
+    assertThat(sequences.get(2), is(7L));
+    assertThat(sequences.toString(), is("[0, 5, 7]"));
+  }
+
+  @Test
+  public void shouldCompareAndSetAndAdd() {
+    SequenceArray sequences = new SequenceArray(2, 0L);
+
+    assertTrue(sequences.compareAndSet(0, 0L, 3L));
+    assertFalse(sequences.compareAndSet(0, 0L, 4L));
+    assertThat(sequences.getAndAdd(1, 2L), is(0L));
+    assertThat(sequences.get(0), is(3L));
+    assertThat(sequences.get(1), is(2L));
+  }
+
+  @Test
+  public void shouldFindMinimumSequence() {
+    SequenceArray sequences = new SequenceArray(5, 10L);
+    for (int i = 0; i < sequences.size(); i++) {
+      sequences.set(i, 20L - i);
+    }
+
+    assertThat(Util.getMinimumSequence(sequences, Long.MAX_VALUE), is(16L));
+    assertThat(sequences.getMinimumSequence(3L), is(3L));
+  }
+
+  @Test
+  public void shouldWriteThroughSequenceView() {
+    SequenceArray sequences = new SequenceArray(2);
+    AtomicSequence view = sequences.getSequence(1);
+
+    assertThat(sequences.getSequence(1), sameInstance(view));
+    view.set(8L);
+    assertThat(sequences.get(1), is(8L));
+    assertThat(view.incrementAndGet(), is(9L));
+    assertTrue(view.compareAndSet(9L, 12L));
+    assertThat(sequences.get(1), is(12L));
+    assertThat(sequences.get(0), is(-1L));
+  }
+
+  @Test
+  public void shouldHoldBackBarrierOnSlowestSequence() {
+    RingBuffer<StubEvent> ringBuffer = RingBuffer.createSingleProducer(StubEvent.EVENT_FACTORY, 4);
+    SequenceArray sequences = new SequenceArray(2);
+    SequenceBarrier barrier = ringBuffer.newBarrier(new FixedSequenceGroup(sequences));
+
+    for (int i = 0; i < 4; i++) {
+      ringBuffer.publish(ringBuffer.next());
+    }
+    assertThat(barrier.getCursor(), is(-1L));
+
+    sequences.getSequence(0).set(1L);
+    assertThat(barrier.getCursor(), is(-1L));
+    sequences.getSequence(1).set(0L);
+    assertThat(barrier.getCursor(), is(0L));
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void shouldRejectIndexOutOfRange() {
+    new SequenceArray(2).get(2);
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class SequenceTest {
+  @Test
+  public void shouldUpdateValue() {
+    Sequence sequence = new Sequence();
+    assertThat(sequence.get(), is(Sequencer.INITIAL_CURSOR_VALUE));
+
+    sequence.set(4L);
+    assertThat(sequence.get(), is(4L));
+
+    sequence.setVolatile(5L);
+    assertThat(sequence.get(), is(5L));
+    assertThat(sequence.toString(), is("5"));
+  }
+
+  @Test
+  public void shouldAddAtomically() {
+    Sequence sequence = new Sequence(10L);
+
+    assertThat(sequence.incrementAndGet(), is(11L));
+    assertThat(sequence.addAndGet(4L), is(15L));
+    assertThat(sequence.getAndAdd(5L), is(15L));
+    assertThat(sequence.get(), is(20L));
+  }
+
+  @Test
+  public void shouldCompareAndSet() {
+    Sequence sequence = new Sequence(3L);
+
+    assertThat(sequence.compareAndSet(2L, 7L), is(false));
+    assertThat(sequence.compareAndSet(3L, 7L), is(true));
+    assertThat(sequence.get(), is(7L));
+  }
+
+  @Test
+  public void shouldLoadMultiReleaseClassesWhenRequested() {
+    String release = System.getProperty("disruptor.multiReleaseClasses");
+    if (release != null) {
+      assertThat(
+          Sequence.class.getProtectionDomain().getCodeSource().getLocation().toString(),
+          containsString("META-INF/versions/" + release));
+    }
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2012 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import com.lmax.disruptor.support.StubEvent;
+import com.lmax.disruptor.util.DaemonThreadFactory;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class SequenceTreeTest {
+  @Test
+  public void shouldTrackMinimumOfSingleLeaf() {
+    SequenceTree tree = new SequenceTree(1);
+
+    assertThat(tree.get(), is(-1L));
+    tree.getSequence(0).set(5L);
+    assertThat(tree.get(), is(5L));
+  }
+
+  @Test
+  public void shouldTrackMinimumAcrossLevels() {
+    SequenceTree tree = new SequenceTree(100, 0L);
+
+    for (int i = 0; i < tree.size(); i++) {
+      tree.getSequence(i).set(10L + i);
+    }
+    assertThat(tree.get(), is(10L));
+
+    tree.getSequence(0).set(200L);
+    assertThat(tree.get(), is(11L));
+
+    for (int i = 1; i < tree.size() - 1; i++) {
+      tree.getSequence(i).set(300L);
+    }
+    assertThat(tree.get(), is(109L));
+
+    tree.getSequence(tree.size() - 1).incrementAndGet();
+    assertThat(tree.get(), is(110L));
+  }
+
+  @Test
+  public void shouldReturnSameLeafView() {
+    SequenceTree tree = new SequenceTree(9);
+
+    assertThat(tree.getSequence(8), sameInstance(tree.getSequence(8)));
+  }
+
+  @Test
+  public void shouldSetWholeTreeWhenAddedAsGatingSequence() {
+    RingBuffer<StubEvent> ringBuffer = RingBuffer.createSingleProducer(StubEvent.EVENT_FACTORY, 8);
+    ringBuffer.publish(ringBuffer.next());
+    ringBuffer.publish(ringBuffer.next());
+
+    SequenceTree tree = new SequenceTree(20);
+    ringBuffer.addGatingSequences(tree);
+
+    assertThat(tree.get(), is(1L));
+    assertThat(tree.getSequence(19).get(), is(1L));
+  }
+
+  @Test
+  public void shouldReachMinimumWhenLeavesAdvanceConcurrently() throws Exception {
+    final int leaves = 64;
+    final long target = 20000L;
+    final SequenceTree tree = new SequenceTree(leaves);
+    final CyclicBarrier start = new CyclicBarrier(4);
+    final CountDownLatch done = new CountDownLatch(4);
+
+    for (int t = 0; t < 4; t++) {
+      final int offset = t;
+      DaemonThreadFactory.INSTANCE
+          .newThread(
+              new Runnable() {
+                @Override
+                public void run() {
+                  try {
+                    start.await();
+                    for (long value = 0; value <= target; value++) {
+                      for (int i = offset; i < leaves; i += 4) {
+                        tree.getSequence(i).set(value);
+                      }
+                    }
+                  } catch (Exception e) {
+                    throw new RuntimeException(e);
+                  } finally {
+                    done.countDown();
+                  }
+                }
+              })
+          .start();
+    }
+
+    assertTrue(done.await(10, TimeUnit.SECONDS));
+    assertThat(tree.get(), is(target));
+  }
+
+  @Test
+  public void shouldGateRingBufferOnManyProcessors() throws Exception {
+    final int consumers = 24;
+    final int events = 10000;
+    final RingBuffer<StubEvent> ringBuffer =
+        RingBuffer.createSingleProducer(StubEvent.EVENT_FACTORY, 64, new YieldingWaitStrategy());
+    final SequenceBarrier barrier = ringBuffer.newBarrier();
+    final SequenceTree tree = new SequenceTree(consumers);
+    final CountDownLatch latch = new CountDownLatch(consumers * events);
+    final BatchEventProcessor<?>[] processors = new BatchEventProcessor[consumers];
+
+    for (int i = 0; i < consumers; i++) {
+      processors[i] =
+          new BatchEventProcessor<StubEvent>(
+              ringBuffer,
+              barrier,
+              new EventHandler<StubEvent>() {
+                @Override
+                public void onEvent(StubEvent event, long sequence, boolean endOfBatch) {
+                  latch.countDown();
+                }
+              },
+              tree.getSequence(i));
+    }
+    ringBuffer.addGatingSequences(tree);
+
+    for (BatchEventProcessor<?> processor : processors) {
+      DaemonThreadFactory.INSTANCE.newThread(processor).start();
+    }
+    for (int i = 0; i < events; i++) {
+      ringBuffer.publish(ringBuffer.next());
+    }
+
+    assertTrue(latch.await(10, TimeUnit.SECONDS));
+    for (BatchEventProcessor<?> processor : processors) {
+      processor.halt();
+    }
+    assertThat(tree.get(), is(events - 1L));
+  }
+}
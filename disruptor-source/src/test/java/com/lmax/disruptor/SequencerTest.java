@@ -13,6 +13,8 @@ import java.util.Collection;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.*;
@@ -38,6 +40,8 @@ public class SequencerTest {
         return new SingleProducerSequencer(bufferSize, waitStrategy);
       case MULTI:
         return new MultiProducerSequencer(bufferSize, waitStrategy);
+      case MULTI_FETCH_AND_ADD:
+        return new MultiProducerSequencer(bufferSize, waitStrategy, true);
       default:
         throw new IllegalStateException(producerType.toString());
     }
@@ -48,6 +52,7 @@ public class SequencerTest {
     Object[][] allocators = {
       {ProducerType.SINGLE, new BlockingWaitStrategy()},
       {ProducerType.MULTI, new BlockingWaitStrategy()},
+      {ProducerType.MULTI_FETCH_AND_ADD, new BlockingWaitStrategy()},
     };
     return Arrays.asList(allocators);
   }
@@ -103,7 +108,12 @@ public class SequencerTest {
         });
 
     waitingLatch.await();
-    assertThat(sequencer.getCursor(), is(expectedFullSequence));
+    if (producerType == ProducerType.MULTI_FETCH_AND_ADD) {
+      // the claim is taken before waiting for capacity, it must just not become available
+      assertFalse(sequencer.isAvailable(expectedFullSequence + 1L));
+    } else {
+      assertThat(sequencer.getCursor(), is(expectedFullSequence));
+    }
 
     gatingSequence.set(Sequencer.INITIAL_CURSOR_VALUE + 1L);
 
@@ -206,6 +216,57 @@ public class SequencerTest {
     sequencer.tryNext();
   }
 
+  @Test
+  public void shouldTimeOutClaimingWhenSequencerIsFull() throws Exception {
+    sequencer.addGatingSequences(gatingSequence);
+    for (int i = 0; i < BUFFER_SIZE; i++) {
+      sequencer.publish(sequencer.next());
+    }
+
+    try {
+      sequencer.next(1, 10, TimeUnit.MILLISECONDS);
+      fail("Should of thrown: " + TimeoutException.class.getSimpleName());
+    } catch (TimeoutException e) {
+      // No-op
+    }
+
+    assertThat(sequencer.remainingCapacity(), is(0L));
+
+    gatingSequence.set(1L);
+    assertThat(sequencer.next(2, 10, TimeUnit.MILLISECONDS), is(BUFFER_SIZE + 1L));
+  }
+
+  @Test
+  public void shouldWaitForCapacityWhenClaimingWithTimeout() throws Exception {
+    sequencer.addGatingSequences(gatingSequence);
+    for (int i = 0; i < BUFFER_SIZE; i++) {
+      sequencer.publish(sequencer.next());
+    }
+
+    executor.submit(
+        new Runnable() {
+          @Override
+          public void run() {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(20));
+            gatingSequence.set(0L);
+          }
+        });
+
+    assertThat(sequencer.next(1, 5, TimeUnit.SECONDS), is((long) BUFFER_SIZE));
+  }
+
+  @Test
+  public void shouldReturnSentinelWhenClaimingFromFullSequencer() throws Exception {
+    sequencer.addGatingSequences(gatingSequence);
+
+    assertThat(sequencer.tryClaim(BUFFER_SIZE), is(BUFFER_SIZE - 1L));
+    assertThat(sequencer.tryClaim(1), is(Sequenced.INSUFFICIENT_CAPACITY));
+
+    gatingSequence.set(1L);
+    assertThat(sequencer.tryClaim(3), is(Sequenced.INSUFFICIENT_CAPACITY));
+    assertThat(sequencer.tryClaim(2), is(BUFFER_SIZE + 1L));
+  }
+
   @Test
   public void shouldTryNext() throws Exception {
     sequencer.addGatingSequences(gatingSequence);
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2012 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import com.lmax.disruptor.util.DaemonThreadFactory;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class TimerWheelEventProcessorTest {
+  private final RingBuffer<TimerEvent> source =
+      RingBuffer.createMultiProducer(TimerEvent.FACTORY, 16);
+  private final RingBuffer<TimerEvent> target =
+      RingBuffer.createSingleProducer(TimerEvent.FACTORY, 16);
+
+  @Test
+  public void shouldPublishEventsToTargetInDeadlineOrder() throws Exception {
+    final List<Integer> fired = new ArrayList<Integer>();
+    final List<Long> lateness = new ArrayList<Long>();
+    final CountDownLatch latch = new CountDownLatch(3);
+    BatchEventProcessor<TimerEvent> consumer =
+        new BatchEventProcessor<TimerEvent>(
+            target,
+            target.newBarrier(),
+            new EventHandler<TimerEvent>() {
+              @Override
+              public void onEvent(TimerEvent event, long sequence, boolean endOfBatch) {
+                fired.add(event.id);
+                lateness.add(System.nanoTime() - event.deadline);
+                latch.countDown();
+              }
+            });
+    target.addGatingSequences(consumer.getSequence());
+    TimerWheelEventProcessor<TimerEvent> timer = newTimer(8);
+
+    long now = System.nanoTime();
+    schedule(1, now + TimeUnit.MILLISECONDS.toNanos(200));
+    schedule(2, now - TimeUnit.MILLISECONDS.toNanos(5));
+    schedule(3, now + TimeUnit.MILLISECONDS.toNanos(100));
+
+    Thread consumerThread = DaemonThreadFactory.INSTANCE.newThread(consumer);
+    Thread timerThread = DaemonThreadFactory.INSTANCE.newThread(timer);
+    consumerThread.start();
+    timerThread.start();
+
+    assertTrue(latch.await(2, TimeUnit.SECONDS));
+    timer.halt();
+    consumer.halt();
+    timerThread.join();
+    consumerThread.join();
+
+    assertThat(fired, is(Arrays.asList(2, 3, 1)));
+    for (long late : lateness) {
+      assertTrue(late >= 0);
+    }
+    assertThat(timer.getScheduledCount(), is(0));
+  }
+
+  @Test
+  public void shouldStopTakingEventsWhenWheelIsFull() throws Exception {
+    TimerWheelEventProcessor<TimerEvent> timer = newTimer(2);
+    long later = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+    schedule(1, later);
+    schedule(2, later);
+    schedule(3, later);
+
+    Thread timerThread = DaemonThreadFactory.INSTANCE.newThread(timer);
+    timerThread.start();
+    while (timer.getSequence().get() < 1L) {
+      Thread.yield();
+    }
+    Thread.sleep(20);
+    timer.halt();
+    timerThread.join();
+
+    assertThat(timer.getSequence().get(), is(1L));
+    assertThat(timer.getScheduledCount(), is(2));
+  }
+
+  @Test
+  public void shouldNotifyLifecycleAwareAdapter() throws Exception {
+    LifecycleAwareAdapter adapter = new LifecycleAwareAdapter();
+    TimerWheelEventProcessor<TimerEvent> timer =
+        new TimerWheelEventProcessor<TimerEvent>(
+            source,
+            source.newBarrier(),
+            target,
+            TimerEvent.FACTORY,
+            adapter,
+            8,
+            8,
+            1,
+            TimeUnit.MILLISECONDS);
+
+    Thread timerThread = DaemonThreadFactory.INSTANCE.newThread(timer);
+    timerThread.start();
+    assertTrue(adapter.startLatch.await(2, TimeUnit.SECONDS));
+    timer.halt();
+    timerThread.join();
+
+    assertThat(adapter.shutdownLatch.getCount(), is(0L));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectWheelSizeThatIsNotPowerOfTwo() throws Exception {
+    new TimerWheelEventProcessor<TimerEvent>(
+        source,
+        source.newBarrier(),
+        target,
+        TimerEvent.FACTORY,
+        TimerEvent.ADAPTER,
+        8,
+        6,
+        1,
+        TimeUnit.MILLISECONDS);
+  }
+
+  private TimerWheelEventProcessor<TimerEvent> newTimer(int capacity) {
+    TimerWheelEventProcessor<TimerEvent> timer =
+        new TimerWheelEventProcessor<TimerEvent>(
+            source,
+            source.newBarrier(),
+            target,
+            TimerEvent.FACTORY,
+            TimerEvent.ADAPTER,
+            capacity,
+            8,
+            1,
+            TimeUnit.MILLISECONDS);
+    source.addGatingSequences(timer.getSequence());
+    return timer;
+  }
+
+  private void schedule(final int id, final long deadline) {
+    long sequence = source.next();
+    TimerEvent event = source.get(sequence);
+    event.id = id;
+    event.deadline = deadline;
+    source.publish(sequence);
+  }
+
+  private static final class LifecycleAwareAdapter
+      implements ScheduledEventAdapter<TimerEvent>, LifecycleAware {
+    final CountDownLatch startLatch = new CountDownLatch(1);
+    final CountDownLatch shutdownLatch = new CountDownLatch(1);
+
+    @Override
+    public long getDeadline(TimerEvent event) {
+      return TimerEvent.ADAPTER.getDeadline(event);
+    }
+
+    @Override
+    public void copy(TimerEvent source, TimerEvent destination) {
+      TimerEvent.ADAPTER.copy(source, destination);
+    }
+
+    @Override
+    public void onStart() {
+      startLatch.countDown();
+    }
+
+    @Override
+    public void onShutdown() {
+      shutdownLatch.countDown();
+    }
+  }
+
+  private static final class TimerEvent {
+    static final EventFactory<TimerEvent> FACTORY =
+        new EventFactory<TimerEvent>() {
+          @Override
+          public TimerEvent newInstance() {
+            return new TimerEvent();
+          }
+        };
+
+    static final ScheduledEventAdapter<TimerEvent> ADAPTER =
+        new ScheduledEventAdapter<TimerEvent>() {
+          @Override
+          public long getDeadline(TimerEvent event) {
+            return event.deadline;
+          }
+
+          @Override
+          public void copy(TimerEvent source, TimerEvent destination) {
+            destination.id = source.id;
+            destination.deadline = source.deadline;
+          }
+        };
+
+    int id;
+    long deadline;
+  }
+}
@@ -0,0 +1,155 @@
+package com.lmax.disruptor;
+
+import com.lmax.disruptor.util.DaemonThreadFactory;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class WorkStealingWorkerPoolTest {
+  private static final int EVENTS = 20000;
+
+  @Test
+  public void shouldProcessEachMessageByOnlyOneWorker() throws Exception {
+    final AtomicIntegerArray counts = new AtomicIntegerArray(EVENTS);
+    ExecutorService executor = Executors.newCachedThreadPool(DaemonThreadFactory.INSTANCE);
+    @SuppressWarnings("unchecked")
+    WorkStealingWorkerPool<AtomicLong> pool =
+        new WorkStealingWorkerPool<AtomicLong>(
+            new AtomicLongEventFactory(),
+            new FatalExceptionHandler(),
+            new CountingWorkHandler(counts),
+            new CountingWorkHandler(counts),
+            new CountingWorkHandler(counts),
+            new CountingWorkHandler(counts));
+
+    RingBuffer<AtomicLong> ringBuffer = pool.start(executor);
+    publish(ringBuffer);
+    pool.drainAndHalt();
+    executor.shutdown();
+
+    for (int i = 0; i < EVENTS; i++) {
+      assertThat(counts.get(i), is(1));
+    }
+  }
+
+  @Test
+  public void shouldKeepProcessingWhileOneWorkerIsStalled() throws Exception {
+    final int events = 512;
+    final int stalledEvent = 100;
+    final AtomicIntegerArray counts = new AtomicIntegerArray(events);
+    final CountDownLatch releaseLatch = new CountDownLatch(1);
+    ExecutorService executor = Executors.newCachedThreadPool(DaemonThreadFactory.INSTANCE);
+    @SuppressWarnings("unchecked")
+    WorkStealingWorkerPool<AtomicLong> pool =
+        new WorkStealingWorkerPool<AtomicLong>(
+            new AtomicLongEventFactory(),
+            new FatalExceptionHandler(),
+            new StallingWorkHandler(counts, stalledEvent, releaseLatch),
+            new StallingWorkHandler(counts, stalledEvent, releaseLatch),
+            new StallingWorkHandler(counts, stalledEvent, releaseLatch));
+    pool.setMaxClaimBatchSize(256);
+
+    RingBuffer<AtomicLong> ringBuffer = pool.start(executor);
+    publish(ringBuffer, events);
+
+    // the run the stalled worker holds behind its event has to be stolen for all others to be handled
+    final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (handled(counts) < events - 1 && System.nanoTime() < deadline) {
+      Thread.sleep(1);
+    }
+    assertThat(handled(counts), is(events - 1));
+    assertThat(counts.get(stalledEvent), is(0));
+
+    releaseLatch.countDown();
+    pool.drainAndHalt();
+    executor.shutdown();
+
+    for (int i = 0; i < events; i++) {
+      assertThat(counts.get(i), is(1));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectMaxClaimBatchSizeLessThanOne() {
+    @SuppressWarnings("unchecked")
+    WorkStealingWorkerPool<AtomicLong> pool =
+        new WorkStealingWorkerPool<AtomicLong>(
+            new AtomicLongEventFactory(),
+            new FatalExceptionHandler(),
+            new CountingWorkHandler(new AtomicIntegerArray(1)));
+
+    pool.setMaxClaimBatchSize(0);
+  }
+
+  private static void publish(final RingBuffer<AtomicLong> ringBuffer) {
+    publish(ringBuffer, EVENTS);
+  }
+
+  private static void publish(final RingBuffer<AtomicLong> ringBuffer, final int events) {
+    for (int i = 0; i < events; i++) {
+      long sequence = ringBuffer.next();
+      ringBuffer.get(sequence).set(i);
+      ringBuffer.publish(sequence);
+    }
+  }
+
+  private static int handled(final AtomicIntegerArray counts) {
+    int handled = 0;
+    for (int i = 0; i < counts.length(); i++) {
+      handled += counts.get(i);
+    }
+
+    return handled;
+  }
+
+  private static class AtomicLongEventFactory implements EventFactory<AtomicLong> {
+    @Override
+    public AtomicLong newInstance() {
+      return new AtomicLong(0);
+    }
+  }
+
+  private static class CountingWorkHandler implements WorkHandler<AtomicLong> {
+    private final AtomicIntegerArray counts;
+
+    CountingWorkHandler(final AtomicIntegerArray counts) {
+      this.counts = counts;
+    }
+
+    @Override
+    public void onEvent(AtomicLong event) throws Exception {
+      counts.incrementAndGet((int) event.get());
+    }
+  }
+
+  private static class StallingWorkHandler extends CountingWorkHandler {
+    private final int stalledEvent;
+    private final CountDownLatch releaseLatch;
+
+    StallingWorkHandler(
+        final AtomicIntegerArray counts,
+        final int stalledEvent,
+        final CountDownLatch releaseLatch) {
+      super(counts);
+      this.stalledEvent = stalledEvent;
+      this.releaseLatch = releaseLatch;
+    }
+
+    @Override
+    public void onEvent(AtomicLong event) throws Exception {
+      final int value = (int) event.get();
+      if (value == stalledEvent) {
+        releaseLatch.await();
+      }
+      super.onEvent(event);
+    }
+  }
+}
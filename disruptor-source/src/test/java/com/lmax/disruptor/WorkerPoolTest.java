@@ -3,12 +3,15 @@ package com.lmax.disruptor;
 import com.lmax.disruptor.util.DaemonThreadFactory;
 import org.junit.Test;
 
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 
 public class WorkerPoolTest {
   @SuppressWarnings("unchecked")
@@ -53,6 +56,75 @@ public class WorkerPoolTest {
     assertThat(ringBuffer.get(1).get(), is(0L));
   }
 
+  @SuppressWarnings("unchecked")
+  @Test
+  public void shouldProcessEachMessageOnceWhenClaimingRuns() throws Exception {
+    Executor executor = Executors.newCachedThreadPool(DaemonThreadFactory.INSTANCE);
+    WorkerPool<AtomicLong> pool =
+        new WorkerPool<AtomicLong>(
+            new AtomicLongEventFactory(), new FatalExceptionHandler(),
+            new AtomicLongWorkHandler(), new AtomicLongWorkHandler(), new AtomicLongWorkHandler());
+    pool.setMaxClaimBatchSize(64);
+
+    RingBuffer<AtomicLong> ringBuffer = pool.start(executor);
+
+    for (int i = 0; i < 1000; i++) {
+      ringBuffer.publish(ringBuffer.next());
+    }
+    pool.drainAndHalt();
+
+    for (int i = 0; i < 1000; i++) {
+      assertThat(ringBuffer.get(i).get(), is(1L));
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void shouldSpreadShortBacklogAcrossWorkersAfterRestart() throws Exception {
+    Executor executor = Executors.newCachedThreadPool(DaemonThreadFactory.INSTANCE);
+    CountDownLatch shutdownLatch = new CountDownLatch(2);
+    GatedWorkHandler first = new GatedWorkHandler(shutdownLatch);
+    GatedWorkHandler second = new GatedWorkHandler(shutdownLatch);
+    WorkerPool<AtomicLong> pool =
+        new WorkerPool<AtomicLong>(
+            new AtomicLongEventFactory(), new FatalExceptionHandler(), first, second);
+    pool.setMaxClaimBatchSize(64);
+
+    RingBuffer<AtomicLong> ringBuffer = pool.start(executor);
+    ringBuffer.publish(ringBuffer.next());
+    ringBuffer.publish(ringBuffer.next());
+    pool.drainAndHalt();
+    assertTrue(shutdownLatch.await(5, TimeUnit.SECONDS));
+
+    CountDownLatch firstEventLatch = new CountDownLatch(2);
+    CountDownLatch releaseLatch = new CountDownLatch(1);
+    first.gate(firstEventLatch, releaseLatch);
+    second.gate(firstEventLatch, releaseLatch);
+    pool.start(executor);
+    for (int i = 0; i < 4; i++) {
+      ringBuffer.publish(ringBuffer.next());
+    }
+
+    // each worker holds its first event until both have one
+    assertTrue(firstEventLatch.await(5, TimeUnit.SECONDS));
+    releaseLatch.countDown();
+    pool.drainAndHalt();
+
+    for (int i = 0; i < 6; i++) {
+      assertThat(ringBuffer.get(i).get(), is(1L));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectMaxClaimBatchSizeLessThanOne() throws Exception {
+    @SuppressWarnings("unchecked")
+    WorkerPool<AtomicLong> pool =
+        new WorkerPool<AtomicLong>(
+            new AtomicLongEventFactory(), new FatalExceptionHandler(), new AtomicLongWorkHandler());
+
+    pool.setMaxClaimBatchSize(0);
+  }
+
   private static class AtomicLongEventFactory implements EventFactory<AtomicLong> {
     @Override
     public AtomicLong newInstance() {
@@ -66,4 +138,38 @@ public class WorkerPoolTest {
       event.incrementAndGet();
     }
   }
+
+  private static class GatedWorkHandler implements WorkHandler<AtomicLong>, LifecycleAware {
+    private final CountDownLatch shutdownLatch;
+    private volatile CountDownLatch firstEventLatch;
+    private volatile CountDownLatch releaseLatch;
+    private boolean gated;
+
+    GatedWorkHandler(CountDownLatch shutdownLatch) {
+      this.shutdownLatch = shutdownLatch;
+    }
+
+    void gate(CountDownLatch firstEventLatch, CountDownLatch releaseLatch) {
+      this.firstEventLatch = firstEventLatch;
+      this.releaseLatch = releaseLatch;
+    }
+
+    @Override
+    public void onEvent(AtomicLong event) throws Exception {
+      event.incrementAndGet();
+      if (releaseLatch != null && !gated) {
+        gated = true;
+        firstEventLatch.countDown();
+        releaseLatch.await();
+      }
+    }
+
+    @Override
+    public void onStart() {}
+
+    @Override
+    public void onShutdown() {
+      shutdownLatch.countDown();
+    }
+  }
 }
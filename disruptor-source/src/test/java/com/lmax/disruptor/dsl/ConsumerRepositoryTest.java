@@ -55,15 +55,15 @@ public class ConsumerRepositoryTest {
 
   @Test
   public void shouldGetBarrierByHandler() throws Exception {
-    consumerRepository.add(eventProcessor1, handler1, barrier1);
+    consumerRepository.add(eventProcessor1, handler1, barrier1, new Sequence[0]);
 
     assertThat(consumerRepository.getBarrierFor(handler1), sameInstance(barrier1));
   }
 
   @Test
   public void shouldGetLastEventProcessorsInChain() throws Exception {
-    consumerRepository.add(eventProcessor1, handler1, barrier1);
-    consumerRepository.add(eventProcessor2, handler2, barrier2);
+    consumerRepository.add(eventProcessor1, handler1, barrier1, new Sequence[0]);
+    consumerRepository.add(eventProcessor2, handler2, barrier2, new Sequence[0]);
 
     consumerRepository.unMarkEventProcessorsAsEndOfChain(eventProcessor2.getSequence());
 
@@ -74,8 +74,8 @@ public class ConsumerRepositoryTest {
 
   @Test
   public void shouldIterateAllEventProcessors() throws Exception {
-    consumerRepository.add(eventProcessor1, handler1, barrier1);
-    consumerRepository.add(eventProcessor2, handler2, barrier2);
+    consumerRepository.add(eventProcessor1, handler1, barrier1, new Sequence[0]);
+    consumerRepository.add(eventProcessor2, handler2, barrier2, new Sequence[0]);
 
     boolean seen1 = false;
     boolean seen2 = false;
@@ -101,7 +101,7 @@ public class ConsumerRepositoryTest {
 
   @Test
   public void shouldRetrieveEventProcessorForHandler() throws Exception {
-    consumerRepository.add(eventProcessor1, handler1, barrier1);
+    consumerRepository.add(eventProcessor1, handler1, barrier1, new Sequence[0]);
 
     assertThat(consumerRepository.getEventProcessorFor(handler1), sameInstance(eventProcessor1));
   }
@@ -764,6 +764,147 @@ public class DisruptorTest {
     ensureTwoEventsProcessedAccordingToDependencies(countDownLatch, eventHandler1);
   }
 
+  @Test
+  public void shouldAttachEventHandlerAfterStart() throws Exception {
+    disruptor.handleEventsWith(createDelayedEventHandler());
+    publishEvent();
+
+    final CountDownLatch countDownLatch = new CountDownLatch(1);
+    disruptor.attachEventHandler(new EventHandlerStub<TestEvent>(countDownLatch));
+    assertThatCountDownLatchEquals(countDownLatch, 1L);
+
+    publishEvent();
+
+    assertThatCountDownLatchIsZero(countDownLatch);
+  }
+
+  @Test
+  public void shouldAttachEventHandlerAtSequence() throws Exception {
+    disruptor.handleEventsWith(createDelayedEventHandler());
+    publishEvent();
+    publishEvent();
+
+    final CountDownLatch countDownLatch = new CountDownLatch(2);
+    disruptor.attachEventHandler(new EventHandlerStub<TestEvent>(countDownLatch), -1L);
+
+    assertThatCountDownLatchIsZero(countDownLatch);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldNotAttachEventHandlerBehindSlowestHandler() throws Exception {
+    final DelayedEventHandler delayedEventHandler = createDelayedEventHandler();
+    disruptor.handleEventsWith(delayedEventHandler);
+    publishEvent();
+    publishEvent();
+    delayedEventHandler.processEvent();
+    delayedEventHandler.processEvent();
+    while (disruptor.getSequenceValueFor(delayedEventHandler) < 1L) {
+      yield();
+    }
+
+    disruptor.attachEventHandler(new SleepingEventHandler(), 0L);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldNotAttachEventHandlerAheadOfCursor() throws Exception {
+    disruptor.handleEventsWith(createDelayedEventHandler());
+    publishEvent();
+
+    disruptor.attachEventHandler(new SleepingEventHandler(), 1L);
+  }
+
+  @Test
+  public void shouldNotBlockProducerAfterDetachingEventHandler() throws Exception {
+    final DelayedEventHandler delayedEventHandler = createDelayedEventHandler();
+    disruptor.handleEventsWith(delayedEventHandler);
+    publishEvent();
+    delayedEventHandler.processEvent();
+
+    disruptor.detachEventHandler(delayedEventHandler);
+    for (int i = 0; i < 8; i++) {
+      publishEvent();
+    }
+
+    assertThat(disruptor.getRingBuffer().getMinimumGatingSequence(), is(8L));
+  }
+
+  @Test
+  public void shouldTimeOutDetachingEventHandlerStuckInEvent() throws Exception {
+    final CountDownLatch inEventLatch = new CountDownLatch(1);
+    final CountDownLatch releaseLatch = new CountDownLatch(1);
+    final EventHandler<TestEvent> stuckEventHandler =
+        new EventHandler<TestEvent>() {
+          @Override
+          public void onEvent(TestEvent event, long sequence, boolean endOfBatch)
+              throws Exception {
+            inEventLatch.countDown();
+            releaseLatch.await();
+          }
+        };
+    disruptor.handleEventsWith(stuckEventHandler);
+    publishEvent();
+    assertTrue(inEventLatch.await(5, SECONDS));
+
+    try {
+      disruptor.detachEventHandler(stuckEventHandler, 50, TimeUnit.MILLISECONDS);
+      fail("expected TimeoutException");
+    } catch (TimeoutException expected) {
+      // the handler is still inside onEvent
+    }
+    assertThat(disruptor.getRingBuffer().getMinimumGatingSequence(), is(-1L));
+
+    releaseLatch.countDown();
+    disruptor.detachEventHandler(stuckEventHandler, 5, SECONDS);
+    for (int i = 0; i < 8; i++) {
+      publishEvent();
+    }
+
+    assertThat(disruptor.getRingBuffer().getMinimumGatingSequence(), is(8L));
+  }
+
+  @Test
+  public void shouldKeepGatingOnUpstreamHandlerWhenDetachingEndOfChain() throws Exception {
+    final CountDownLatch inEventLatch = new CountDownLatch(1);
+    final CountDownLatch releaseLatch = new CountDownLatch(1);
+    final EventHandler<TestEvent> stuckEventHandler =
+        new EventHandler<TestEvent>() {
+          @Override
+          public void onEvent(TestEvent event, long sequence, boolean endOfBatch)
+              throws Exception {
+            inEventLatch.countDown();
+            releaseLatch.await();
+          }
+        };
+    final SleepingEventHandler downstreamHandler = new SleepingEventHandler();
+    disruptor.handleEventsWith(stuckEventHandler).then(downstreamHandler);
+    publishEvent();
+    assertTrue(inEventLatch.await(5, SECONDS));
+
+    disruptor.detachEventHandler(downstreamHandler);
+
+    final EventTranslator<TestEvent> translator =
+        new EventTranslator<TestEvent>() {
+          @Override
+          public void translateTo(final TestEvent event, final long sequence) {}
+        };
+    for (int i = 0; i < 3; i++) {
+      assertTrue(ringBuffer.tryPublishEvent(translator));
+    }
+    assertFalse(ringBuffer.tryPublishEvent(translator));
+
+    releaseLatch.countDown();
+    disruptor.detachEventHandler(stuckEventHandler, 5, SECONDS);
+    assertThat(ringBuffer.getMinimumGatingSequence(), is(ringBuffer.getCursor()));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void shouldNotDetachEventHandlerUsedInBarrier() throws Exception {
+    final DelayedEventHandler delayedEventHandler = createDelayedEventHandler();
+    disruptor.handleEventsWith(delayedEventHandler).then(new SleepingEventHandler());
+
+    disruptor.detachEventHandler(delayedEventHandler);
+  }
+
   @After
   public void tearDown() throws Exception {
     for (DelayedEventHandler delayedEventHandler : delayedEventHandlers) {
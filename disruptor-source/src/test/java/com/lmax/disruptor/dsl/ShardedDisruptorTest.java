@@ -0,0 +1,101 @@
+/*
+ * Copyright 2012 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.dsl;
+
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.support.StubEvent;
+import com.lmax.disruptor.util.DaemonThreadFactory;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class ShardedDisruptorTest {
+  private static final int SHARDS = 4;
+  private static final int KEYS = 16;
+  private static final int EVENTS_PER_KEY = 500;
+
+  @Test
+  public void shouldKeepPerKeyOrderWithinOneShard() throws Exception {
+    final ShardedDisruptor<StubEvent> disruptor =
+        new ShardedDisruptor<StubEvent>(
+            StubEvent.EVENT_FACTORY, 64, DaemonThreadFactory.INSTANCE, SHARDS);
+    final List<List<StubEvent>> received = new ArrayList<List<StubEvent>>();
+    for (int i = 0; i < SHARDS; i++) {
+      received.add(new ArrayList<StubEvent>());
+    }
+
+    disruptor.handleEventsWith(
+        new ShardedEventHandlerFactory<StubEvent>() {
+          @Override
+          public EventHandler<? super StubEvent> createEventHandler(final int shard) {
+            return new EventHandler<StubEvent>() {
+              @Override
+              public void onEvent(StubEvent event, long sequence, boolean endOfBatch) {
+                StubEvent copy = new StubEvent(event.getValue());
+                copy.setTestString(event.getTestString());
+                received.get(shard).add(copy);
+              }
+            };
+          }
+        });
+    disruptor.start();
+
+    for (int i = 0; i < EVENTS_PER_KEY; i++) {
+      for (int k = 0; k < KEYS; k++) {
+        String key = "key-" + k;
+        disruptor.publishEvent(key, StubEvent.TRANSLATOR, i, key);
+      }
+    }
+
+    disruptor.shutdown(5, TimeUnit.SECONDS);
+    assertThat(disruptor.getCursor(), is((long) KEYS * EVENTS_PER_KEY - 1));
+
+    final Map<String, Integer> lastValues = new HashMap<String, Integer>();
+    for (int shard = 0; shard < SHARDS; shard++) {
+      for (StubEvent event : received.get(shard)) {
+        String key = event.getTestString();
+        assertThat(disruptor.shardFor(key), is(shard));
+
+        Integer last = lastValues.get(key);
+        assertThat(event.getValue(), is(last == null ? 0 : last + 1));
+        lastValues.put(key, event.getValue());
+      }
+    }
+    assertThat(lastValues.size(), is(KEYS));
+  }
+
+  @Test
+  public void shouldStartWithInitialCursor() throws Exception {
+    ShardedDisruptor<StubEvent> disruptor =
+        new ShardedDisruptor<StubEvent>(
+            StubEvent.EVENT_FACTORY, 8, DaemonThreadFactory.INSTANCE, SHARDS);
+
+    assertThat(disruptor.getCursor(), is(-1L));
+    assertThat(disruptor.getShardCount(), is(SHARDS));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectZeroShards() throws Exception {
+    new ShardedDisruptor<StubEvent>(StubEvent.EVENT_FACTORY, 8, DaemonThreadFactory.INSTANCE, 0);
+  }
+}
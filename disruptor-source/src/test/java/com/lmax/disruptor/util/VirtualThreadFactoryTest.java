@@ -0,0 +1,48 @@
+/*
+ * Copyright 2012 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.util;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeFalse;
+import static org.junit.Assume.assumeTrue;
+
+public class VirtualThreadFactoryTest {
+  @Test
+  public void shouldRunTaskOnVirtualThread() throws Exception {
+    assumeTrue(VirtualThreadFactory.isSupported());
+
+    final CountDownLatch latch = new CountDownLatch(1);
+    final Thread thread = VirtualThreadFactory.INSTANCE.newThread(latch::countDown);
+    thread.start();
+
+    assertTrue(latch.await(2, TimeUnit.SECONDS));
+    assertThat(Thread.class.getMethod("isVirtual").invoke(thread), is((Object) true));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void shouldFailToCreateThreadWhenUnsupported() throws Exception {
+    assumeFalse(VirtualThreadFactory.isSupported());
+
+    VirtualThreadFactory.INSTANCE.newThread(() -> {});
+  }
+}